@@ -0,0 +1,96 @@
+package app.bench;
+
+import app.db.DBManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 🧪 Embedded H2 (MySQL mode), empty or seeded with one user holding N positions and N transactions
+public final class BenchDatabase {
+
+    public static final int USER_ID = 1;
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    private BenchDatabase() {
+    }
+
+    public static String symbol(int i) {
+        return String.format("SYM%06d", i);
+    }
+
+    public static DBManager create(int positions, int transactions) throws SQLException, IOException {
+        DBManager db = createEmpty();
+        try (Connection conn = db.getConnection()) {
+            seed(conn, positions, transactions);
+        }
+        return db;
+    }
+
+    // Schema only, no users
+    public static DBManager createEmpty() throws SQLException, IOException {
+        // The fat JMH jar keeps only one META-INF/services/java.sql.Driver, so register H2 explicitly
+        org.h2.Driver.load();
+        String url = "jdbc:h2:mem:bench" + SEQ.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        DBManager db = DBManager.forUrl(url, "sa", "");
+        try (Connection conn = db.getConnection()) {
+            runScript(conn, "/schema-h2.sql");
+        }
+        return db;
+    }
+
+    private static void runScript(Connection conn, String resource) throws SQLException, IOException {
+        String sql;
+        try (InputStream in = BenchDatabase.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IOException("Missing " + resource);
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement st = conn.createStatement()) {
+            for (String stmt : sql.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!stmt.isBlank()) st.execute(stmt);
+            }
+        }
+    }
+
+    private static void seed(Connection conn, int positions, int transactions) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO users (id, username, password, balance) VALUES (?, 'bench', 'bench', 1000000000)")) {
+            ps.setInt(1, USER_ID);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO portfolio (user_id, symbol, company_name, quantity, avg_price) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < positions; i++) {
+                ps.setInt(1, USER_ID);
+                ps.setString(2, symbol(i));
+                ps.setString(3, "Company " + i);
+                ps.setInt(4, 10 + i % 90);
+                ps.setDouble(5, 100 + i % 500);
+                ps.addBatch();
+                if (i % 1000 == 999) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        long base = System.currentTimeMillis() - transactions * 1000L;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO transactions (user_id, symbol, type, quantity, price, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < transactions; i++) {
+                ps.setInt(1, USER_ID);
+                ps.setString(2, symbol(i % Math.max(1, positions)));
+                ps.setString(3, i % 3 == 0 ? "SELL" : "BUY");
+                ps.setInt(4, 1 + i % 50);
+                ps.setDouble(5, 100 + i % 500);
+                ps.setTimestamp(6, new Timestamp(base + i * 1000L));
+                ps.addBatch();
+                if (i % 1000 == 999) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,44 @@
+package app.bench;
+
+import app.chart.MinMaxPyramid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 📉 Cost of reducing a series to one chart-width of points: should stay flat as history grows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChartDecimationBenchmark {
+
+    private static final int PIXELS = 1000;
+
+    @Param({"1000", "100000", "10000000"})
+    public int points;
+
+    private MinMaxPyramid pyramid;
+    private final double[] outX = new double[PIXELS + 4];
+    private final double[] outY = new double[PIXELS + 4];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pyramid = new MinMaxPyramid();
+        SplittableRandom random = new SplittableRandom(42);
+        double v = 100_000;
+        for (int i = 0; i < points; i++) {
+            v += random.nextDouble(-50, 50);
+            pyramid.append(i, v);
+        }
+    }
+
+    @Benchmark
+    public int fullHistory() {
+        return pyramid.decimate(0, pyramid.size(), PIXELS / 2, outX, outY);
+    }
+
+    @Benchmark
+    public int zoomedToLastTenth() {
+        return pyramid.decimate(pyramid.size() - pyramid.size() / 10, pyramid.size(), PIXELS / 2, outX, outY);
+    }
+}
@@ -0,0 +1,46 @@
+package app.bench;
+
+import app.db.DBManager;
+import app.models.PortfolioItem;
+import app.models.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 💾 DBManager read paths against embedded H2 with N positions and N transactions
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataAccessBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int positions;
+
+    private DBManager db;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        db = BenchDatabase.create(positions, positions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public List<PortfolioItem> loadPortfolio() {
+        return db.loadPortfolio(BenchDatabase.USER_ID);
+    }
+
+    @Benchmark
+    public List<Transaction> loadTransactions() {
+        return db.loadTransactions(BenchDatabase.USER_ID);
+    }
+
+    @Benchmark
+    public List<Transaction> loadTransactionsFirstPage() throws Exception {
+        return db.loadTransactionsPage(BenchDatabase.USER_ID, null, 0, 100);
+    }
+}
@@ -0,0 +1,53 @@
+package app.bench;
+
+import app.models.Stock;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 🐢 Baseline: the original calculatePortfolioValue loop — one linear marketData scan per holding.
+// Quadratic, so it stops at 10k; 100k positions × 100k symbols would take tens of seconds per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LegacyValuationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int positions;
+
+    private ObservableList<Stock> marketData;
+    private String[] symbols;
+    private int[] quantities;
+    private double[] avgPrices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        marketData = FXCollections.observableArrayList();
+        symbols = new String[positions];
+        quantities = new int[positions];
+        avgPrices = new double[positions];
+        for (int i = 0; i < positions; i++) {
+            symbols[i] = BenchDatabase.symbol(i);
+            quantities[i] = 10 + i % 90;
+            avgPrices[i] = 100 + i % 500;
+            marketData.add(new Stock(symbols[i], "Company " + i, 100 + i % 500));
+        }
+    }
+
+    @Benchmark
+    public double linearScanValuation() {
+        double total = 0;
+        for (int i = 0; i < positions; i++) {
+            String sym = symbols[i];
+            double price = marketData.stream()
+                    .filter(s -> s.getSymbol().equals(sym))
+                    .map(Stock::getPrice)
+                    .findFirst()
+                    .orElse(avgPrices[i]);
+            total += quantities[i] * price;
+        }
+        return total;
+    }
+}
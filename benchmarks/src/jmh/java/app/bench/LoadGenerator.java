@@ -0,0 +1,302 @@
+package app.bench;
+
+import app.db.ConnectionPool;
+import app.db.DBManager;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+import app.models.PortfolioItem;
+import app.models.TradeResult;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 👥 Multi-user load against the trade path: N simulated users, one virtual thread each, log in and then
+// loop over a buy/sell/portfolio-read mix through DBManager on embedded H2 (MySQL mode).
+// Prints p50/p99/p99.9 per op and trades/s, then checks every account against its transactions ledger
+// (and DBManager's cached balance against the stored one).
+//   ./gradlew :benchmarks:loadTest --args='--users=200 --seconds=10'
+//   --users=N          simulated users (default 100)
+//   --seconds=S        measured run length (default 10)
+//   --symbols=K        instruments traded (default 20)
+//   --read-ratio=R     share of ops that read portfolio + balance (default 0.3)
+//   --sell-ratio=R     share of trades that sell (default 0.4)
+//   --deposit=AMOUNT   starting cash per user (default 100000)
+//   --seed=S           random seed
+//   --no-cache         bypass DBManager's read caches
+// Pool size comes from -Dstockup.db.pool.max; exit code is 1 when an invariant is violated.
+public final class LoadGenerator {
+
+    private final int users;
+    private final long seconds;
+    private final int symbolCount;
+    private final double readRatio;
+    private final double sellRatio;
+    private final long depositCents;
+    private final long seed;
+    private final boolean cache;
+
+    private final LatencyHistogram loginLatency = new LatencyHistogram();
+    private final LatencyHistogram tradeLatency = new LatencyHistogram();
+    private final LatencyHistogram readLatency = new LatencyHistogram();
+    private final AtomicLong filled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private String[] symbols;
+    // 📈 Shared random walk in whole cents so every cash amount is exact in DECIMAL(16,2)
+    private AtomicLongArray priceCents;
+
+    private LoadGenerator(Map<String, String> o) {
+        users = Integer.parseInt(o.getOrDefault("users", "100"));
+        seconds = Long.parseLong(o.getOrDefault("seconds", "10"));
+        symbolCount = Integer.parseInt(o.getOrDefault("symbols", "20"));
+        readRatio = Double.parseDouble(o.getOrDefault("read-ratio", "0.3"));
+        sellRatio = Double.parseDouble(o.getOrDefault("sell-ratio", "0.4"));
+        depositCents = Math.round(Double.parseDouble(o.getOrDefault("deposit", "100000")) * 100);
+        seed = Long.parseLong(o.getOrDefault("seed", String.valueOf(System.nanoTime())));
+        cache = !o.containsKey("no-cache");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) options.put(a.substring(2), "true");
+            else options.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        System.exit(new LoadGenerator(options).run());
+    }
+
+    private int run() throws Exception {
+        symbols = new String[symbolCount];
+        priceCents = new AtomicLongArray(symbolCount);
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = BenchDatabase.symbol(i);
+            priceCents.set(i, 10_000 + i * 2_500L);
+        }
+
+        DBManager db = BenchDatabase.createEmpty();
+        db.setCachingEnabled(cache);
+        try {
+            db.getPool().warmUp();
+            System.out.println(String.format(Locale.ROOT, "🚀 %d users, %d symbols, %ds, pool max %d",
+                    users, symbolCount, seconds, db.getPool().getMaxSize()));
+
+            List<SimUser> sims = new ArrayList<>(users);
+            for (int u = 0; u < users; u++) sims.add(new SimUser("load" + u, new SplittableRandom(seed + u)));
+
+            CountDownLatch ready = new CountDownLatch(users);
+            CountDownLatch start = new CountDownLatch(1);
+            long[] window = new long[2];
+            try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (SimUser sim : sims) {
+                    exec.submit(() -> {
+                        try {
+                            sim.setUp(db);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            e.printStackTrace();
+                        } finally {
+                            ready.countDown();
+                        }
+                        try {
+                            start.await();
+                            sim.loop(db, window[1]);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+                ready.await();
+                window[0] = System.nanoTime();
+                window[1] = window[0] + seconds * 1_000_000_000L;
+                start.countDown();
+            }
+            double elapsed = (System.nanoTime() - window[0]) / 1e9;
+
+            report(elapsed, db.getPool());
+            int violations = verify(db, sims);
+            if (violations == 0) System.out.println("✅ Invariants hold for all " + users + " users");
+            else System.out.println("❌ " + violations + " invariant violations");
+            return violations == 0 ? 0 : 1;
+        } finally {
+            db.close();
+        }
+    }
+
+    private final class SimUser {
+        final String name;
+        final SplittableRandom random;
+        int userId = -1;
+        // 🧾 Client-side tally of filled trades, checked against the database at the end
+        long cashCents;
+        final long[] qty = new long[symbolCount];
+
+        SimUser(String name, SplittableRandom random) {
+            this.name = name;
+            this.random = random;
+        }
+
+        void setUp(DBManager db) throws SQLException {
+            if (!db.signup(name, "pw")) throw new SQLException("signup failed for " + name);
+            long t0 = System.nanoTime();
+            Optional<Integer> id = db.login(name, "pw");
+            loginLatency.record(System.nanoTime() - t0);
+            userId = id.orElseThrow(() -> new SQLException("login failed for " + name));
+            db.deposit(userId, depositCents / 100.0);
+            cashCents = depositCents;
+        }
+
+        void loop(DBManager db, long deadline) {
+            if (userId < 0) return;
+            while (System.nanoTime() < deadline) {
+                try {
+                    if (random.nextDouble() < readRatio) read(db);
+                    else trade(db);
+                } catch (Exception e) {
+                    if (errors.getAndIncrement() < 5) e.printStackTrace();
+                }
+            }
+        }
+
+        void read(DBManager db) throws SQLException {
+            long t0 = System.nanoTime();
+            List<PortfolioItem> items = db.loadPortfolio(userId);
+            db.getBalance(userId);
+            readLatency.record(System.nanoTime() - t0);
+            reads.incrementAndGet();
+            if (items == null) errors.incrementAndGet();
+        }
+
+        void trade(DBManager db) throws SQLException {
+            int s = random.nextInt(symbolCount);
+            long price = step(s, random);
+            boolean sell = qty[s] > 0 && random.nextDouble() < sellRatio;
+            int q = sell ? 1 + random.nextInt((int) Math.min(qty[s], 50)) : 1 + random.nextInt(20);
+
+            long t0 = System.nanoTime();
+            TradeResult r = db.executeTrade(userId, symbols[s], sell ? "SELL" : "BUY", q, price / 100.0);
+            tradeLatency.record(System.nanoTime() - t0);
+
+            if (!r.isFilled()) {
+                rejected.incrementAndGet();
+                return;
+            }
+            filled.incrementAndGet();
+            qty[s] += sell ? -q : q;
+            cashCents += sell ? price * q : -price * q;
+        }
+    }
+
+    // 🎲 ±0.5% per trade, floored at ₹1
+    private long step(int s, SplittableRandom random) {
+        long bps = random.nextLong(-50, 51);
+        return priceCents.updateAndGet(s, p -> Math.max(100, p + p * bps / 10_000));
+    }
+
+    private void report(double elapsed, ConnectionPool pool) {
+        System.out.println(String.format(Locale.ROOT, "📊 %d trades filled, %d rejected, %d reads in %.2fs → %.0f trades/s, %.0f ops/s",
+                filled.get(), rejected.get(), reads.get(), elapsed,
+                (filled.get() + rejected.get()) / elapsed, (filled.get() + rejected.get() + reads.get()) / elapsed));
+        print("login", loginLatency);
+        print("trade", tradeLatency);
+        print("read", readLatency);
+        System.out.println("   pool: " + pool.stats());
+        Map<String, Long> counters = MetricsRegistry.shared().counterValues();
+        System.out.println(String.format(Locale.ROOT, "   balance cache: %s, hits %d, misses %d",
+                cache ? "on" : "off", counters.getOrDefault("cache.balance.hits", 0L),
+                counters.getOrDefault("cache.balance.misses", 0L)));
+        if (errors.get() > 0) System.out.println("⚠️ " + errors.get() + " ops failed");
+    }
+
+    private static void print(String op, LatencyHistogram h) {
+        System.out.println(String.format(Locale.ROOT, "   %-5s ms: p50 %.3f  p99 %.3f  p99.9 %.3f  max %.3f  (n=%d)",
+                op, h.valueAtPercentile(50) / 1e6, h.valueAtPercentile(99) / 1e6,
+                h.valueAtPercentile(99.9) / 1e6, h.getMaxNanos() / 1e6, h.getCount()));
+    }
+
+    // 🔍 Per user: balance = deposit − buys + sells from the ledger, each position = net ledger quantity,
+    // nothing negative, and both match what the client saw filled
+    private int verify(DBManager db, List<SimUser> sims) throws SQLException {
+        int violations = 0;
+        try (Connection conn = db.getConnection();
+             PreparedStatement balanceStmt = conn.prepareStatement("SELECT balance FROM users WHERE id = ?");
+             PreparedStatement ledgerStmt = conn.prepareStatement(
+                     "SELECT symbol, SUM(CASE WHEN type = 'BUY' THEN quantity ELSE -quantity END), " +
+                     "SUM(CASE WHEN type = 'BUY' THEN -quantity * price ELSE quantity * price END) " +
+                     "FROM transactions WHERE user_id = ? GROUP BY symbol");
+             PreparedStatement positionStmt = conn.prepareStatement(
+                     "SELECT symbol, quantity FROM portfolio WHERE user_id = ?")) {
+            for (SimUser sim : sims) {
+                if (sim.userId < 0) continue;
+                long balance = cents(single(balanceStmt, sim.userId));
+
+                long ledgerCash = depositCents;
+                Map<String, Long> ledgerQty = new HashMap<>();
+                ledgerStmt.setInt(1, sim.userId);
+                try (ResultSet rs = ledgerStmt.executeQuery()) {
+                    while (rs.next()) {
+                        ledgerQty.put(rs.getString(1), rs.getLong(2));
+                        ledgerCash += cents(rs.getBigDecimal(3));
+                    }
+                }
+                Map<String, Long> held = new HashMap<>();
+                positionStmt.setInt(1, sim.userId);
+                try (ResultSet rs = positionStmt.executeQuery()) {
+                    while (rs.next()) held.put(rs.getString(1), rs.getLong(2));
+                }
+
+                if (balance < 0) violations += fail(sim, "negative balance " + balance);
+                if (balance != ledgerCash) violations += fail(sim, "balance " + balance + " ≠ ledger " + ledgerCash);
+                if (balance != sim.cashCents) violations += fail(sim, "balance " + balance + " ≠ client " + sim.cashCents);
+                long cached = Math.round(db.getBalance(sim.userId) * 100);
+                if (cached != balance) violations += fail(sim, "cached balance " + cached + " ≠ stored " + balance);
+                for (int s = 0; s < symbolCount; s++) {
+                    long inDb = held.getOrDefault(symbols[s], 0L);
+                    long inLedger = ledgerQty.getOrDefault(symbols[s], 0L);
+                    if (inDb < 0) violations += fail(sim, symbols[s] + " negative quantity " + inDb);
+                    if (inDb != inLedger) violations += fail(sim, symbols[s] + " quantity " + inDb + " ≠ ledger " + inLedger);
+                    if (inDb != sim.qty[s]) violations += fail(sim, symbols[s] + " quantity " + inDb + " ≠ client " + sim.qty[s]);
+                }
+                for (Map.Entry<String, Long> e : held.entrySet()) {
+                    if (e.getValue() == 0) violations += fail(sim, e.getKey() + " zero-quantity row left behind");
+                }
+            }
+        }
+        return violations;
+    }
+
+    private static BigDecimal single(PreparedStatement ps, int userId) throws SQLException {
+        ps.setInt(1, userId);
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) throw new SQLException("no user " + userId);
+            return rs.getBigDecimal(1);
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+
+    private static int fail(SimUser sim, String message) {
+        System.out.println("❌ " + sim.name + " (id " + sim.userId + "): " + message);
+        return 1;
+    }
+}
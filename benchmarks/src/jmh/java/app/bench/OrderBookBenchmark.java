@@ -0,0 +1,78 @@
+package app.bench;
+
+import app.exchange.Exchange;
+import app.exchange.Execution;
+import app.exchange.OrderBook;
+import app.market.Instrument;
+import app.market.PriceStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 🏛️ Order-to-fill latency: a market order against a book of the given depth (refilled after each fill
+// so the book keeps its shape), resting and cancelling a limit order, and the same market order
+// through the Exchange (lock, top-of-book publish, Execution result). Run with -prof gc to check that
+// the book itself allocates nothing per order.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderBookBenchmark {
+
+    private static final int USER = 1;
+    private static final int MAKER = 2;
+    private static final long MID = 380_000;          // ₹3800.00 in ticks
+
+    @Param({"5", "100", "1000"})
+    public int levels;
+
+    private OrderBook book;
+    private Exchange exchange;
+    private int symbolId;
+    private long cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        book = new OrderBook(levels * 2 * 10 + 16, levels * 2 + 16, (makerId, makerOwner, makerLeft, takerId,
+                                                                      takerOwner, takerBuys, price, qty) -> { });
+        for (int k = 0; k < levels; k++) {
+            for (int n = 0; n < 10; n++) {
+                book.limit(MAKER, true, MID - 1 - k, 100);
+                book.limit(MAKER, false, MID + 1 + k, 100);
+            }
+        }
+
+        PriceStore prices = new PriceStore();
+        List<Instrument> instruments = List.of(new Instrument("TCS", "Tata Consultancy", MID / 100.0));
+        symbolId = prices.intern("TCS");
+        prices.update(symbolId, MID / 100.0, System.nanoTime());
+        exchange = new Exchange(prices, instruments, levels, 1_000, 5, levels * 2 + 64);
+    }
+
+    // ⚡ Takes the oldest resting order at the touch (alternating sides), which is then put back at the
+    // end of its level's queue
+    @Benchmark
+    public long marketOrder() {
+        boolean buy = (cursor++ & 1) == 0;
+        long touch = buy ? book.bestAsk() : book.bestBid();
+        long id = book.market(USER, buy, 100);
+        book.limit(MAKER, !buy, touch, 100);
+        return id;
+    }
+
+    // 📝 Rest one tick behind the touch, then cancel
+    @Benchmark
+    public boolean limitAndCancel() {
+        boolean buy = (cursor++ & 1) == 0;
+        long id = book.limit(USER, buy, buy ? MID - 2 : MID + 2, 10);
+        return book.cancel(id);
+    }
+
+    // 🏛️ Through the Exchange; the market maker re-quotes every 256 orders, as a feed tick would
+    @Benchmark
+    public Execution exchangeMarketOrder() {
+        long n = cursor++;
+        if ((n & 255) == 0) exchange.onTick(symbolId, MID / 100.0, 0, System.nanoTime());
+        return exchange.market(USER, "TCS", (n & 1) == 0, 1);
+    }
+}
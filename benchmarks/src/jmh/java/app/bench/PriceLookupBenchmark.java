@@ -0,0 +1,64 @@
+package app.bench;
+
+import app.market.PriceStore;
+import app.models.Stock;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 🔍 Price by symbol: linear ObservableList scan vs PriceStore by symbol vs PriceStore by id
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceLookupBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int symbols;
+
+    private ObservableList<Stock> marketData;
+    private PriceStore store;
+    private String[] queries;
+    private int[] queryIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        marketData = FXCollections.observableArrayList();
+        store = new PriceStore(symbols);
+        for (int i = 0; i < symbols; i++) {
+            String s = BenchDatabase.symbol(i);
+            marketData.add(new Stock(s, "Company " + i, 100 + i));
+            store.update(s, 100 + i);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        queries = new String[1024];
+        queryIds = new int[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = BenchDatabase.symbol(random.nextInt(symbols));
+            queryIds[i] = store.idOf(queries[i]);
+        }
+    }
+
+    @Benchmark
+    public double linearScan() {
+        String sym = queries[cursor++ & 1023];
+        return marketData.stream()
+                .filter(s -> s.getSymbol().equals(sym))
+                .mapToDouble(Stock::getPrice)
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    @Benchmark
+    public double storeBySymbol() {
+        return store.price(queries[cursor++ & 1023]);
+    }
+
+    @Benchmark
+    public double storeById() {
+        return store.price(queryIds[cursor++ & 1023]);
+    }
+}
@@ -0,0 +1,53 @@
+package app.bench;
+
+import app.db.DBManager;
+import app.models.TradeResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 💸 Position update cost: DBManager.executeTrade (weighted avg_price computed in SQL) against H2,
+// and the same average-price arithmetic in isolation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TradeBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int positions;
+
+    private DBManager db;
+    private String[] symbols;
+    private int cursor;
+
+    private int qty = 10;
+    private double avg = 123.45;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        db = BenchDatabase.create(positions, 0);
+        symbols = new String[positions];
+        for (int i = 0; i < positions; i++) symbols[i] = BenchDatabase.symbol(i);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public TradeResult executeTradeBuy() throws Exception {
+        return db.executeTrade(BenchDatabase.USER_ID, symbols[cursor++ % positions], "BUY", 1, 101.25);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double averagePriceMath() {
+        int buyQty = 1 + (cursor++ & 7);
+        double price = 100 + (cursor & 31);
+        int newQty = qty + buyQty;
+        avg = ((avg * qty) + (price * buyQty)) / newQty;
+        qty = newQty > 1_000_000 ? 10 : newQty;
+        return avg;
+    }
+}
@@ -0,0 +1,57 @@
+package app.bench;
+
+import app.market.PriceStore;
+import app.models.PortfolioItem;
+import app.portfolio.PositionBook;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 🧮 Portfolio valuation via the PositionBook: full revaluation, O(1) read and per-tick update
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValuationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int positions;
+
+    private List<PortfolioItem> items;
+    private PriceStore prices;
+    private PositionBook book;
+    private String[] symbols;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        prices = new PriceStore(positions);
+        items = new ArrayList<>(positions);
+        symbols = new String[positions];
+        for (int i = 0; i < positions; i++) {
+            symbols[i] = BenchDatabase.symbol(i);
+            prices.update(symbols[i], 100 + i % 500);
+            items.add(new PortfolioItem(symbols[i], "Company " + i, 10 + i % 90, 100 + i % 500, 0));
+        }
+        book = new PositionBook();
+        book.load(items, prices::price);
+    }
+
+    @Benchmark
+    public double fullRevaluation() {
+        book.load(items, prices::price);
+        return book.getTotalValue();
+    }
+
+    @Benchmark
+    public double readTotal() {
+        return book.getTotalValue();
+    }
+
+    @Benchmark
+    public boolean priceTick() {
+        int i = cursor++ % positions;
+        return book.onPrice(symbols[i], 100 + (cursor & 63));
+    }
+}
@@ -0,0 +1,63 @@
+-- Schema the application code reads and writes, for embedded H2 in MySQL mode
+CREATE TABLE users (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    balance DECIMAL(16,2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE stocks (
+    stock_id INT AUTO_INCREMENT PRIMARY KEY,
+    stock_name VARCHAR(100) NOT NULL,
+    symbol VARCHAR(10) NOT NULL UNIQUE,
+    price DECIMAL(10,2) NOT NULL,
+    change_percent DECIMAL(5,2) DEFAULT 0.00,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE portfolio (
+    portfolio_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    company_name VARCHAR(100),
+    quantity INT NOT NULL,
+    avg_price DECIMAL(10,2) NOT NULL,
+    UNIQUE (user_id, symbol)
+);
+
+CREATE TABLE transactions (
+    transaction_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    type VARCHAR(4) NOT NULL,
+    quantity INT NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_transactions_user_created ON transactions (user_id, created_at);
+
+CREATE TABLE watchlist (
+    user_id INT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    company_name VARCHAR(100),
+    PRIMARY KEY (user_id, symbol)
+);
+
+CREATE TABLE journal_checkpoint (
+    journal_id CHAR(36) PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+CREATE TABLE alerts (
+    alert_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    threshold DECIMAL(16,4) NOT NULL,
+    window_seconds INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    triggered_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_alerts_user_armed ON alerts (user_id, triggered_at);
@@ -1,30 +1,22 @@
 package app;
 
+import app.engine.HeadlessRunner;
+import app.metrics.StartupTimer;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
-import javafx.stage.Stage;
-import app.db.DBManager;
 
-public class Main extends Application {
-
-    @Override
-    public void start(Stage stage) throws Exception {
-        // ✅ Initialize DB connection globally
-        DBManager.getInstance("localhost", 3306, "stockdb", "root", "1234");
-
-        // ✅ Load the login screen
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-        Scene scene = new Scene(loader.load());
-        stage.setScene(scene);
-        stage.setTitle("StockFX Login");
-        stage.show();
-
-        // ✅ Close DB when app exits
-        //stage.setOnCloseRequest(e -> DBManager.getInstance().close());
-    }
+// 🚀 Entry point. Deliberately not an Application subclass: the java launcher starts the JavaFX
+// toolkit before main() for those, which fails on a machine without a display.
+//   (no args)         JavaFX desktop client
+//   --headless        trading engine driven by a script or simulator (see HeadlessRunner)
+//   --startup-probe   desktop client that logs in, records startup timings and exits (see StartupProbe)
+public class Main {
 
     public static void main(String[] args) {
-        launch(args);
+        StartupTimer.mark(StartupTimer.MAIN);
+        if (HeadlessRunner.isRequested(args)) {
+            StockFxApp.startMetrics();
+            System.exit(HeadlessRunner.run(args));
+        }
+        Application.launch(StockFxApp.class, args);
     }
 }
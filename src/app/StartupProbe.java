@@ -0,0 +1,55 @@
+package app;
+
+import app.controllers.LoginController;
+import app.db.DBManager;
+import app.metrics.StartupTimer;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 🧪 --startup-probe: once the login window is up, sign up / log in as a probe user, wait for the
+// dashboard's first frame, append the startup milestones to a report and exit.
+// The build runs it to train the CDS archive and to measure startup with and without it.
+//   -Dstockup.probe.user=probe -Dstockup.probe.password=probe
+//   -Dstockup.probe.report=startup.txt   report file (rows appended)
+//   -Dstockup.probe.label=run            row label
+//   -Dstockup.probe.timeoutMs=60000      give up on the dashboard after this long
+final class StartupProbe {
+
+    private StartupProbe() {}
+
+    static boolean isRequested(List<String> args) {
+        return args.contains("--startup-probe");
+    }
+
+    static void start(LoginController login) {
+        String user = System.getProperty("stockup.probe.user", "probe");
+        String password = System.getProperty("stockup.probe.password", "probe");
+        long timeoutMs = Long.getLong("stockup.probe.timeoutMs", 60_000);
+
+        // Signup fails harmlessly when the user exists; either way the login that follows is the measured path
+        DBManager.getInstance().async().signup(user, password)
+                .handle((ok, err) -> null)
+                .thenCompose(v -> login.loginAs(user, password))
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((v, err) -> {
+                    if (err != null) System.err.println("⚠️ Startup probe did not reach the dashboard: " + err);
+                    finish(err == null ? 0 : 1);
+                });
+    }
+
+    // System.exit rather than Platform.exit: an error dialog may still be open, and the JVM has to
+    // exit for -XX:ArchiveClassesAtExit to write the archive
+    private static void finish(int status) {
+        String label = System.getProperty("stockup.probe.label", "run");
+        Path report = Path.of(System.getProperty("stockup.probe.report", "startup.txt"));
+        try {
+            StartupTimer.appendReport(report, label);
+            System.out.println("📝 Startup report → " + report.toAbsolutePath());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,76 @@
+package app;
+
+import javafx.application.Application;
+import javafx.stage.Stage;
+import app.controllers.DashboardController;
+import app.controllers.LoginController;
+import app.controllers.ViewNavigator;
+import app.db.DBManager;
+import app.market.MarketDataFeeds;
+import app.metrics.MetricsJmx;
+import app.metrics.MetricsRegistry;
+import app.metrics.MetricsReporter;
+import app.metrics.StartupTimer;
+
+// 🖼️ JavaFX desktop client; started by Main unless --headless is given.
+//   -Dstockup.startup=fast   show the login window first; the DB connects and the feed and metrics
+//                            start on background threads (the packaged launcher sets this)
+//   -Dstockup.startup=eager  connect before any window is shown (default)
+//   --startup-probe          see StartupProbe
+public class StockFxApp extends Application {
+
+    private static final String LOGIN = "/fxml/login.fxml";
+    private static final long SESSION_CLOSE_MS = 10_000;
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        if (isFastStartup()) {
+            // ⚡ Nothing between here and the first frame waits on the network or on JMX
+            DBManager db = DBManager.connectInBackground("localhost", 3306, "stockdb", "root", "1234");
+            db.whenConnected().thenRun(() -> {
+                if (db.isConnected()) StartupTimer.mark(StartupTimer.DB);
+            });
+            Thread warm = new Thread(() -> {
+                startMetrics();
+                MarketDataFeeds.shared();
+            }, "startup-warm");
+            warm.setDaemon(true);
+            warm.start();
+        } else {
+            startMetrics();
+
+            // ✅ Initialize DB connection globally
+            DBManager db = DBManager.getInstance("localhost", 3306, "stockdb", "root", "1234");
+            if (db.isConnected()) StartupTimer.mark(StartupTimer.DB);
+        }
+
+        // ✅ Load the login screen (cached by the stage's navigator, reused after logout)
+        ViewNavigator navigator = ViewNavigator.forStage(stage);
+        LoginController login = navigator.show(LOGIN);
+        stage.setTitle("StockFX Login");
+        ViewNavigator.afterNextPulse(stage.getScene(), () -> {
+            StartupTimer.mark(StartupTimer.WINDOW);
+            if (StartupProbe.isRequested(getParameters().getRaw())) StartupProbe.start(login);
+        });
+
+        // ✅ Close DB when app exits
+        //stage.setOnCloseRequest(e -> DBManager.getInstance().close());
+    }
+
+    // 🚪 Window closed: close a still logged-in session like logout does, then stop the feed and close the tick history
+    @Override
+    public void stop() {
+        DashboardController.closeActiveSession(SESSION_CLOSE_MS);
+        MarketDataFeeds.shutdown();
+    }
+
+    static boolean isFastStartup() {
+        return "fast".equalsIgnoreCase(System.getProperty("stockup.startup", "eager"));
+    }
+
+    // 📊 Metrics over JMX (app:type=Metrics) plus a periodic log/CSV dump
+    static void startMetrics() {
+        MetricsJmx.register(MetricsRegistry.shared());
+        MetricsReporter.fromSystemProperties(MetricsRegistry.shared()).start();
+    }
+}
@@ -0,0 +1,198 @@
+package app.alerts;
+
+import app.market.PriceStore;
+import app.market.TickListener;
+import app.metrics.Counter;
+import app.metrics.MetricsRegistry;
+import app.models.AlertRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// 🔔 Evaluates armed alert rules on the tick stream.
+// Rules are bucketed by PriceStore id, and within a symbol kept in threshold-ordered heaps:
+//   above      min-heap, fires while price >= smallest threshold
+//   below      max-heap, fires while price <= largest threshold
+//   pnlBelow   max-heap on the position's unrealized P&L
+//   % moves    one sliding min/max per distinct window, min-heap on the % threshold
+// so a tick only looks at the heads of its own symbol's heaps — untouched rules cost nothing.
+// Rules are one-shot: a fired rule leaves the engine, so it cannot fire twice. Fired events are
+// queued and handed to the sink in batches on the delivery executor (e.g. Platform::runLater).
+public class AlertEngine implements TickListener {
+
+    // Unrealized P&L of the user's position in symbol if marked at price; NaN when not held
+    @FunctionalInterface
+    public interface PositionPnl {
+        double at(String symbol, double price);
+    }
+
+    // Process-wide, so the total survives logins; engines come and go with each dashboard
+    private static final Counter FIRED = MetricsRegistry.shared().counter("alerts.fired");
+
+    private static final Comparator<AlertRule> ASCENDING = Comparator.comparingDouble(AlertRule::getThreshold);
+
+    private final PriceStore prices;
+    private final PositionPnl pnl;
+    private final Executor delivery;
+    private final Consumer<List<AlertEvent>> sink;
+    private final Map<Integer, AlertRule> armed = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<AlertEvent> fired = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean deliveryPending = new AtomicBoolean();
+    private volatile SymbolRules[] bySymbol = new SymbolRules[0];
+
+    public AlertEngine(PriceStore prices, PositionPnl pnl, Executor delivery, Consumer<List<AlertEvent>> sink) {
+        this.prices = prices;
+        this.pnl = pnl;
+        this.delivery = delivery;
+        this.sink = sink;
+    }
+
+    // ✅ Replace all armed rules
+    public synchronized void load(List<AlertRule> rules) {
+        armed.clear();
+        bySymbol = new SymbolRules[0];
+        for (AlertRule r : rules) add(r);
+    }
+
+    // Arming the same rule id twice is a no-op
+    public synchronized void add(AlertRule rule) {
+        if (armed.putIfAbsent(rule.getId(), rule) != null) return;
+        int id = prices.intern(rule.getSymbol());
+        SymbolRules[] arr = bySymbol;
+        if (id >= arr.length) {
+            arr = Arrays.copyOf(arr, Math.max(id + 1, arr.length * 2));
+            bySymbol = arr;
+        }
+        if (arr[id] == null) arr[id] = new SymbolRules(rule.getSymbol());
+        arr[id].add(rule, prices.price(id));
+    }
+
+    public synchronized boolean remove(int ruleId) {
+        AlertRule rule = armed.remove(ruleId);
+        if (rule == null) return false;
+        int id = prices.idOf(rule.getSymbol());
+        SymbolRules[] arr = bySymbol;
+        if (id >= 0 && id < arr.length && arr[id] != null) arr[id].remove(rule);
+        return true;
+    }
+
+    public int armedCount() {
+        return armed.size();
+    }
+
+    @Override
+    public void onTick(int symbolId, double price, long size, long timestampNanos) {
+        SymbolRules[] arr = bySymbol;
+        if (symbolId >= arr.length) return;
+        SymbolRules rules = arr[symbolId];
+        if (rules != null) rules.evaluate(price, timestampNanos);
+    }
+
+    private void fire(AlertRule rule, double price, double observed, long ts) {
+        // 🧹 Dedup: only the first firing (or none, if removed meanwhile) gets through
+        if (armed.remove(rule.getId()) == null) return;
+        FIRED.increment();
+        fired.add(new AlertEvent(rule, price, observed, ts));
+        if (deliveryPending.compareAndSet(false, true)) delivery.execute(this::deliver);
+    }
+
+    private void deliver() {
+        deliveryPending.set(false);
+        List<AlertEvent> batch = new ArrayList<>();
+        AlertEvent e;
+        while ((e = fired.poll()) != null) batch.add(e);
+        if (!batch.isEmpty()) sink.accept(batch);
+    }
+
+    // 📚 All rules of one symbol; guarded by its own monitor (feed thread vs. add/remove)
+    private final class SymbolRules {
+        final String symbol;
+        final PriorityQueue<AlertRule> above = new PriorityQueue<>(ASCENDING);
+        final PriorityQueue<AlertRule> below = new PriorityQueue<>(ASCENDING.reversed());
+        final PriorityQueue<AlertRule> pnlBelow = new PriorityQueue<>(ASCENDING.reversed());
+        final List<AlertRule> pendingCross = new ArrayList<>();    // armed before the first price was known
+        final List<MoveRules> moves = new ArrayList<>();
+
+        SymbolRules(String symbol) {
+            this.symbol = symbol;
+        }
+
+        synchronized void add(AlertRule r, double price) {
+            switch (r.getKind()) {
+                case PRICE_ABOVE: above.add(r); break;
+                case PRICE_BELOW: below.add(r); break;
+                case PRICE_CROSS:
+                    if (Double.isNaN(price)) pendingCross.add(r);
+                    else route(r, price);
+                    break;
+                case PERCENT_MOVE: movesFor(r.getWindowSeconds()).rules.add(r); break;
+                case PNL_BELOW: pnlBelow.add(r); break;
+            }
+        }
+
+        synchronized void remove(AlertRule r) {
+            if (above.remove(r) || below.remove(r) || pnlBelow.remove(r) || pendingCross.remove(r)) return;
+            for (MoveRules m : moves) if (m.rules.remove(r)) return;
+        }
+
+        // A cross is an above or a below, depending on where the price is when it is armed
+        private void route(AlertRule r, double price) {
+            if (r.getThreshold() >= price) above.add(r);
+            else below.add(r);
+        }
+
+        private MoveRules movesFor(int windowSeconds) {
+            for (MoveRules m : moves) if (m.windowSeconds == windowSeconds) return m;
+            MoveRules m = new MoveRules(windowSeconds);
+            moves.add(m);
+            return m;
+        }
+
+        synchronized void evaluate(double price, long ts) {
+            if (!pendingCross.isEmpty()) {
+                for (AlertRule r : pendingCross) route(r, price);
+                pendingCross.clear();
+            }
+            while (!above.isEmpty() && price >= above.peek().getThreshold()) fire(above.poll(), price, price, ts);
+            while (!below.isEmpty() && price <= below.peek().getThreshold()) fire(below.poll(), price, price, ts);
+
+            for (int i = moves.size() - 1; i >= 0; i--) {
+                MoveRules m = moves.get(i);
+                if (m.rules.isEmpty()) {
+                    moves.remove(i);
+                    continue;
+                }
+                m.range.add(ts, price);
+                double move = m.range.movePercent(price);
+                while (!m.rules.isEmpty() && move >= m.rules.peek().getThreshold()) fire(m.rules.poll(), price, move, ts);
+            }
+
+            if (!pnlBelow.isEmpty()) {
+                double p = pnl.at(symbol, price);
+                if (Double.isNaN(p)) return;
+                while (!pnlBelow.isEmpty() && p <= pnlBelow.peek().getThreshold()) fire(pnlBelow.poll(), price, p, ts);
+            }
+        }
+    }
+
+    private static final class MoveRules {
+        final int windowSeconds;
+        final SlidingRange range;
+        final PriorityQueue<AlertRule> rules = new PriorityQueue<>(ASCENDING);
+
+        MoveRules(int windowSeconds) {
+            this.windowSeconds = windowSeconds;
+            this.range = new SlidingRange(TimeUnit.SECONDS.toNanos(windowSeconds));
+        }
+    }
+}
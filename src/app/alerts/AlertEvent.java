@@ -0,0 +1,28 @@
+package app.alerts;
+
+import app.models.AlertRule;
+
+// 🔔 A rule that fired, with the tick that fired it
+public class AlertEvent {
+
+    private final AlertRule rule;
+    private final double price;
+    private final double observed;       // price, % move or P&L, depending on the rule kind
+    private final long timestampNanos;
+
+    AlertEvent(AlertRule rule, double price, double observed, long timestampNanos) {
+        this.rule = rule;
+        this.price = price;
+        this.observed = observed;
+        this.timestampNanos = timestampNanos;
+    }
+
+    public AlertRule getRule() { return rule; }
+    public double getPrice() { return price; }
+    public double getObserved() { return observed; }
+    public long getTimestampNanos() { return timestampNanos; }
+
+    public String describe() {
+        return "🔔 " + rule.describe() + " (now ₹" + String.format("%.2f", price) + ")";
+    }
+}
@@ -0,0 +1,90 @@
+package app.alerts;
+
+// 📏 Running min and max price over a trailing time window (monotonic deques, amortized O(1) per tick)
+final class SlidingRange {
+
+    private final long windowNanos;
+    private final Deque min = new Deque();
+    private final Deque max = new Deque();
+
+    SlidingRange(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    void add(long ts, double price) {
+        long cutoff = ts - windowNanos;
+        min.evictBefore(cutoff);
+        max.evictBefore(cutoff);
+        while (!min.isEmpty() && min.lastPrice() >= price) min.removeLast();
+        while (!max.isEmpty() && max.lastPrice() <= price) max.removeLast();
+        min.addLast(ts, price);
+        max.addLast(ts, price);
+    }
+
+    double min() {
+        return min.firstPrice();
+    }
+
+    double max() {
+        return max.firstPrice();
+    }
+
+    // Largest % move within the window that ends at price, in either direction
+    double movePercent(double price) {
+        double lo = min(), hi = max();
+        double up = lo > 0 ? (price - lo) / lo : 0;
+        double down = hi > 0 ? (hi - price) / hi : 0;
+        return Math.max(up, down) * 100.0;
+    }
+
+    // Ring of (timestamp, price) pairs
+    private static final class Deque {
+        private long[] ts = new long[16];
+        private double[] px = new double[16];
+        private int head, size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double firstPrice() {
+            return px[head];
+        }
+
+        double lastPrice() {
+            return px[(head + size - 1) & (px.length - 1)];
+        }
+
+        void removeLast() {
+            size--;
+        }
+
+        void evictBefore(long cutoff) {
+            while (size > 0 && ts[head] < cutoff) {
+                head = (head + 1) & (ts.length - 1);
+                size--;
+            }
+        }
+
+        void addLast(long t, double p) {
+            if (size == ts.length) grow();
+            int i = (head + size) & (ts.length - 1);
+            ts[i] = t;
+            px[i] = p;
+            size++;
+        }
+
+        private void grow() {
+            long[] nt = new long[ts.length * 2];
+            double[] np = new double[px.length * 2];
+            for (int i = 0; i < size; i++) {
+                int j = (head + i) & (ts.length - 1);
+                nt[i] = ts[j];
+                np[i] = px[j];
+            }
+            ts = nt;
+            px = np;
+            head = 0;
+        }
+    }
+}
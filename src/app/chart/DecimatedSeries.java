@@ -0,0 +1,144 @@
+package app.chart;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.MouseButton;
+
+import java.util.ArrayDeque;
+
+// 📈 Keeps an unbounded history behind a LineChart series while the chart only ever holds about one
+// point per horizontal pixel of the visible x range.
+// Appends and axis changes (resize, zoom, pan) mark the view dirty; one re-decimation runs per pulse,
+// writing into the existing XYChart.Data objects and only adding/removing at the tail when the point
+// count changes. Scroll on the chart zooms around the cursor, double-click returns to the full history.
+// FX thread only.
+public class DecimatedSeries {
+
+    private static final double ZOOM_STEP = 1.2;
+
+    private final LineChart<Number, Number> chart;
+    private final NumberAxis xAxis;
+    private final XYChart.Series<Number, Number> series = new XYChart.Series<>();
+    private final MinMaxPyramid data = new MinMaxPyramid();
+    private final ArrayDeque<XYChart.Data<Number, Number>> spare = new ArrayDeque<>();
+    private double[] outX = new double[0];
+    private double[] outY = new double[0];
+    private boolean refreshQueued;
+
+    public DecimatedSeries(LineChart<Number, Number> chart) {
+        this.chart = chart;
+        this.xAxis = (NumberAxis) chart.getXAxis();
+        // ⚡ Per-point symbols and change animations cost a node/timeline per point
+        chart.setCreateSymbols(false);
+        chart.setAnimated(false);
+        chart.getData().add(series);
+
+        InvalidationListener onView = o -> invalidate();
+        xAxis.widthProperty().addListener(onView);
+        xAxis.autoRangingProperty().addListener(onView);
+        xAxis.lowerBoundProperty().addListener(o -> { if (!xAxis.isAutoRanging()) invalidate(); });
+        xAxis.upperBoundProperty().addListener(o -> { if (!xAxis.isAutoRanging()) invalidate(); });
+        installZoom();
+    }
+
+    public XYChart.Series<Number, Number> getSeries() {
+        return series;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public void append(double x, double y) {
+        data.append(x, y);
+        invalidate();
+    }
+
+    public void clear() {
+        data.clear();
+        invalidate();
+    }
+
+    // 🔁 Coalesce any number of changes into one re-decimation on the next pulse
+    public void invalidate() {
+        if (refreshQueued) return;
+        refreshQueued = true;
+        Platform.runLater(this::refresh);
+    }
+
+    private void refresh() {
+        refreshQueued = false;
+        int from = 0, to = data.size();
+        if (!xAxis.isAutoRanging()) {
+            // One point either side so the line runs to the plot edges
+            from = Math.max(0, data.indexAtOrAfter(xAxis.getLowerBound()) - 1);
+            to = Math.min(data.size(), data.indexAtOrAfter(xAxis.getUpperBound()) + 1);
+        }
+        int pixels = (int) Math.max(100, xAxis.getWidth());
+        int buckets = Math.max(1, pixels / 2);              // each bucket yields its min and its max
+        int capacity = 2 * buckets + 4;
+        if (outX.length < capacity) {
+            outX = new double[capacity];
+            outY = new double[capacity];
+        }
+        int n = data.decimate(from, to, buckets, outX, outY);
+
+        // ♻️ Reuse the Data objects already in the chart; only the tail grows or shrinks
+        ObservableList<XYChart.Data<Number, Number>> points = series.getData();
+        int shared = Math.min(n, points.size());
+        for (int i = 0; i < shared; i++) {
+            XYChart.Data<Number, Number> p = points.get(i);
+            if (p.getXValue().doubleValue() != outX[i]) p.setXValue(outX[i]);
+            if (p.getYValue().doubleValue() != outY[i]) p.setYValue(outY[i]);
+        }
+        if (points.size() > n) {
+            for (int i = n; i < points.size(); i++) spare.push(points.get(i));
+            points.remove(n, points.size());
+        } else if (n > points.size()) {
+            XYChart.Data<Number, Number>[] added = newArray(n - points.size());
+            for (int i = points.size(), j = 0; i < n; i++, j++) {
+                XYChart.Data<Number, Number> p = spare.poll();
+                if (p == null) {
+                    p = new XYChart.Data<>(outX[i], outY[i]);
+                } else {
+                    p.setXValue(outX[i]);
+                    p.setYValue(outY[i]);
+                }
+                added[j] = p;
+            }
+            points.addAll(added);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static XYChart.Data<Number, Number>[] newArray(int n) {
+        return (XYChart.Data<Number, Number>[]) new XYChart.Data[n];
+    }
+
+    // 🔍 Wheel zooms the x axis around the cursor; double-click goes back to auto-range
+    private void installZoom() {
+        chart.setOnScroll(e -> {
+            if (data.size() < 2 || e.getDeltaY() == 0) return;
+            double lower = xAxis.isAutoRanging() ? data.x(0) : xAxis.getLowerBound();
+            double upper = xAxis.isAutoRanging() ? data.x(data.size() - 1) : xAxis.getUpperBound();
+            double anchor = xAxis.getValueForDisplay(xAxis.sceneToLocal(e.getSceneX(), e.getSceneY()).getX()).doubleValue();
+            if (Double.isNaN(anchor) || anchor < lower || anchor > upper) anchor = (lower + upper) / 2;
+            double factor = e.getDeltaY() > 0 ? 1 / ZOOM_STEP : ZOOM_STEP;
+            double newLower = anchor - (anchor - lower) * factor;
+            double newUpper = anchor + (upper - anchor) * factor;
+            if (newUpper - newLower <= 0) return;
+            xAxis.setAutoRanging(false);
+            xAxis.setLowerBound(newLower);
+            xAxis.setUpperBound(newUpper);
+            xAxis.setTickUnit((newUpper - newLower) / 10);
+            e.consume();
+        });
+        chart.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) xAxis.setAutoRanging(true);
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package app.chart;
+
+import java.util.Arrays;
+
+// 🔺 Append-only (x, y) series with a min/max pyramid over it.
+// Level L splits the points into buckets of 2^L and remembers the index of each bucket's lowest and
+// highest y. An append touches one bucket per level; a query picks the level whose buckets are about
+// one pixel wide and reads O(pixels) entries, however long the series has grown.
+// x must not decrease (later points are clamped to the previous x) so visible ranges can be binary searched.
+public class MinMaxPyramid {
+
+    private static final int LEVELS = 30;
+
+    private double[] xs = new double[1024];
+    private double[] ys = new double[1024];
+    private int size;
+    private final int[][] minIdx = new int[LEVELS][];
+    private final int[][] maxIdx = new int[LEVELS][];
+
+    public MinMaxPyramid() {
+        for (int l = 0; l < LEVELS; l++) {
+            minIdx[l] = new int[16];
+            maxIdx[l] = new int[16];
+        }
+    }
+
+    public void append(double x, double y) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        int i = size;
+        xs[i] = i > 0 ? Math.max(x, xs[i - 1]) : x;
+        ys[i] = y;
+        size = i + 1;
+
+        // 🔁 Fold the new point into its bucket on every level
+        for (int level = 1; level <= LEVELS; level++) {
+            int k = i >> level;
+            int[] mins = minIdx[level - 1];
+            int[] maxs = maxIdx[level - 1];
+            if (k == mins.length) {
+                mins = minIdx[level - 1] = Arrays.copyOf(mins, k * 2);
+                maxs = maxIdx[level - 1] = Arrays.copyOf(maxs, k * 2);
+            }
+            if ((i & ((1 << level) - 1)) == 0) {
+                mins[k] = i;
+                maxs[k] = i;
+            } else {
+                if (y < ys[mins[k]]) mins[k] = i;
+                if (y > ys[maxs[k]]) maxs[k] = i;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double x(int i) {
+        return xs[i];
+    }
+
+    public double y(int i) {
+        return ys[i];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // 🔍 First index with x >= value (size when none)
+    public int indexAtOrAfter(double value) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // 📉 Decimate [from, to) to at most 2 * buckets points, written in x order to outX/outY.
+    // Each bucket contributes its min and max, so spikes survive at any zoom. Returns the point count.
+    public int decimate(int from, int to, int buckets, double[] outX, double[] outY) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        int n = to - from;
+        if (n <= 0) return 0;
+        buckets = Math.max(1, buckets);
+        int level = 0;
+        while ((n >> level) > buckets && level < LEVELS) level++;
+
+        int count = 0;
+        if (level == 0) {
+            for (int i = from; i < to; i++) {
+                outX[count] = xs[i];
+                outY[count++] = ys[i];
+            }
+            return count;
+        }
+        int[] mins = minIdx[level - 1];
+        int[] maxs = maxIdx[level - 1];
+        for (int k = from >> level, last = (to - 1) >> level; k <= last; k++) {
+            int a = Math.min(mins[k], maxs[k]);
+            int b = Math.max(mins[k], maxs[k]);
+            outX[count] = xs[a];
+            outY[count++] = ys[a];
+            if (b != a) {
+                outX[count] = xs[b];
+                outY[count++] = ys[b];
+            }
+        }
+        return count;
+    }
+}
@@ -1,580 +1,398 @@
 package app.controllers;
 
+import app.alerts.AlertEngine;
+import app.alerts.AlertEvent;
+import app.db.AsyncDBManager;
 import app.db.DBManager;
-import app.models.Stock;
-import app.models.PortfolioItem;
-import app.models.Transaction;
+import app.engine.TradingEngine;
+import app.engine.TradingSession;
+import app.exchange.Exchange;
+import app.events.AccountEvent;
+import app.events.BalanceChanged;
+import app.events.EventBus;
+import app.events.WatchlistChanged;
+import app.metrics.Counter;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+import app.models.TradeResult;
 import app.models.WatchlistItem;
+import app.market.MarketDataFeed;
+import app.market.MarketDataFeeds;
+import app.market.PriceStore;
+import app.portfolio.PositionBook;
 
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.scene.chart.LineChart;
-import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.PieChart;
-import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.sql.*;
-import java.util.Optional;
-import java.util.Random;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// 🏠 Dashboard shell: header, sidebar and one screen at a time in the content pane.
+// Screens (market, portfolio, transactions, watchlist, settings) are loaded on first visit and kept;
+// only the visible one follows the feed. The shell owns what every screen shares: the trading
+// session, the header P&L, price alerts and the frame clock. Changes reach the screens as events from the
+// engine's bus, each delivered on the FX thread to just the screens that subscribed to it.
 public class DashboardController {
 
-    // 📈 Market Table
-    @FXML private TableView<Stock> tblMarket;
-    @FXML private TableColumn<Stock, String> colSymbol;
-    @FXML private TableColumn<Stock, String> colName;
-    @FXML private TableColumn<Stock, Double> colPrice;
-
-    // 💼 Portfolio Table
-    @FXML private TableView<PortfolioItem> tblPortfolio;
-    @FXML private TableColumn<PortfolioItem, String> colPSymbol;
-    @FXML private TableColumn<PortfolioItem, String> colPName;
-    @FXML private TableColumn<PortfolioItem, Integer> colPQty;
-    @FXML private TableColumn<PortfolioItem, Double> colPAvg;
-    @FXML private TableColumn<PortfolioItem, Double> colPValue;
-
-    // 🕒 Transactions Table
-    @FXML private TableView<Transaction> tblTransactions;
-    @FXML private TableColumn<Transaction, String> colTSymbol;
-    @FXML private TableColumn<Transaction, String> colTType;
-    @FXML private TableColumn<Transaction, Integer> colTQty;
-    @FXML private TableColumn<Transaction, Double> colTPrice;
-    @FXML private TableColumn<Transaction, String> colTDate;
-
-    // 📊 Charts
-    @FXML private PieChart pieChart;
-    @FXML private LineChart<Number, Number> lineChart;
-
-    // 💰 Controls
-    @FXML private Button btnBuy;
-    @FXML private Button btnSell;
-    @FXML private Button btnLogout;
-    @FXML private Button btnAddMoney;
-
-    // 👀 Watchlist
-    @FXML private TableView<WatchlistItem> tblWatchlist;
-    @FXML private TableColumn<WatchlistItem, String> colWLSymbol;
-    @FXML private TableColumn<WatchlistItem, String> colWLCompany;
-    @FXML private TableColumn<WatchlistItem, Double> colWLPrice;
-    @FXML private Button btnAddWatch;
-    @FXML private Button btnRemoveWatch;
+    static final String MARKET = "/fxml/market.fxml";
+    static final String PORTFOLIO = "/fxml/portfolio.fxml";
+    static final String TRANSACTIONS = "/fxml/transactions.fxml";
+    static final String WATCHLIST = "/fxml/watchlist.fxml";
+    static final String SETTINGS = "/fxml/settings.fxml";
+
+    @FXML private StackPane contentPane;
+    @FXML private Label lblStatus;
+
+    // 🧭 Sidebar
+    @FXML private Button btnNavHome;
+    @FXML private Button btnNavMarket;
+    @FXML private Button btnNavPortfolio;
+    @FXML private Button btnNavTransactions;
+    @FXML private Button btnNavWatchlist;
+    @FXML private Button btnNavSettings;
 
     // 🏦 Balance
     @FXML private Label lblBalance;
 
+    // 📊 P&L (bound to the position book, redrawn at most once per frame)
+    @FXML private Label lblUnrealized;
+    @FXML private Label lblDayChange;
+    @FXML private Label lblRealized;
+    private long pnlShownVersion = -1;
+
     // 🔧 App Data
     private DBManager db;
     private int userId;
-    private final Random random = new Random();
+    private TradingSession session;         // trades, balance, watchlist and valuation; null until opened
+    private CompletableFuture<List<WatchlistItem>> watchlistPrefetch;
+    private ViewNavigator screens;
+    private EventBus events;
+    private Exchange exchange;              // null when orders fill at the feed price
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();   // closed at logout
+
+    private final MarketDataFeed feed = MarketDataFeeds.shared();
+    private final PriceStore prices = feed.prices();
+    private final long chartStartNanos = System.nanoTime();
+
+    // 📈 Portfolio value, sampled every 3s from login whether or not the portfolio screen is ever opened
+    private final List<double[]> valueHistory = new ArrayList<>();
+    private final Timeline valueSampler = new Timeline(new KeyFrame(Duration.seconds(3), e -> sampleValue()));
+
+    // ⚡ Hands async DB results back to the JavaFX Application Thread
+    static final Executor FX = Platform::runLater;
+
+    // 🚪 The logged-in session (opening, open, or closing after logout); null once closed. The window can
+    // close without a logout, and StockFxApp.stop() closes whatever is here.
+    private static final AtomicReference<CompletableFuture<TradingSession>> ACTIVE = new AtomicReference<>();
+
+    // 🔔 alerts.armed reads the logged-in dashboard's engine; registered once, cleared at logout so the
+    // registry never holds on to a logged-out dashboard (alerts.fired is counted by AlertEngine itself)
+    private static volatile AlertEngine liveAlerts;
+
+    static {
+        MetricsRegistry.shared().registerGauge("alerts.armed", () -> {
+            AlertEngine a = liveAlerts;
+            return a == null ? 0 : a.armedCount();
+        });
+    }
 
-    private ObservableList<Stock> marketData = FXCollections.observableArrayList();
-    private ObservableList<WatchlistItem> watchlistData = FXCollections.observableArrayList();
-    private XYChart.Series<Number, Number> portfolioValueSeries = new XYChart.Series<>();
-    private int timeCounter = 0;
+    // 🔔 Price alerts, evaluated on the feed thread and delivered here in batches
+    private final AlertEngine alertEngine = new AlertEngine(prices, this::unrealizedPnlAt, FX, this::onAlertsFired);
 
-    // 🧠 Initialize
+    // 🧠 Parsing only — nothing starts until init(), so a dashboard prepared during login costs nothing if it fails
     @FXML
     public void initialize() {
-        setupMarketTable();
-        setupPortfolioTable();
-        setupTransactionTable();
-        setupLineChart();
-        startLiveMarketSimulation();
-
-        // 🎯 Button Actions
-        btnBuy.setOnAction(e -> buyOrSell("BUY"));
-        btnSell.setOnAction(e -> buyOrSell("SELL"));
-        btnLogout.setOnAction(e -> handleLogout());
-        btnAddMoney.setOnAction(e -> handleAddMoney());
-        btnAddWatch.setOnAction(e -> handleAddToWatchlist());
-        btnRemoveWatch.setOnAction(e -> handleRemoveFromWatchlist());
-
-        // Watchlist setup
-        colWLSymbol.setCellValueFactory(new PropertyValueFactory<>("symbol"));
-        colWLCompany.setCellValueFactory(new PropertyValueFactory<>("company"));
-        colWLPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
-        tblWatchlist.setItems(watchlistData);
+        screens = ViewNavigator.forPane(contentPane);
     }
 
-    // 🔌 Initialize DB and load user data
-    public void init(DBManager db, int userId) {
-        this.db = db;
+    // 🔌 Open the user's engine session; the market screen is up before it finishes
+    public void init(TradingEngine engine, int userId) {
+        this.db = engine.db();
         this.userId = userId;
-        loadPortfolio();
-        loadTransactions();
-        loadWatchlist();
-        refreshBalanceLabel();
-        startWatchlistLiveUpdates();
+        this.events = engine.events();
+        this.exchange = engine.exchange();
+        on(BalanceChanged.class, e -> showBalance(e.getBalance()));
+        on(WatchlistChanged.class, e -> {
+            if (screens.loaded(WATCHLIST).isEmpty()) watchlistPrefetch = null;   // may predate it; load fresh when opened
+        });
+        liveAlerts = alertEngine;
+        feed.subscribe(alertEngine);
+        feed.start();
+        frameUpdater.start();
+        valueSampler.setCycleCount(Timeline.INDEFINITE);
+        valueSampler.play();
+        showMarket();
+
+        // 📒 The session opens the journal first — it replays anything a previous session left unflushed
+        CompletableFuture<TradingSession> opening = engine.openSession(userId);
+        ACTIVE.set(opening);
+        opening.thenAcceptAsync(s -> {
+                session = s;
+                watchlistPrefetch = s.loadWatchlist();   // in flight before the watchlist is first opened
+                loadAlerts();
+                showBalance(s.getBalance());   // loaded with the positions; later changes arrive as events
+            }, FX)
+            .exceptionally(t -> showDbError("Failed to open session: ", t));
     }
 
-    // 🧾 Load Watchlist
-    private void loadWatchlist() {
-        watchlistData.clear();
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                     "SELECT symbol, company_name FROM watchlist WHERE user_id=?")) {
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String symbol = rs.getString("symbol");
-                String company = rs.getString("company_name");
-                double price = 100 + random.nextDouble() * 1000;
-                watchlistData.add(new WatchlistItem(symbol, company, price));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    // 🧭 Sidebar navigation; screens that need the account wait for the session
+    @FXML
+    private void showMarket() {
+        show(MARKET, btnNavMarket);
     }
 
-    private void startWatchlistLiveUpdates() {
-        Timeline t = new Timeline(new KeyFrame(Duration.seconds(2), e -> {
-            for (WatchlistItem i : watchlistData) {
-                double newPrice = i.getPrice() * (1 + (random.nextDouble() - 0.5) * 0.01);
-                i.setPrice(Math.round(newPrice * 100.0) / 100.0);
-            }
-            tblWatchlist.refresh();
-        }));
-        t.setCycleCount(Timeline.INDEFINITE);
-        t.play();
+    @FXML
+    private void showPortfolio() {
+        if (sessionReady()) show(PORTFOLIO, btnNavPortfolio);
     }
 
-    private void handleAddToWatchlist() {
-        Stock s = tblMarket.getSelectionModel().getSelectedItem();
-        if (s == null) {
-            showError("Select a stock first!");
-            return;
-        }
-
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                     "INSERT IGNORE INTO watchlist (user_id, symbol, company_name) VALUES (?, ?, ?)")) {
-            ps.setInt(1, userId);
-            ps.setString(2, s.getSymbol());
-            ps.setString(3, s.getName());
-            ps.executeUpdate();
-            loadWatchlist();
-            showInfo(s.getSymbol() + " added to watchlist!");
-        } catch (SQLException e) {
-            showError(e.getMessage());
-        }
+    @FXML
+    private void showTransactions() {
+        if (sessionReady()) show(TRANSACTIONS, btnNavTransactions);
     }
 
-    private void handleRemoveFromWatchlist() {
-        WatchlistItem s = tblWatchlist.getSelectionModel().getSelectedItem();
-        if (s == null) {
-            showError("Select a watchlist item first!");
-            return;
-        }
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                     "DELETE FROM watchlist WHERE user_id=? AND symbol=?")) {
-            ps.setInt(1, userId);
-            ps.setString(2, s.getSymbol());
-            ps.executeUpdate();
-            loadWatchlist();
-        } catch (SQLException e) {
-            showError(e.getMessage());
-        }
+    @FXML
+    private void showWatchlist() {
+        if (sessionReady()) show(WATCHLIST, btnNavWatchlist);
     }
 
-    // 📈 Setup Tables
-    private void setupMarketTable() {
-        colSymbol.setCellValueFactory(new PropertyValueFactory<>("symbol"));
-        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
-        colPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
-
-        marketData.addAll(
-                new Stock("TCS", "Tata Consultancy", 3821.50),
-                new Stock("INFY", "Infosys Ltd", 1445.75),
-                new Stock("HDFC", "HDFC Bank", 1602.90),
-                new Stock("RELI", "Reliance Industries", 2904.40),
-                new Stock("WIPR", "Wipro Ltd", 468.10)
-        );
-        tblMarket.setItems(marketData);
+    @FXML
+    private void showSettings() {
+        if (sessionReady()) show(SETTINGS, btnNavSettings);
     }
 
-    private void setupPortfolioTable() {
-        colPSymbol.setCellValueFactory(new PropertyValueFactory<>("symbol"));
-        colPName.setCellValueFactory(new PropertyValueFactory<>("companyName"));
-        colPQty.setCellValueFactory(new PropertyValueFactory<>("quantity"));
-        colPAvg.setCellValueFactory(new PropertyValueFactory<>("avgPrice"));
-        colPValue.setCellValueFactory(new PropertyValueFactory<>("currentValue"));
+    private void show(String fxml, Button navButton) {
+        if (screens.isShowing(fxml)) return;
+        boolean firstVisit = screens.loaded(fxml).isEmpty();
+        ViewNavigator.View<Object> view = screens.view(fxml);
+        if (firstVisit && view.getController() instanceof DashboardScreen s) s.attach(this);
+        screens.show(view);
+        for (Button b : List.of(btnNavHome, btnNavMarket, btnNavPortfolio, btnNavTransactions, btnNavWatchlist, btnNavSettings)) {
+            b.getStyleClass().remove("active");
+        }
+        navButton.getStyleClass().add("active");
     }
 
-    private void setupTransactionTable() {
-        colTSymbol.setCellValueFactory(new PropertyValueFactory<>("symbol"));
-        colTType.setCellValueFactory(new PropertyValueFactory<>("type"));
-        colTQty.setCellValueFactory(new PropertyValueFactory<>("quantity"));
-        colTPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
-        colTDate.setCellValueFactory(new PropertyValueFactory<>("date"));
+    // 🤝 What screens share
+    DBManager db() { return db; }
+    int userId() { return userId; }
+    MarketDataFeed feed() { return feed; }
+    PriceStore prices() { return prices; }
+    TradingSession session() { return session; }
+    AlertEngine alerts() { return alertEngine; }
+    Exchange exchange() { return exchange; }
+
+    double chartSeconds() {
+        return (System.nanoTime() - chartStartNanos) / 1e9;
     }
 
-    private void setupLineChart() {
-        ((NumberAxis) lineChart.getXAxis()).setLabel("Time (s)");
-        ((NumberAxis) lineChart.getYAxis()).setLabel("Portfolio Value (₹)");
-        lineChart.setTitle("Live Portfolio Value");
-        lineChart.getData().add(portfolioValueSeries);
-        startPortfolioValueTracking();
+    List<double[]> valueHistory() {
+        return valueHistory;
     }
 
-    private void startPortfolioValueTracking() {
-        Timeline t = new Timeline(new KeyFrame(Duration.seconds(3), e -> {
-            double val = calculatePortfolioValue();
-            portfolioValueSeries.getData().add(new XYChart.Data<>(timeCounter++, val));
-            if (portfolioValueSeries.getData().size() > 20)
-                portfolioValueSeries.getData().remove(0);
-        }));
-        t.setCycleCount(Timeline.INDEFINITE);
-        t.play();
+    private void sampleValue() {
+        if (session == null) return;
+        double[] point = { chartSeconds(), session.getPortfolioValue() };
+        valueHistory.add(point);
+        screens.<PortfolioController>loaded(PORTFOLIO).ifPresent(p -> p.appendValue(point[0], point[1]));
     }
 
-    private void startLiveMarketSimulation() {
-        Timeline t = new Timeline(new KeyFrame(Duration.seconds(2), e -> {
-            for (Stock s : marketData) {
-                double change = (random.nextDouble() - 0.5) * 0.02;
-                s.setPrice(Math.round((s.getPrice() + s.getPrice() * change) * 100.0) / 100.0);
-            }
-            tblMarket.refresh();
-        }));
-        t.setCycleCount(Timeline.INDEFINITE);
-        t.play();
+    // 👀 Prefetched at session open; otherwise read after the journal has caught up
+    CompletableFuture<List<WatchlistItem>> takeWatchlist() {
+        CompletableFuture<List<WatchlistItem>> f = watchlistPrefetch;
+        watchlistPrefetch = null;
+        return f != null ? f : session.flush().thenCompose(v -> session.loadWatchlist());
     }
 
-// 💸 Handle Buy / Sell
-private void buyOrSell(String type) {
-    Stock selected = tblMarket.getSelectionModel().getSelectedItem();
-    if (selected == null) {
-        showError("Please select a stock first!");
-        return;
+    // 📨 This user's events of one type, on the FX thread, until logout
+    <E extends AccountEvent> void on(Class<E> type, Consumer<? super E> handler) {
+        subscriptions.add(events.subscribe(type, e -> e.getUserId() == userId, FX, handler));
     }
 
-    TextInputDialog dialog = new TextInputDialog();
-    dialog.setTitle(type + " " + selected.getSymbol());
-    dialog.setHeaderText("Enter quantity to " + type.toLowerCase() + ":");
-    Optional<String> result = dialog.showAndWait();
-
-    result.ifPresent(qtyStr -> {
-        try {
-            int qty = Integer.parseInt(qtyStr);
-            double price = selected.getPrice();
+    // 🔔 Arm the user's untriggered rules
+    private void loadAlerts() {
+        db.async().loadAlerts(userId)
+                .thenAccept(alertEngine::load)
+                .exceptionally(this::logDbError);
+    }
 
-            if (qty <= 0) {
-                showError("Quantity must be positive.");
-                return;
-            }
+    // 📣 Fired rules arrive here on the FX thread; persist the trigger so they stay one-shot across logins
+    private void onAlertsFired(List<AlertEvent> events) {
+        StringBuilder text = new StringBuilder();
+        for (AlertEvent e : events) {
+            db.async().markAlertTriggered(e.getRule().getId())
+                    .whenComplete((ok, t) -> { if (t != null) logDbError(t); });
+            if (text.length() > 0) text.append('\n');
+            text.append(e.describe());
+        }
+        lblStatus.setText(events.get(events.size() - 1).describe());
+        Alert a = new Alert(Alert.AlertType.INFORMATION);
+        a.setTitle("Price Alert");
+        a.setHeaderText(null);
+        a.setContentText(text.toString());
+        a.show();   // non-blocking: ticks keep flowing while it is open
+    }
 
-            try (Connection conn = db.getConnection()) {
-                double totalCost = price * qty;
-                double currentBalance = getUserBalance(conn);
-
-                if (type.equalsIgnoreCase("BUY")) {
-                    // 🟢 BUY logic
-                    if (currentBalance < totalCost) {
-                        showError("❌ Insufficient funds! Current balance: ₹" + String.format("%.2f", currentBalance));
-                        return;
-                    }
-
-                    updatePortfolio(selected.getSymbol(), selected.getName(), qty, price, "BUY");
-                    updateUserBalance( currentBalance - totalCost);
-
-                } else if (type.equalsIgnoreCase("SELL")) {
-                    // 🔴 SELL logic
-                    if (!hasEnoughStock(selected.getSymbol(), qty)) {
-                        showError("❌ You don’t have enough shares to sell.");
-                        return;
-                    }
-
-                    updatePortfolio(selected.getSymbol(), selected.getName(), qty, price, "SELL");
-                    updateUserBalance( currentBalance + totalCost);
-                }
-
-                // 💾 Record the transaction
-                try (Connection con = db.getConnection(); PreparedStatement ps = con.prepareStatement(
-                        "INSERT INTO transactions (user_id, symbol, type, quantity, price, created_at) VALUES (?, ?, ?, ?, ?, NOW())")) {
-                    ps.setInt(1, userId);
-                    ps.setString(2, selected.getSymbol());
-                    ps.setString(3, type.toUpperCase());
-                    ps.setInt(4, qty);
-                    ps.setDouble(5, price);
-                    ps.executeUpdate();
-                }
-
-                // ✅ Force UI updates after DB commit
-                refreshAllUI();
-
-                showInfo("✅ " + type + " successful for " + selected.getSymbol());
+    // 📊 FX-thread health: gap between pulses, time spent applying ticks, pulses later than ~3 frames
+    private static final long STALL_NANOS = 50_000_000L;
+    private final LatencyHistogram frameInterval = MetricsRegistry.shared().histogram("fx.frame.interval");
+    private final LatencyHistogram frameWork = MetricsRegistry.shared().histogram("fx.frame.work");
+    private final Counter frameStalls = MetricsRegistry.shared().counter("fx.frame.stalls");
+
+    // 🎞️ Once per pulse: the header P&L and whichever screen is on display.
+    // UI cost follows the screen refresh rate, not the tick rate.
+    private final AnimationTimer frameUpdater = new AnimationTimer() {
+        private long lastPulse;
+
+        @Override
+        public void handle(long now) {
+            long start = System.nanoTime();
+            if (lastPulse != 0) {
+                long gap = now - lastPulse;
+                frameInterval.record(gap);
+                if (gap > STALL_NANOS) frameStalls.increment();
             }
-        } catch (NumberFormatException ex) {
-            showError("Invalid quantity entered!");
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Database error: " + e.getMessage());
+            lastPulse = now;
+            ViewNavigator.View<?> current = screens.current();
+            if (current != null && current.getController() instanceof Screen s) s.onFrame();
+            renderPnl();
+            frameWork.record(System.nanoTime() - start);
         }
-    });
-}
 
-//🔁 Refresh all UI tables and charts
-private void refreshAllUI() {
- loadPortfolio();          // Refresh portfolio table + pie chart
- loadTransactions();       // Refresh transaction history
- updateBalanceLabel();     // Refresh wallet balance
- refreshPortfolioChart();  // Refresh portfolio value line chart
-}
-
-//🔄 Recalculate portfolio line chart value
-private void refreshPortfolioChart() {
- double currentValue = calculatePortfolioValue();
- portfolioValueSeries.getData().add(new XYChart.Data<>(timeCounter++, currentValue));
-
- // Keep last 20 data points for smoothness
- if (portfolioValueSeries.getData().size() > 20)
-     portfolioValueSeries.getData().remove(0);
-}
-private void loadPortfolio() {
-    try (Connection conn = db.getConnection();
-         PreparedStatement ps = conn.prepareStatement(
-                 "SELECT symbol, company_name, quantity, avg_price FROM portfolio WHERE user_id=?")) {
-        ps.setInt(1, userId);
-        ResultSet rs = ps.executeQuery();
-
-        tblPortfolio.getItems().clear();
-        pieChart.getData().clear();
-
-        while (rs.next()) {
-            String symbol = rs.getString("symbol");
-            String name = rs.getString("company_name");
-            int qty = rs.getInt("quantity");
-            double avg = rs.getDouble("avg_price");
-
-            double marketPrice = marketData.stream()
-                    .filter(s -> s.getSymbol().equals(symbol))
-                    .map(Stock::getPrice)
-                    .findFirst()
-                    .orElse(avg);
-
-            double value = qty * marketPrice;
-
-            PortfolioItem item = new PortfolioItem(symbol, name, qty, avg, value);
-            tblPortfolio.getItems().add(item);
-            pieChart.getData().add(new PieChart.Data(symbol, value));
+        @Override
+        public void stop() {
+            super.stop();
+            lastPulse = 0;
         }
-    } catch (SQLException e) {
-        e.printStackTrace();
-        showError("Failed to load portfolio: " + e.getMessage());
+    };
+
+    private void renderPnl() {
+        if (session == null) return;
+        PositionBook book = session.positions();
+        long version = book.getVersion();
+        if (version == pnlShownVersion) return;
+        pnlShownVersion = version;
+        setPnl(lblUnrealized, book.getUnrealizedPnl());
+        setPnl(lblDayChange, book.getDayChange());
+        setPnl(lblRealized, book.getRealizedPnl());
     }
-}
-
- // 🏦 Add Money
-    private void handleAddMoney() {
-        TextInputDialog dialog = new TextInputDialog();
-        dialog.setTitle("Add Money");
-        dialog.setHeaderText("Enter amount to deposit:");
-        Optional<String> result = dialog.showAndWait();
 
-        result.ifPresent(amountStr -> {
-            try {
-                double amount = Double.parseDouble(amountStr);
-                if (amount <= 0) {
-                    showError("Amount must be positive!");
-                    return;
-                }
-
-                try (Connection conn = db.getConnection()) {
-                    double currentBalance = getUserBalance(conn);
-                    double newBalance = currentBalance + amount;
-                    updateUserBalance( newBalance); // ✅ Update DB
-                    updateBalanceLabel();                // ✅ Refresh label
-                    showInfo("₹" + String.format("%.2f", amount) + " added successfully!\nNew Balance: ₹" + String.format("%.2f", newBalance));
-                }
-            } catch (NumberFormatException e) {
-                showError("Please enter a valid number.");
-            } catch (SQLException e) {
-                showError("Database Error: " + e.getMessage());
-            }
-        });
+    private static void setPnl(Label label, double amount) {
+        label.setText(String.format("%s₹%.2f", amount < 0 ? "-" : "+", Math.abs(amount)));
+        label.setTextFill(amount < 0 ? Color.SALMON : Color.LIGHTGREEN);
     }
 
-
-    // 📈 Portfolio Updates
-    private void updatePortfolio(String symbol, String name, int qty, double price, String type) {
-    	try (Connection conn = db.getConnection()) {
-        String checkSql = "SELECT quantity, avg_price FROM portfolio WHERE user_id=? AND symbol=?";
-        PreparedStatement ps = conn.prepareStatement(checkSql);
-        ps.setInt(1, userId);
-        ps.setString(2, symbol);
-        ResultSet rs = ps.executeQuery();
-
-        if (rs.next()) {
-            int oldQty = rs.getInt("quantity");
-            double oldAvg = rs.getDouble("avg_price");
-
-            if (type.equalsIgnoreCase("BUY")) {
-                int newQty = oldQty + qty;
-                double newAvg = ((oldAvg * oldQty) + (price * qty)) / newQty;
-
-                try (PreparedStatement upd = conn.prepareStatement(
-                        "UPDATE portfolio SET quantity=?, avg_price=? WHERE user_id=? AND symbol=?")) {
-                    upd.setInt(1, newQty);
-                    upd.setDouble(2, newAvg);
-                    upd.setInt(3, userId);
-                    upd.setString(4, symbol);
-                    upd.executeUpdate();
-                }
-            } else if (type.equalsIgnoreCase("SELL")) {
-                int newQty = oldQty - qty;
-                if (newQty <= 0) {
-                    try (PreparedStatement del = conn.prepareStatement(
-                            "DELETE FROM portfolio WHERE user_id=? AND symbol=?")) {
-                        del.setInt(1, userId);
-                        del.setString(2, symbol);
-                        del.executeUpdate();
-                    }
-                } else {
-                    try (PreparedStatement upd = conn.prepareStatement(
-                            "UPDATE portfolio SET quantity=? WHERE user_id=? AND symbol=?")) {
-                        upd.setInt(1, newQty);
-                        upd.setInt(2, userId);
-                        upd.setString(3, symbol);
-                        upd.executeUpdate();
-                    }
-                }
-            }
-        } else if (type.equalsIgnoreCase("BUY")) {
-            try (PreparedStatement ins = conn.prepareStatement(
-                    "INSERT INTO portfolio (user_id, symbol, company_name, quantity, avg_price) VALUES (?, ?, ?, ?, ?)")) {
-                ins.setInt(1, userId);
-                ins.setString(2, symbol);
-                ins.setString(3, name);
-                ins.setInt(4, qty);
-                ins.setDouble(5, price);
-                ins.executeUpdate();
-            }
+    // 💸 Reply to the user's own order; balance, history and holdings follow from the TradeExecuted event
+    void onTradeCompleted(String type, TradeResult trade) {
+        if (trade.getStatus() == TradeResult.Status.INSUFFICIENT_FUNDS) {
+            showError("❌ Insufficient funds! Current balance: ₹" + String.format("%.2f", trade.getBalance()));
+            return;
         }
-    } catch (SQLException e) {
-        e.printStackTrace();
-        showError("Portfolio update failed: " + e.getMessage());
-    }
-}
-    
- // ✅ Refresh balance label in header bar
-    private void updateBalanceLabel() {
-        try (Connection conn = db.getConnection()) {
-            double balance = getUserBalance(conn);
-            Platform.runLater(() -> lblBalance.setText("₹" + String.format("%.2f", balance)));
-        } catch (SQLException e) {
-            e.printStackTrace();
-            Platform.runLater(() -> lblBalance.setText("Error"));
+        if (trade.getStatus() == TradeResult.Status.INSUFFICIENT_SHARES) {
+            showError("❌ You don’t have enough shares to sell.");
+            return;
+        }
+        if (trade.getStatus() == TradeResult.Status.NO_LIQUIDITY) {
+            showError("❌ No " + (type.equals("BUY") ? "sellers" : "buyers") + " for " + trade.getSymbol() + " right now.");
+            return;
         }
-    }
-
 
-    // 🧮 Helpers
-    private double calculatePortfolioValue() {
-        double total = 0;
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT symbol, quantity, avg_price FROM portfolio WHERE user_id=?")) {
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String sym = rs.getString("symbol");
-                int q = rs.getInt("quantity");
-                double avg = rs.getDouble("avg_price");
-                double price = marketData.stream()
-                        .filter(s -> s.getSymbol().equals(sym))
-                        .map(Stock::getPrice)
-                        .findFirst()
-                        .orElse(avg);
-                total += q * price;
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
-        return total;
+        showInfo("✅ " + type + " " + trade.getQuantity() + " " + trade.getSymbol()
+                + " @ ₹" + String.format("%.2f", trade.getPrice()));
     }
 
-   
-    private void loadTransactions() {
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT symbol, type, quantity, price, created_at AS date FROM transactions WHERE user_id=? ORDER BY created_at DESC")) {
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            tblTransactions.getItems().clear();
-            while (rs.next()) {
-                tblTransactions.getItems().add(new Transaction(
-                        rs.getString("symbol"),
-                        rs.getString("type"),
-                        rs.getInt("quantity"),
-                        rs.getDouble("price"),
-                        rs.getString("date")));
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+    // ✅ Balance label in the header bar
+    private void showBalance(double balance) {
+        lblBalance.setText(Double.isNaN(balance) ? "Error" : String.format("₹%.2f", balance));
     }
 
-    private boolean hasEnoughStock(String symbol, int qty) throws SQLException {
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT quantity FROM portfolio WHERE user_id=? AND symbol=?")) {
-            ps.setInt(1, userId);
-            ps.setString(2, symbol);
-            ResultSet rs = ps.executeQuery();
-            return rs.next() && rs.getInt("quantity") >= qty;
-        }
+    // 🧮 Helpers
+    boolean sessionReady() {
+        if (session != null) return true;
+        showError("Still loading your account — try again in a moment.");
+        return false;
     }
 
-    private double getUserBalance(Connection conn) throws SQLException {
-        PreparedStatement ps = conn.prepareStatement("SELECT balance FROM users WHERE id=?");
-        ps.setInt(1, userId);
-        ResultSet rs = ps.executeQuery();
-        return rs.next() ? rs.getDouble("balance") : 0;
+    // Alert rules on P&L read the session's book; NaN (never fires) until the session is open
+    private double unrealizedPnlAt(String symbol, double price) {
+        TradingSession s = session;
+        return s == null ? Double.NaN : s.positions().unrealizedPnlAt(symbol, price);
     }
 
-    private void updateUserBalance(double newBalance) {
-        String query = "UPDATE users SET balance=? WHERE id=?";
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(query)) {
-
-            ps.setDouble(1, newBalance);
-            ps.setInt(2, userId);
-            ps.executeUpdate();
-
-            lblBalance.setText(String.format("₹%.2f", newBalance));
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    // ⚠️ Async DB failures — logged, and optionally reported on the FX thread
+    Void logDbError(Throwable t) {
+        AsyncDBManager.rootCause(t).printStackTrace();
+        return null;
     }
 
-    private void refreshBalanceLabel() {
-        try (Connection conn = db.getConnection()) {
-            double bal = getUserBalance(conn);
-            lblBalance.setText(String.format("₹%.2f", bal));
-        } catch (SQLException e) {
-            lblBalance.setText("Error");
-        }
+    Void showDbError(String prefix, Throwable t) {
+        Throwable cause = AsyncDBManager.rootCause(t);
+        cause.printStackTrace();
+        Platform.runLater(() -> showError(prefix + cause.getMessage()));
+        return null;
     }
 
     // 🚪 Logout
-    private void handleLogout() {
+    void logout() {
+        frameUpdater.stop();
+        valueSampler.stop();
+        subscriptions.forEach(EventBus.Subscription::close);
+        subscriptions.clear();
+        screens.clear();                    // hides the current screen, which unsubscribes it
+        feed.unsubscribe(alertEngine);     // the feed is shared and keeps running; the session unsubscribes on close
+        if (liveAlerts == alertEngine) liveAlerts = null;
+        // 📒 Close the session (drains the journal) off the FX thread; the next login reopens it
+        TradingSession s = session;
+        session = null;
+        CompletableFuture<Void> closed = s == null ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(s::close);
+        ACTIVE.set(closed.handle((v, t) -> null));   // exit waits for this close instead of starting another
+        closed.whenCompleteAsync((v, t) -> {
+            try {
+                Stage stage = (Stage) lblBalance.getScene().getWindow();
+                ViewNavigator.forStage(stage).show(LoginController.LOGIN);   // the cached login view, not a re-parse
+                stage.setTitle("StockFX Login");
+            } catch (Exception e) {
+                showError("Failed to logout: " + e.getMessage());
+            }
+        }, FX);
+    }
+
+    // 🚪 App exit without a logout: close the session (cancels orders, drains the journal), bounded so a dead
+    // database can't hold the process open. Anything not yet in MySQL stays in the journal for the next login.
+    public static void closeActiveSession(long timeoutMs) {
+        CompletableFuture<TradingSession> active = ACTIVE.getAndSet(null);
+        if (active == null) return;
         try {
-            Stage stage = (Stage) btnLogout.getScene().getWindow();
-            Parent root = FXMLLoader.load(getClass().getResource("/fxml/login.fxml"));
-            stage.setScene(new Scene(root));
-            stage.show();
-        } catch (Exception e) {
-            showError("Failed to logout: " + e.getMessage());
+            active.thenAcceptAsync(s -> {
+                if (s != null) s.close();
+            }).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("⚠️ Session still closing after " + timeoutMs + " ms; unflushed changes stay in the journal");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
         }
     }
 
     // 🔔 Alerts
-    private void showInfo(String msg) {
+    void showInfo(String msg) {
         Alert a = new Alert(Alert.AlertType.INFORMATION);
         a.setTitle("Success");
         a.setHeaderText(null);
@@ -582,7 +400,7 @@ private void loadPortfolio() {
         a.showAndWait();
     }
 
-    private void showError(String msg) {
+    void showError(String msg) {
         Alert a = new Alert(Alert.AlertType.ERROR);
         a.setTitle("Error");
         a.setHeaderText(null);
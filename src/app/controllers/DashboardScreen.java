@@ -0,0 +1,7 @@
+package app.controllers;
+
+// 🧩 A screen hosted by the dashboard; attached once, right after its FXML is first loaded
+interface DashboardScreen extends Screen {
+
+    void attach(DashboardController dashboard);
+}
@@ -1,30 +1,55 @@
 package app.controllers;
 
+import app.db.AsyncDBManager;
 import app.db.DBManager;
+import app.engine.TradingEngine;
+import app.market.MarketDataFeeds;
+import app.metrics.StartupTimer;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.event.ActionEvent;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-public class LoginController {
+public class LoginController implements Screen {
+
+    static final String LOGIN = "/fxml/login.fxml";
+    static final String DASHBOARD = "/fxml/dashboard.fxml";
 
     @FXML private TextField txtUser;
     @FXML private PasswordField txtPass;
     @FXML private Button btnLogin;
     @FXML private Button btnSignup;
 
-    private DBManager db;
+    private TradingEngine engine;                  // built on first use so the window is not held up by the feed
+    private CompletableFuture<Void> dashboardShown;   // completed at the dashboard's first frame
+    private ViewNavigator.View<DashboardController> preparedDashboard;   // parsed while a login is in flight
 
-    @FXML
-    public void initialize() {
-        // ✅ Reuse global DB connection instead of creating a new one
-        db = DBManager.getInstance();
-        System.out.println("✅ LoginController using shared DB connection");
+    // ✅ Reuse global DB connection instead of creating a new one
+    private TradingEngine engine() {
+        if (engine == null) {
+            engine = new TradingEngine(DBManager.getInstance(), MarketDataFeeds.shared());
+            System.out.println("✅ LoginController using shared DB connection");
+        }
+        return engine;
+    }
+
+    // 🔑 Log in without typing (startup probe); completes once the dashboard has drawn its first frame
+    public CompletableFuture<Void> loginAs(String username, String password) {
+        txtUser.setText(username);
+        txtPass.setText(password);
+        dashboardShown = new CompletableFuture<>();
+        onLogin(null);
+        return dashboardShown;
+    }
+
+    // 🔁 Back from logout: same view, fresh form
+    @Override
+    public void onShown() {
+        txtPass.clear();
+        btnLogin.setDisable(false);
     }
 
     @FXML
@@ -38,32 +63,68 @@ public class LoginController {
                 return;
             }
 
-            Optional<Integer> uid = db.login(username, password);
-            if (uid.isPresent()) {
-                System.out.println("✅ Login successful. User ID: " + uid.get());
-
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-                Parent root = loader.load();
-
-                // Pass DB + user ID to DashboardController
-                DashboardController ctrl = loader.getController();
-                ctrl.init(db, uid.get());
+            btnLogin.setDisable(true);
+            engine().login(username, password)
+                    .whenCompleteAsync((uid, err) -> {
+                        btnLogin.setDisable(false);
+                        if (err != null) {
+                            Throwable cause = AsyncDBManager.rootCause(err);
+                            cause.printStackTrace();
+                            showAlert("Error: " + cause.getMessage());
+                        } else if (uid.isPresent()) {
+                            openDashboard(uid.get());
+                        } else {
+                            showAlert("Invalid username or password.");
+                        }
+                    }, Platform::runLater);
+            // ⚡ Parse the dashboard while the credentials are checked; queued ahead of the login result
+            Platform.runLater(this::prepareDashboard);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            showAlert("Error: " + ex.getMessage());
+        }
+    }
 
-                // Switch scene
-                Stage stage = (Stage) btnLogin.getScene().getWindow();
-                stage.setScene(new Scene(root));
-                stage.setTitle("📈 StockFX Dashboard");
-                stage.show();
+    // Kept for the next attempt if this login fails
+    private void prepareDashboard() {
+        if (preparedDashboard != null) return;
+        try {
+            preparedDashboard = navigator().load(DASHBOARD);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
 
-            } else {
-                showAlert("Invalid username or password.");
-            }
+    private void openDashboard(int userId) {
+        try {
+            System.out.println("✅ Login successful. User ID: " + userId);
+
+            ViewNavigator.View<DashboardController> view = preparedDashboard != null
+                    ? preparedDashboard : navigator().load(DASHBOARD);
+            preparedDashboard = null;      // one dashboard per login
+
+            // Pass the engine + user ID to DashboardController
+            view.getController().init(engine(), userId);
+
+            // Switch scene; the login scene leaves the window here, so take the stage first
+            Stage stage = (Stage) btnLogin.getScene().getWindow();
+            ViewNavigator.forStage(stage).show(view);
+            stage.setTitle("📈 StockFX Dashboard");
+            ViewNavigator.afterNextPulse(view.getRoot().getScene(), () -> {
+                StartupTimer.mark(StartupTimer.DASHBOARD);
+                System.out.println(StartupTimer.summary());
+                if (dashboardShown != null) dashboardShown.complete(null);
+            });
         } catch (Exception ex) {
             ex.printStackTrace();
             showAlert("Error: " + ex.getMessage());
         }
     }
 
+    private ViewNavigator navigator() {
+        return ViewNavigator.forStage((Stage) btnLogin.getScene().getWindow());
+    }
+
     @FXML
     private void onSignup(ActionEvent e) {
         try {
@@ -75,12 +136,18 @@ public class LoginController {
                 return;
             }
 
-            boolean ok = db.signup(username, password);
-            if (ok) {
-                showAlert("✅ Signup successful! Please log in now.");
-            } else {
-                showAlert("⚠️ Signup failed — username may already exist.");
-            }
+            engine().signup(username, password)
+                    .whenCompleteAsync((ok, err) -> {
+                        if (err != null) {
+                            Throwable cause = AsyncDBManager.rootCause(err);
+                            cause.printStackTrace();
+                            showAlert("Error: " + cause.getMessage());
+                        } else if (ok) {
+                            showAlert("✅ Signup successful! Please log in now.");
+                        } else {
+                            showAlert("⚠️ Signup failed — username may already exist.");
+                        }
+                    }, Platform::runLater);
         } catch (Exception ex) {
             ex.printStackTrace();
             showAlert("Error: " + ex.getMessage());
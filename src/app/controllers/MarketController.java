@@ -0,0 +1,238 @@
+package app.controllers;
+
+import app.exchange.Exchange;
+import app.market.Instrument;
+import app.market.PriceStore;
+import app.models.Stock;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// 💹 Market screen: the feed's universe with live prices and top of book, market and limit orders, and
+// adding to the watchlist
+public class MarketController implements DashboardScreen {
+
+    @FXML private TextField txtSearch;
+    @FXML private TableView<Stock> tblMarket;
+    @FXML private TableColumn<Stock, String> colSymbol;
+    @FXML private TableColumn<Stock, String> colName;
+    @FXML private TableColumn<Stock, Double> colPrice;
+    @FXML private TableColumn<Stock, Double> colBid;
+    @FXML private TableColumn<Stock, Double> colAsk;
+    @FXML private Button btnBuy;
+    @FXML private Button btnSell;
+    @FXML private Button btnAddWatch;
+    @FXML private Button btnLimit;
+    @FXML private Button btnCancelOrders;
+
+    private DashboardController dashboard;
+    private PriceStore prices;
+    private Exchange exchange;                                  // null: no order book, no bid/ask
+    private ScreenTicks ticks;
+    private final List<Stock> stockViews = new ArrayList<>();   // indexed by PriceStore id
+    private final ObservableList<Stock> marketData = FXCollections.observableArrayList();
+
+    @FXML
+    public void initialize() {
+        colSymbol.setCellValueFactory(new PropertyValueFactory<>("symbol"));
+        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
+        colPrice.setCellFactory(c -> priceCell());
+        colBid.setCellValueFactory(new PropertyValueFactory<>("bid"));
+        colBid.setCellFactory(c -> priceCell());
+        colAsk.setCellValueFactory(new PropertyValueFactory<>("ask"));
+        colAsk.setCellFactory(c -> priceCell());
+
+        FilteredList<Stock> filtered = new FilteredList<>(marketData);
+        txtSearch.textProperty().addListener((obs, oldText, text) -> {
+            String q = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+            filtered.setPredicate(q.isEmpty() ? null : s -> s.getSymbol().toLowerCase(Locale.ROOT).contains(q)
+                    || s.getName().toLowerCase(Locale.ROOT).contains(q));
+        });
+        tblMarket.setItems(filtered);
+
+        btnBuy.setOnAction(e -> buyOrSell("BUY"));
+        btnSell.setOnAction(e -> buyOrSell("SELL"));
+        btnAddWatch.setOnAction(e -> handleAddToWatchlist());
+        btnLimit.setOnAction(e -> handleLimitOrder());
+        btnCancelOrders.setOnAction(e -> handleCancelOrders());
+    }
+
+    @Override
+    public void attach(DashboardController dashboard) {
+        this.dashboard = dashboard;
+        this.prices = dashboard.prices();
+        this.exchange = dashboard.exchange();
+        this.ticks = new ScreenTicks(dashboard.feed());
+        boolean book = exchange != null;
+        for (Button b : new Button[] { btnLimit, btnCancelOrders }) {
+            b.setVisible(book);
+            b.setManaged(book);
+        }
+        colBid.setVisible(book);
+        colAsk.setVisible(book);
+        for (Instrument i : dashboard.feed().instruments()) {
+            addMarketSymbol(i.getSymbol(), i.getName());
+        }
+    }
+
+    // ✅ Prices live in the feed's PriceStore; the Stock row is a view indexed by the same id
+    private void addMarketSymbol(String symbol, String name) {
+        int id = prices.intern(symbol);
+        Stock view = new Stock(symbol, name, prices.price(id));
+        while (stockViews.size() <= id) stockViews.add(null);
+        stockViews.set(id, view);
+        marketData.add(view);
+    }
+
+    // 🔁 Catch up on whatever moved while hidden, then follow the feed
+    @Override
+    public void onShown() {
+        for (int id = 0; id < stockViews.size(); id++) applyPrice(id);
+        ticks.resume();
+    }
+
+    @Override
+    public void onHidden() {
+        ticks.pause();
+    }
+
+    @Override
+    public void onFrame() {
+        ticks.drain(this::applyPrice);
+    }
+
+    // The market maker re-quotes on every tick, so a changed price also means a changed top of book
+    private void applyPrice(int id) {
+        Stock view = id < stockViews.size() ? stockViews.get(id) : null;
+        if (view == null) return;
+        view.setPrice(prices.price(id));
+        if (exchange != null) {
+            view.setBid(exchange.bid(id));
+            view.setAsk(exchange.ask(id));
+        }
+    }
+
+    static <T> TableCell<T, Double> priceCell() {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(Double value, boolean empty) {
+                super.updateItem(value, empty);
+                setText(empty || value == null || value.isNaN() ? null : String.format("%.2f", value));
+            }
+        };
+    }
+
+    // 💸 Handle Buy / Sell
+    private void buyOrSell(String type) {
+        if (!dashboard.sessionReady()) return;
+        Stock selected = tblMarket.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            dashboard.showError("Please select a stock first!");
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle(type + " " + selected.getSymbol());
+        dialog.setHeaderText("Enter quantity to " + type.toLowerCase() + ":");
+        Optional<String> result = dialog.showAndWait();
+
+        result.ifPresent(qtyStr -> {
+            try {
+                int qty = Integer.parseInt(qtyStr);
+
+                if (qty <= 0) {
+                    dashboard.showError("Quantity must be positive.");
+                    return;
+                }
+
+                // ⚡ The engine journals it (or runs one DB transaction) off the FX thread
+                dashboard.session().trade(selected.getSymbol(), type, qty)
+                        .thenAcceptAsync(trade -> {
+                            applyPrice(prices.idOf(selected.getSymbol()));   // the order moved the book
+                            dashboard.onTradeCompleted(type, trade);
+                        }, DashboardController.FX)
+                        .exceptionally(t -> dashboard.showDbError("Database error: ", t));
+            } catch (NumberFormatException ex) {
+                dashboard.showError("Invalid quantity entered!");
+            }
+        });
+    }
+
+    // 📝 "BUY 10 @ 3800" — what crosses trades now, the rest rests until it fills or is cancelled
+    private void handleLimitOrder() {
+        if (!dashboard.sessionReady()) return;
+        Stock selected = tblMarket.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            dashboard.showError("Please select a stock first!");
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog(String.format("BUY 1 @ %.2f", selected.getBid()));
+        dialog.setTitle("Limit Order " + selected.getSymbol());
+        dialog.setHeaderText("Side, quantity and limit price, e.g. BUY 10 @ 3800 or SELL 5 @ 3900");
+        dialog.showAndWait().ifPresent(spec -> {
+            String[] parts = spec.trim().replace("@", " ").split("\\s+");
+            String side;
+            int qty;
+            double limit;
+            try {
+                if (parts.length != 3) throw new NumberFormatException(spec);
+                side = parts[0].toUpperCase(Locale.ROOT);
+                qty = Integer.parseInt(parts[1]);
+                limit = Double.parseDouble(parts[2]);
+            } catch (NumberFormatException e) {
+                dashboard.showError("Could not read order: " + spec);
+                return;
+            }
+            if (!side.equals("BUY") && !side.equals("SELL") || qty <= 0 || !(limit > 0)) {
+                dashboard.showError("Could not read order: " + spec);
+                return;
+            }
+
+            dashboard.session().limit(selected.getSymbol(), side, qty, limit)
+                    .thenAcceptAsync(x -> {
+                        applyPrice(prices.idOf(x.getSymbol()));
+                        dashboard.showInfo("📝 " + x.getSide() + " " + x.getRequested() + " " + x.getSymbol()
+                                + " @ ₹" + String.format("%.2f", limit) + "\n"
+                                + x.getFilled() + " filled now" + (x.getFilled() > 0 ? String.format(" (avg ₹%.2f)", x.getAvgPrice()) : "")
+                                + ", " + x.getResting() + " resting");
+                    }, DashboardController.FX)
+                    .exceptionally(t -> dashboard.showDbError("Order failed: ", t));
+        });
+    }
+
+    private void handleCancelOrders() {
+        if (!dashboard.sessionReady()) return;
+        Stock selected = tblMarket.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            dashboard.showError("Please select a stock first!");
+            return;
+        }
+        int cancelled = dashboard.session().cancelOrders(selected.getSymbol());
+        applyPrice(prices.idOf(selected.getSymbol()));
+        dashboard.showInfo(cancelled == 0 ? "No open orders on " + selected.getSymbol()
+                : "✖ Cancelled " + cancelled + " order(s) on " + selected.getSymbol());
+    }
+
+    private void handleAddToWatchlist() {
+        if (!dashboard.sessionReady()) return;
+        Stock s = tblMarket.getSelectionModel().getSelectedItem();
+        if (s == null) {
+            dashboard.showError("Select a stock first!");
+            return;
+        }
+
+        dashboard.session().addToWatchlist(s.getSymbol())
+                .thenRunAsync(() -> dashboard.showInfo(s.getSymbol() + " added to watchlist!"), DashboardController.FX)
+                .exceptionally(t -> dashboard.showDbError("", t));
+    }
+}
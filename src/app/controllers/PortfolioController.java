@@ -1,14 +1,160 @@
 package app.controllers;
 
-import app.db.DBManager;
-import app.models.Stock;
+import app.chart.DecimatedSeries;
+import app.engine.TradingSession;
+import app.events.TradeExecuted;
+import app.market.PriceStore;
+import app.models.PortfolioItem;
+import app.portfolio.Position;
 import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.PieChart;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.util.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 
-public class PortfolioController {
-    @FXML private TableView<?> tblPortfolio;
-    private DBManager db; private int userId;
-    public void init(DBManager db, int userId){ this.db = db; this.userId = userId; }
+// 💼 Portfolio screen: holdings table and pie from the session's position book, plus the value chart.
+// The value chart replays the dashboard's samples (one every 3s since login) and follows new ones;
+// the table and pie only follow ticks and trades on screen. A tick moves every row's weight, so weights are
+// refreshed once per frame that had ticks.
+public class PortfolioController implements DashboardScreen {
+
+    @FXML private TableView<PortfolioItem> tblPortfolio;
+    @FXML private TableColumn<PortfolioItem, String> colPSymbol;
+    @FXML private TableColumn<PortfolioItem, String> colPName;
+    @FXML private TableColumn<PortfolioItem, Integer> colPQty;
+    @FXML private TableColumn<PortfolioItem, Double> colPAvg;
+    @FXML private TableColumn<PortfolioItem, Double> colPValue;
+    @FXML private TableColumn<PortfolioItem, Double> colPVwap;
+    @FXML private TableColumn<PortfolioItem, Double> colPWeight;
+    @FXML private TableColumn<PortfolioItem, Double> colPUnrealized;
+    @FXML private TableColumn<PortfolioItem, Double> colPRealized;
+    @FXML private TableColumn<PortfolioItem, Double> colPDay;
+    @FXML private PieChart pieChart;
+    @FXML private LineChart<Number, Number> lineChart;
+
+    private DashboardController dashboard;
+    private PriceStore prices;
+    private ScreenTicks ticks;
+    private final Map<String, PortfolioItem> portfolioRows = new HashMap<>();
+    private final Map<String, PieChart.Data> pieSlices = new HashMap<>();
+    private DecimatedSeries portfolioValueSeries;                // full history, decimated to the chart width
+    private boolean shown;
+    private boolean repriced;                                    // a row's price moved this frame
+
+    @FXML
+    public void initialize() {
+        colPSymbol.setCellValueFactory(new PropertyValueFactory<>("symbol"));
+        colPName.setCellValueFactory(new PropertyValueFactory<>("companyName"));
+        colPQty.setCellValueFactory(new PropertyValueFactory<>("quantity"));
+        colPAvg.setCellValueFactory(new PropertyValueFactory<>("avgPrice"));
+        colPValue.setCellValueFactory(new PropertyValueFactory<>("currentValue"));
+        colPVwap.setCellValueFactory(new PropertyValueFactory<>("vwap"));
+        colPWeight.setCellValueFactory(new PropertyValueFactory<>("weight"));
+        colPUnrealized.setCellValueFactory(new PropertyValueFactory<>("unrealizedPnl"));
+        colPRealized.setCellValueFactory(new PropertyValueFactory<>("realizedPnl"));
+        colPDay.setCellValueFactory(new PropertyValueFactory<>("dayChange"));
+
+        ((NumberAxis) lineChart.getXAxis()).setLabel("Time (s)");
+        ((NumberAxis) lineChart.getYAxis()).setLabel("Portfolio Value (₹)");
+        lineChart.setTitle("Live Portfolio Value");
+        portfolioValueSeries = new DecimatedSeries(lineChart);
+    }
+
+    @Override
+    public void attach(DashboardController dashboard) {
+        this.dashboard = dashboard;
+        this.prices = dashboard.prices();
+        this.ticks = new ScreenTicks(dashboard.feed());
+        dashboard.on(TradeExecuted.class, e -> {
+            if (shown) renderPortfolio();       // hidden: reconciled when next shown
+        });
+        for (double[] p : dashboard.valueHistory()) portfolioValueSeries.append(p[0], p[1]);
+    }
+
+    // 🔁 Positions may have changed while hidden (trades, prices); reconcile once, then follow the feed
+    @Override
+    public void onShown() {
+        shown = true;
+        renderPortfolio();
+        ticks.resume();
+    }
+
+    @Override
+    public void onHidden() {
+        shown = false;
+        ticks.pause();
+    }
+
+    @Override
+    public void onFrame() {
+        ticks.drain(this::applyPrice);
+        if (!repriced) return;
+        repriced = false;
+        TradingSession session = dashboard.session();
+        if (session == null) return;
+        for (PortfolioItem row : portfolioRows.values()) row.setWeight(session.positions().weightOf(row.getSymbol()) * 100.0);
+    }
+
+    private void applyPrice(int id) {
+        TradingSession session = dashboard.session();
+        String symbol = prices.symbolOf(id);
+        PortfolioItem row = portfolioRows.get(symbol);
+        Position held = session == null ? null : session.positions().get(symbol);
+        if (row != null && held != null) {
+            row.setCurrentValue(held.getMarketValue());
+            row.setUnrealizedPnl(held.getUnrealizedPnl());
+            row.setDayChange(held.getDayChange());
+            repriced = true;
+            pieSlices.get(symbol).setPieValue(held.getMarketValue());
+        }
+    }
+
+    // 🔄 A new value sample from the dashboard — no DB round trip
+    void appendValue(double seconds, double value) {
+        portfolioValueSeries.append(seconds, value);
+    }
+
+    // 🔁 Reconcile table rows and pie slices with the position book in place, keyed by symbol
+    private void renderPortfolio() {
+        TradingSession session = dashboard.session();
+        if (session == null) return;
+        Set<String> held = new HashSet<>();
+        for (PortfolioItem p : session.positions().toItems()) {
+            held.add(p.getSymbol());
+            PortfolioItem row = portfolioRows.get(p.getSymbol());
+            if (row == null) {
+                portfolioRows.put(p.getSymbol(), p);
+                tblPortfolio.getItems().add(p);
+                PieChart.Data slice = new PieChart.Data(p.getSymbol(), p.getCurrentValue());
+                pieSlices.put(p.getSymbol(), slice);
+                pieChart.getData().add(slice);
+            } else {
+                row.setQuantity(p.getQuantity());
+                row.setAvgPrice(p.getAvgPrice());
+                row.setCurrentValue(p.getCurrentValue());
+                row.setUnrealizedPnl(p.getUnrealizedPnl());
+                row.setRealizedPnl(p.getRealizedPnl());
+                row.setDayChange(p.getDayChange());
+                row.setWeight(p.getWeight());
+                row.setVwap(p.getVwap());
+                pieSlices.get(p.getSymbol()).setPieValue(p.getCurrentValue());
+            }
+        }
+
+        Iterator<Map.Entry<String, PortfolioItem>> it = portfolioRows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, PortfolioItem> e = it.next();
+            if (held.contains(e.getKey())) continue;
+            tblPortfolio.getItems().remove(e.getValue());
+            pieChart.getData().remove(pieSlices.remove(e.getKey()));
+            it.remove();
+        }
+    }
 }
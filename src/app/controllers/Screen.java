@@ -0,0 +1,13 @@
+package app.controllers;
+
+// 🪟 A controller whose view is swapped in and out by a ViewNavigator.
+// Only the visible screen is told to do work: subscribe in onShown, let go in onHidden.
+public interface Screen {
+
+    default void onShown() {}
+
+    default void onHidden() {}
+
+    // 🎞️ Once per pulse while visible (dashboard screens)
+    default void onFrame() {}
+}
@@ -0,0 +1,40 @@
+package app.controllers;
+
+import app.market.MarketDataFeed;
+import app.market.TickConflator;
+import app.metrics.Counter;
+import app.metrics.MetricsRegistry;
+
+import java.util.function.IntConsumer;
+
+// 📡 A screen's own conflated view of the feed, subscribed only while the screen is on display.
+// Hidden screens cost the feed thread nothing; they resync from the PriceStore when shown again.
+final class ScreenTicks {
+
+    private final MarketDataFeed feed;
+    private final TickConflator conflator;
+    private final Counter applied = MetricsRegistry.shared().counter("market.ticks.applied");
+    private boolean subscribed;
+
+    ScreenTicks(MarketDataFeed feed) {
+        this.feed = feed;
+        this.conflator = new TickConflator(feed.instruments().size());
+    }
+
+    void resume() {
+        if (subscribed) return;
+        subscribed = true;
+        feed.subscribe(conflator);
+    }
+
+    void pause() {
+        if (!subscribed) return;
+        subscribed = false;
+        feed.unsubscribe(conflator);
+    }
+
+    // ✅ Once per frame: the latest price of every symbol that ticked since the last one
+    void drain(IntConsumer sink) {
+        applied.add(conflator.drain(sink));
+    }
+}
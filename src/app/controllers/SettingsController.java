@@ -0,0 +1,107 @@
+package app.controllers;
+
+import app.db.AsyncDBManager;
+import app.db.DBManager;
+import app.export.TransactionExporter;
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// ⚙ Settings screen: logout, deposits and history export
+public class SettingsController implements DashboardScreen {
+
+    @FXML private Button btnLogout;
+    @FXML private Button btnAddMoney;
+    @FXML private Button btnExport;
+    @FXML private ProgressBar pbExport;
+    @FXML private Label lblExport;
+
+    private DashboardController dashboard;
+
+    @Override
+    public void attach(DashboardController dashboard) {
+        this.dashboard = dashboard;
+        btnLogout.setOnAction(e -> dashboard.logout());
+        btnAddMoney.setOnAction(e -> handleAddMoney());
+        btnExport.setOnAction(e -> handleExport());
+    }
+
+    // 🏦 Add Money
+    private void handleAddMoney() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Add Money");
+        dialog.setHeaderText("Enter amount to deposit:");
+        Optional<String> result = dialog.showAndWait();
+
+        result.ifPresent(amountStr -> {
+            try {
+                double amount = Double.parseDouble(amountStr);
+                if (amount <= 0) {
+                    dashboard.showError("Amount must be positive!");
+                    return;
+                }
+
+                dashboard.session().deposit(amount)
+                        .thenAcceptAsync(newBalance -> {
+                            dashboard.showInfo("₹" + String.format("%.2f", amount) + " added successfully!\nNew Balance: ₹" + String.format("%.2f", newBalance));
+                        }, DashboardController.FX)
+                        .exceptionally(t -> dashboard.showDbError("Database Error: ", t));
+            } catch (NumberFormatException e) {
+                dashboard.showError("Please enter a valid number.");
+            }
+        });
+    }
+
+    // 📤 Export full history — streamed on a DB worker thread, progress marshalled to the FX thread
+    private void handleExport() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Transactions");
+        chooser.setInitialFileName("transactions.csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("Columnar binary", "*.stkc"));
+        File file = chooser.showSaveDialog(btnExport.getScene().getWindow());
+        if (file == null) return;
+
+        Path target = file.toPath();
+        btnExport.setDisable(true);
+        pbExport.setProgress(0);
+        pbExport.setVisible(true);
+        lblExport.setText("Exporting…");
+
+        DBManager db = dashboard.db();
+        int userId = dashboard.userId();
+        TransactionExporter exporter = new TransactionExporter(db);
+        dashboard.session().flush()
+                .thenCompose(v -> db.async().submit(d -> {
+                    try {
+                        return exporter.export(userId, target, TransactionExporter.formatFor(target),
+                                (rows, total) -> Platform.runLater(() -> {
+                                    pbExport.setProgress(total == 0 ? 1 : (double) rows / total);
+                                    lblExport.setText(rows + " / " + total + " rows");
+                                }));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }))
+                .whenCompleteAsync((rows, err) -> {
+                    btnExport.setDisable(false);
+                    pbExport.setVisible(false);
+                    if (err != null) {
+                        Throwable cause = AsyncDBManager.rootCause(err);
+                        cause.printStackTrace();
+                        lblExport.setText("");
+                        dashboard.showError("Export failed: " + cause.getMessage());
+                    } else {
+                        lblExport.setText("✅ " + rows + " rows → " + target.getFileName());
+                    }
+                }, DashboardController.FX);
+    }
+}
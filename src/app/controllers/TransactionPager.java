@@ -0,0 +1,118 @@
+package app.controllers;
+
+import app.db.AsyncDBManager;
+import app.db.DBManager;
+import app.models.Transaction;
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 📄 Lazily pages a user's transaction history into a TableView.
+// The first page loads on reset(); further pages are fetched with a keyset cursor when the
+// table is scrolled near the bottom. New trades are prepended without reloading; until the first page is in
+// they are held back and then merged, skipping any the page already has (a trade can land in MySQL before
+// or after the page is read).
+public class TransactionPager {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final TableView<Transaction> table;
+    private final DBManager db;
+    private final int userId;
+
+    private Transaction cursor;       // last row fetched from the DB (oldest so far)
+    private boolean loading;
+    private boolean exhausted;
+    private int generation;           // bumps on reset so late pages from a previous load are dropped
+    private List<Transaction> pending = new ArrayList<>();   // trades seen before the first page; null after
+
+    public TransactionPager(TableView<Transaction> table, DBManager db, int userId) {
+        this.table = table;
+        this.db = db;
+        this.userId = userId;
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> attachScrollListener());
+        if (table.getSkin() != null) attachScrollListener();
+    }
+
+    // ✅ Drop everything and fetch the newest page
+    public void reset() {
+        generation++;
+        cursor = null;
+        exhausted = false;
+        loading = false;
+        if (pending == null) pending = new ArrayList<>();
+        table.getItems().clear();
+        loadNextPage();
+    }
+
+    // ➕ A trade just happened — show it at the top
+    public void prepend(Transaction t) {
+        if (t == null) return;
+        if (pending != null) pending.add(t);
+        else table.getItems().add(0, t);
+    }
+
+    public void loadNextPage() {
+        if (loading || exhausted) return;
+        loading = true;
+        int gen = generation;
+        db.async().loadTransactionsPage(userId,
+                        cursor == null ? null : cursor.getCreatedAt(),
+                        cursor == null ? 0 : cursor.getTransactionId(),
+                        PAGE_SIZE)
+                .whenCompleteAsync((page, err) -> {
+                    if (gen != generation) return;
+                    loading = false;
+                    if (err != null) {
+                        AsyncDBManager.rootCause(err).printStackTrace();
+                        mergePending(List.of());
+                        return;
+                    }
+                    append(page);
+                    mergePending(page);
+                }, Platform::runLater);
+    }
+
+    // 🔀 Held-back trades go on top, oldest first, minus those the first page already returned
+    private void mergePending(List<Transaction> firstPage) {
+        if (pending == null) return;
+        Map<String, Integer> inPage = new HashMap<>();
+        for (Transaction t : firstPage) inPage.merge(key(t), 1, Integer::sum);
+        for (Transaction t : pending) {
+            if (inPage.merge(key(t), -1, Integer::sum) >= 0) continue;
+            table.getItems().add(0, t);
+        }
+        pending = null;
+    }
+
+    // Journalled trades have no transaction_id yet, so rows are matched on what the table shows
+    private static String key(Transaction t) {
+        return t.getSymbol() + '|' + t.getType() + '|' + t.getQuantity() + '|' + Math.round(t.getPrice() * 100)
+                + '|' + (t.getCreatedAt() == null ? 0 : t.getCreatedAt().getTime() / 1000);
+    }
+
+    private void append(List<Transaction> page) {
+        if (page.size() < PAGE_SIZE) exhausted = true;
+        if (page.isEmpty()) return;
+        cursor = page.get(page.size() - 1);
+        table.getItems().addAll(page);
+    }
+
+    // 🔍 The vertical ScrollBar only exists once the skin is built
+    private void attachScrollListener() {
+        for (Node n : table.lookupAll(".scroll-bar")) {
+            if (n instanceof ScrollBar sb && sb.getOrientation() == Orientation.VERTICAL) {
+                sb.valueProperty().addListener((obs, oldV, newV) -> {
+                    if (newV.doubleValue() >= sb.getMax() * 0.9) loadNextPage();
+                });
+            }
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package app.controllers;
 
-import app.db.DBManager;
+import app.events.TradeExecuted;
 import app.models.Transaction;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.util.List;
-
-public class TransactionsController {
+// 🕒 Transactions screen: paged history, newest first
+public class TransactionsController implements DashboardScreen {
 
     @FXML private TableView<Transaction> tblTransactions;
     @FXML private TableColumn<Transaction, String> colSymbol;
@@ -18,14 +17,24 @@ public class TransactionsController {
     @FXML private TableColumn<Transaction, Double> colPrice;
     @FXML private TableColumn<Transaction, String> colDate;
 
-    private DBManager db;
-    private int userId;
+    private TransactionPager pager;
 
-    public void init(DBManager db, int userId) {
-        this.db = db;
-        this.userId = userId;
+    @FXML
+    public void initialize() {
         setupTable();
-        loadTransactions();
+    }
+
+    // 📒 Trades still in the write-behind journal are flushed first so the first page includes them; trades
+    // executed meanwhile are held by the pager and merged once that page is in
+    @Override
+    public void attach(DashboardController dashboard) {
+        pager = new TransactionPager(tblTransactions, dashboard.db(), dashboard.userId());
+        dashboard.on(TradeExecuted.class, e -> prepend(e.getTrade().getTransaction()));
+        dashboard.session().flush()
+                .whenCompleteAsync((v, err) -> {
+                    if (err != null) dashboard.logDbError(err);
+                    loadTransactions();
+                }, DashboardController.FX);
     }
 
     private void setupTable() {
@@ -36,12 +45,13 @@ public class TransactionsController {
         colDate.setCellValueFactory(new PropertyValueFactory<>("date"));
     }
 
+    // 📄 Pages are fetched lazily as the table scrolls
     private void loadTransactions() {
-        try {
-            List<Transaction> list = db.loadTransactions(userId);
-            tblTransactions.getItems().setAll(list);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        pager.reset();
+    }
+
+    // ➕ A trade just happened — show only the new row at the top, no history reload
+    private void prepend(Transaction t) {
+        pager.prepend(t);
     }
 }
@@ -0,0 +1,132 @@
+package app.controllers;
+
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// 🧭 Loads each FXML view on first use and keeps the parsed node graph and controller for reuse.
+// Switching views hides the current controller and shows the next one (see Screen), so hidden
+// views stop doing work. FX thread only.
+public class ViewNavigator {
+
+    // 📦 A parsed view and its controller
+    public static final class View<C> {
+        private final String fxml;
+        private final Parent root;
+        private final C controller;
+
+        View(String fxml, Parent root, C controller) {
+            this.fxml = fxml;
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public String getFxml() { return fxml; }
+        public Parent getRoot() { return root; }
+        public C getController() { return controller; }
+    }
+
+    private final Consumer<Parent> display;
+    private final Map<String, View<?>> cache = new HashMap<>();
+    private View<?> current;
+
+    public ViewNavigator(Consumer<Parent> display) {
+        this.display = display;
+    }
+
+    // 🖼️ Whole-window navigation, one per stage; each root keeps the Scene it was first shown in
+    public static ViewNavigator forStage(Stage stage) {
+        return (ViewNavigator) stage.getProperties().computeIfAbsent(ViewNavigator.class, k ->
+                new ViewNavigator(root -> {
+                    Scene scene = root.getScene();
+                    stage.setScene(scene != null ? scene : new Scene(root));
+                    stage.show();
+                }));
+    }
+
+    // 🗂️ Swaps the only child of a host pane
+    public static ViewNavigator forPane(Pane host) {
+        return new ViewNavigator(root -> host.getChildren().setAll(root));
+    }
+
+    // 🎞️ Run once, after the next pulse has laid out the scene (i.e. it is on screen)
+    public static void afterNextPulse(Scene scene, Runnable action) {
+        Runnable[] self = new Runnable[1];
+        self[0] = () -> {
+            scene.removePostLayoutPulseListener(self[0]);
+            action.run();
+        };
+        scene.addPostLayoutPulseListener(self[0]);
+        Platform.requestNextPulse();
+    }
+
+    // ✅ Parse now without caching (views tied to one login, e.g. the dashboard)
+    public <C> View<C> load(String fxml) {
+        try (LatencyHistogram.Timer t = MetricsRegistry.shared().time("ui.fxml.load")) {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxml));
+            Parent root = loader.load();
+            return new View<>(fxml, root, loader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load " + fxml, e);
+        }
+    }
+
+    // 💾 Parsed once, then served from the cache
+    @SuppressWarnings("unchecked")
+    public <C> View<C> view(String fxml) {
+        View<?> v = cache.get(fxml);
+        if (v == null) {
+            v = load(fxml);
+            cache.put(fxml, v);
+        }
+        return (View<C>) v;
+    }
+
+    public <C> C show(String fxml) {
+        View<C> v = view(fxml);
+        show(v);
+        return v.getController();
+    }
+
+    public void show(View<?> next) {
+        if (next == current) return;
+        if (current != null && current.getController() instanceof Screen s) s.onHidden();
+        current = next;
+        display.accept(next.getRoot());
+        if (next.getController() instanceof Screen s) s.onShown();
+    }
+
+    // 🔍 The controller if the view has been loaded, without loading it
+    @SuppressWarnings("unchecked")
+    public <C> Optional<C> loaded(String fxml) {
+        View<?> v = cache.get(fxml);
+        return v == null ? Optional.empty() : Optional.of((C) v.getController());
+    }
+
+    public View<?> current() {
+        return current;
+    }
+
+    public boolean isShowing(String fxml) {
+        return current != null && current.getFxml().equals(fxml);
+    }
+
+    // 🧹 Hide the current view and forget every cached one
+    public void clear() {
+        if (current != null && current.getController() instanceof Screen s) s.onHidden();
+        current = null;
+        cache.clear();
+    }
+}
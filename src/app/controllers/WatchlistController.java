@@ -1,40 +1,143 @@
 package app.controllers;
 
-import app.db.DBManager;
+import app.events.WatchlistChanged;
+import app.market.PriceStore;
+import app.models.AlertRule;
+import app.models.WatchlistItem;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.util.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-public class WatchlistController {
+// ⭐ Watchlist screen: live prices for the user's symbols, removal and price alerts
+public class WatchlistController implements DashboardScreen {
+
+    @FXML private TableView<WatchlistItem> tblWatchlist;
+    @FXML private TableColumn<WatchlistItem, String> colWLSymbol;
+    @FXML private TableColumn<WatchlistItem, String> colWLCompany;
+    @FXML private TableColumn<WatchlistItem, Double> colWLPrice;
+    @FXML private Button btnRemoveWatch;
+    @FXML private Button btnAddAlert;
+
+    private DashboardController dashboard;
+    private PriceStore prices;
+    private ScreenTicks ticks;
+    private final ObservableList<WatchlistItem> watchlistData = FXCollections.observableArrayList();
+    private final Map<String, WatchlistItem> watchBySymbol = new HashMap<>();
 
     @FXML
-    private ListView<String> lvWatchlist;
+    public void initialize() {
+        colWLSymbol.setCellValueFactory(new PropertyValueFactory<>("symbol"));
+        colWLCompany.setCellValueFactory(new PropertyValueFactory<>("company"));
+        colWLPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
+        colWLPrice.setCellFactory(c -> MarketController.priceCell());
+        tblWatchlist.setItems(watchlistData);
+
+        btnRemoveWatch.setOnAction(e -> handleRemoveFromWatchlist());
+        btnAddAlert.setOnAction(e -> handleAddAlert());
+    }
+
+    // 🧾 Load Watchlist (usually already fetched while the dashboard opened)
+    @Override
+    public void attach(DashboardController dashboard) {
+        this.dashboard = dashboard;
+        this.prices = dashboard.prices();
+        this.ticks = new ScreenTicks(dashboard.feed());
+        dashboard.on(WatchlistChanged.class, e -> {
+            if (e.isAdded()) add(e.getSymbol(), e.getCompanyName());
+            else remove(e.getSymbol());
+        });
+        dashboard.takeWatchlist()
+                .thenAcceptAsync(this::setItems, DashboardController.FX)
+                .exceptionally(dashboard::logDbError);
+    }
 
-    private DBManager db;
-    private int userId;
+    private void setItems(List<WatchlistItem> items) {
+        watchlistData.setAll(items);
+        watchBySymbol.clear();
+        for (WatchlistItem i : items) watchBySymbol.put(i.getSymbol(), i);
+        refreshPrices();
+    }
 
-    public void init(DBManager db, int userId) {
-        this.db = db;
-        this.userId = userId;
-        load();
+    // ⭐ Deltas from WatchlistChanged, whichever screen made the change
+    private void add(String symbol, String companyName) {
+        if (watchBySymbol.containsKey(symbol)) return;
+        WatchlistItem item = new WatchlistItem(symbol, companyName, prices.price(symbol));
+        watchBySymbol.put(symbol, item);
+        watchlistData.add(item);
     }
 
-    private void load() {
-        try {
-            List<String> list = db.loadWatchlist(userId);
+    private void remove(String symbol) {
+        WatchlistItem item = watchBySymbol.remove(symbol);
+        if (item != null) watchlistData.remove(item);
+    }
 
-            lvWatchlist.getItems().clear();
+    @Override
+    public void onShown() {
+        refreshPrices();
+        ticks.resume();
+    }
 
-            if (list.isEmpty()) {
-                lvWatchlist.getItems().add("⚠️ Your watchlist is empty.");
-            } else {
-                lvWatchlist.getItems().addAll(list);
-            }
+    @Override
+    public void onHidden() {
+        ticks.pause();
+    }
+
+    @Override
+    public void onFrame() {
+        ticks.drain(id -> {
+            WatchlistItem w = watchBySymbol.get(prices.symbolOf(id));
+            if (w != null) w.setPrice(prices.price(id));
+        });
+    }
+
+    private void refreshPrices() {
+        for (WatchlistItem w : watchlistData) {
+            double price = prices.price(w.getSymbol());
+            if (!Double.isNaN(price)) w.setPrice(price);
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            lvWatchlist.getItems().add("❌ Error loading watchlist");
+    private void handleRemoveFromWatchlist() {
+        WatchlistItem s = tblWatchlist.getSelectionModel().getSelectedItem();
+        if (s == null) {
+            dashboard.showError("Select a watchlist item first!");
+            return;
         }
+        dashboard.session().removeFromWatchlist(s.getSymbol())
+                .exceptionally(t -> dashboard.showDbError("", t));
+    }
+
+    private void handleAddAlert() {
+        WatchlistItem w = tblWatchlist.getSelectionModel().getSelectedItem();
+        if (w == null) {
+            dashboard.showError("Select a watchlist stock first!");
+            return;
+        }
+        TextInputDialog dialog = new TextInputDialog(String.format("%.2f", prices.price(w.getSymbol())));
+        dialog.setTitle("Price Alert");
+        dialog.setHeaderText("Alert for " + w.getSymbol() + "\n"
+                + "3900 = crosses, >3900 / <3800 = above / below,\n"
+                + "5%/60s = moves 5% within 60s, pnl<-500 = position P&L below");
+        dialog.showAndWait().ifPresent(spec -> {
+            AlertRule rule;
+            try {
+                rule = AlertRule.parse(dashboard.userId(), w.getSymbol(), spec);
+            } catch (IllegalArgumentException e) {
+                dashboard.showError("Could not read alert: " + spec);
+                return;
+            }
+            dashboard.db().async().addAlert(rule)
+                    .thenAcceptAsync(saved -> {
+                        dashboard.alerts().add(saved);
+                        dashboard.showInfo("🔔 Alert set: " + saved.describe());
+                    }, DashboardController.FX)
+                    .exceptionally(t -> dashboard.showDbError("Failed to save alert: ", t));
+        });
     }
 }
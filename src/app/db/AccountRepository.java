@@ -0,0 +1,76 @@
+package app.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+// 👤 users table: credentials and cash balance.
+// Like the other repositories it works on a caller-supplied connection, so DBManager can run
+// several repository calls in one transaction; statements come from the pool's per-connection cache.
+public class AccountRepository {
+
+    private static final String FIND_ID_BY_CREDENTIALS = "SELECT id FROM users WHERE username=? AND password=?";
+    private static final String FIND_ID_BY_USERNAME = "SELECT id FROM users WHERE username=?";
+    private static final String INSERT = "INSERT INTO users (username, password) VALUES (?, ?)";
+    private static final String BALANCE = "SELECT balance FROM users WHERE id=?";
+    private static final String BALANCE_FOR_UPDATE = "SELECT balance FROM users WHERE id=? FOR UPDATE";
+    private static final String ADJUST_BALANCE = "UPDATE users SET balance=balance + ? WHERE id=?";
+
+    public Optional<Integer> findIdByCredentials(Connection conn, String username, String password) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(FIND_ID_BY_CREDENTIALS)) {
+            ps.setString(1, username);
+            ps.setString(2, password);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getInt("id")) : Optional.empty();
+            }
+        }
+    }
+
+    public boolean usernameExists(Connection conn, String username) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(FIND_ID_BY_USERNAME)) {
+            ps.setString(1, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    public void create(Connection conn, String username, String password) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            ps.setString(1, username);
+            ps.setString(2, password);
+            ps.executeUpdate();
+        }
+    }
+
+    // 0 when the user does not exist
+    public double getBalance(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(BALANCE)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getDouble("balance") : 0;
+            }
+        }
+    }
+
+    // 🔒 Locks the user row until the surrounding transaction ends
+    public double lockBalance(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(BALANCE_FOR_UPDATE)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Unknown user id " + userId);
+                return rs.getDouble("balance");
+            }
+        }
+    }
+
+    public void adjustBalance(Connection conn, int userId, double delta) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ADJUST_BALANCE)) {
+            ps.setDouble(1, delta);
+            ps.setInt(2, userId);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package app.db;
+
+import app.models.AlertRule;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// 🔔 alerts table: per-user rules; a rule is armed until triggered_at is set
+public class AlertRepository {
+
+    private static final String FIND_ARMED =
+            "SELECT alert_id, user_id, symbol, kind, threshold, window_seconds FROM alerts " +
+            "WHERE user_id=? AND triggered_at IS NULL";
+    private static final String INSERT =
+            "INSERT INTO alerts (user_id, symbol, kind, threshold, window_seconds) VALUES (?, ?, ?, ?, ?)";
+    private static final String MARK_TRIGGERED =
+            "UPDATE alerts SET triggered_at=CURRENT_TIMESTAMP WHERE alert_id=? AND triggered_at IS NULL";
+    private static final String DELETE = "DELETE FROM alerts WHERE alert_id=? AND user_id=?";
+
+    public List<AlertRule> findArmed(Connection conn, int userId) throws SQLException {
+        List<AlertRule> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(FIND_ARMED)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new AlertRule(rs.getInt("alert_id"), rs.getInt("user_id"), rs.getString("symbol"),
+                            AlertRule.Kind.valueOf(rs.getString("kind")), rs.getDouble("threshold"),
+                            rs.getInt("window_seconds")));
+                }
+            }
+        }
+        return list;
+    }
+
+    // ✅ Returns the rule with its generated id
+    public AlertRule insert(Connection conn, AlertRule rule) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, rule.getUserId());
+            ps.setString(2, rule.getSymbol());
+            ps.setString(3, rule.getKind().name());
+            ps.setDouble(4, rule.getThreshold());
+            ps.setInt(5, rule.getWindowSeconds());
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) throw new SQLException("No id generated for alert");
+                return rule.withId(keys.getInt(1));
+            }
+        }
+    }
+
+    // False when the rule was already triggered (another session got there first)
+    public boolean markTriggered(Connection conn, int alertId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(MARK_TRIGGERED)) {
+            ps.setInt(1, alertId);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    public void delete(Connection conn, int userId, int alertId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DELETE)) {
+            ps.setInt(1, alertId);
+            ps.setInt(2, userId);
+            ps.executeUpdate();
+        }
+    }
+}
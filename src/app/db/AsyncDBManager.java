@@ -0,0 +1,124 @@
+package app.db;
+
+import app.models.*;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// ⚡ CompletableFuture facade over DBManager.
+// Every call runs on its own virtual thread; the connection pool bounds how many hit MySQL at once.
+// UI callers marshal results back with thenAcceptAsync(..., Platform::runLater).
+public class AsyncDBManager {
+
+    @FunctionalInterface
+    public interface SqlTask<T> {
+        T run(DBManager db) throws SQLException;
+    }
+
+    private final DBManager db;
+    private final ExecutorService executor;
+
+    AsyncDBManager(DBManager db) {
+        this(db, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-", 0).factory()));
+    }
+
+    AsyncDBManager(DBManager db, ExecutorService executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    // ✅ Run any DBManager call off the caller's thread; SQLExceptions complete the future exceptionally
+    public <T> CompletableFuture<T> submit(SqlTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.run(db);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<List<PortfolioItem>> loadPortfolio(int userId) {
+        return submit(d -> d.loadPortfolio(userId));
+    }
+
+    public CompletableFuture<List<Transaction>> loadTransactions(int userId) {
+        return submit(d -> d.loadTransactions(userId));
+    }
+
+    public CompletableFuture<List<Transaction>> loadTransactionsPage(int userId, Timestamp beforeCreatedAt,
+                                                                     int beforeId, int limit) {
+        return submit(d -> d.loadTransactionsPage(userId, beforeCreatedAt, beforeId, limit));
+    }
+
+    public CompletableFuture<List<String>> loadWatchlist(int userId) {
+        return submit(d -> d.loadWatchlist(userId));
+    }
+
+    public CompletableFuture<List<WatchlistItem>> loadWatchlistItems(int userId) {
+        return submit(d -> d.loadWatchlistItems(userId));
+    }
+
+    public CompletableFuture<Void> addToWatchlist(int userId, String symbol, String companyName) {
+        return submit(d -> {
+            d.addToWatchlist(userId, symbol, companyName);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> removeFromWatchlist(int userId, String symbol) {
+        return submit(d -> {
+            d.removeFromWatchlist(userId, symbol);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<AlertRule>> loadAlerts(int userId) {
+        return submit(d -> d.loadAlerts(userId));
+    }
+
+    public CompletableFuture<AlertRule> addAlert(AlertRule rule) {
+        return submit(d -> d.addAlert(rule));
+    }
+
+    public CompletableFuture<Boolean> markAlertTriggered(int alertId) {
+        return submit(d -> d.markAlertTriggered(alertId));
+    }
+
+    public CompletableFuture<Double> getBalance(int userId) {
+        return submit(d -> d.getBalance(userId));
+    }
+
+    public CompletableFuture<Double> deposit(int userId, double amount) {
+        return submit(d -> d.deposit(userId, amount));
+    }
+
+    public CompletableFuture<TradeResult> executeTrade(int userId, String symbol, String companyName,
+                                                       String side, int qty, double price) {
+        return submit(d -> d.executeTrade(userId, symbol, companyName, side, qty, price));
+    }
+
+    public CompletableFuture<Optional<Integer>> login(String username, String password) {
+        return submit(d -> d.login(username, password));
+    }
+
+    public CompletableFuture<Boolean> signup(String username, String password) {
+        return submit(d -> d.signup(username, password));
+    }
+
+    // 🧩 Unwrap CompletionException so UI messages show the real cause
+    public static Throwable rootCause(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+        return t;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
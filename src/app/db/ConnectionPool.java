@@ -0,0 +1,512 @@
+package app.db;
+
+import app.metrics.LatencyHistogram;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// 🏊 Bounded JDBC connection pool.
+// Callers keep using try-with-resources: close() on a borrowed connection hands it back
+// to the pool instead of tearing down the socket. Likewise prepareStatement(sql) is served from
+// a per-connection LRU cache, and close() on the statement returns it to that cache.
+public class ConnectionPool implements DataSource {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int maxSize;
+    private final int minIdle;
+    private final long acquireTimeoutMs;
+    private final long validateAfterIdleMs;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+    private volatile boolean leakTrace;      // capture the borrower's stack; off by default, it costs a stack walk per borrow
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // 📊 Pool metrics
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong acquireNanos = new AtomicLong();
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    private int loginTimeout;
+    private PrintWriter logWriter;
+
+    public ConnectionPool(String url, String user, String password) {
+        this(url, user, password, 8, 2, 5_000, 30_000, 600_000, 10_000);
+    }
+
+    public ConnectionPool(String url, String user, String password,
+                          int maxSize, int minIdle, long acquireTimeoutMs,
+                          long validateAfterIdleMs, long idleTimeoutMs, long leakThresholdMs) {
+        this(url, user, password, maxSize, minIdle, acquireTimeoutMs, validateAfterIdleMs, idleTimeoutMs,
+                leakThresholdMs, 64);
+    }
+
+    public ConnectionPool(String url, String user, String password,
+                          int maxSize, int minIdle, long acquireTimeoutMs,
+                          long validateAfterIdleMs, long idleTimeoutMs, long leakThresholdMs,
+                          int statementCacheSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, Math.min(leakThresholdMs, validateAfterIdleMs) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // ✅ Open minIdle connections up front so the first query doesn't pay the handshake
+    public void warmUp() throws SQLException {
+        while (idle.size() < minIdle && !closed) {
+            idle.offerLast(openPhysical());
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeoutMs + "ms waiting for a connection (" + stats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledConnection pc = takeValidIdle();
+            if (pc == null) pc = openPhysical();
+            borrowed.incrementAndGet();
+            long waited = System.nanoTime() - start;
+            acquireNanos.addAndGet(waited);
+            acquireLatency.record(waited);
+            return lease(pc);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool is bound to a single set of credentials");
+    }
+
+    // 🔍 Most recently used first; anything idle for a while is checked before it is handed out
+    private PooledConnection takeValidIdle() {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            long idleFor = System.currentTimeMillis() - pc.lastReturned;
+            if (idleFor < validateAfterIdleMs || isAlive(pc)) return pc;
+            reconnects.incrementAndGet();
+            System.out.println("⚠️ Dropping stale pooled connection (idle " + idleFor + "ms)");
+            destroy(pc);
+        }
+        return null;
+    }
+
+    private boolean isAlive(PooledConnection pc) {
+        try {
+            return !pc.physical.isClosed() && pc.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection c = DriverManager.getConnection(url, user, password);
+        created.incrementAndGet();
+        return new PooledConnection(c);
+    }
+
+    private void destroy(PooledConnection pc) {
+        destroyed.incrementAndGet();
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private Connection lease(PooledConnection pc) {
+        Lease lease = new Lease(pc);
+        leases.add(lease);
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, lease);
+    }
+
+    // 🗃️ prepareStatement(String[, int...]) is cached; column-index/name variants go straight through
+    private boolean isCacheablePrepare(Method method) {
+        if (statementCacheSize == 0 || !method.getName().equals("prepareStatement")) return false;
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 1; i < types.length; i++) {
+            if (types[i] != int.class) return false;
+        }
+        return true;
+    }
+
+    private Object prepareCached(Lease lease, Connection owner, Method method, Object[] args)
+            throws ReflectiveOperationException, SQLException {
+        PooledConnection pc = lease.pc;
+        String key = args.length == 1 ? (String) args[0]
+                : args[0] + "\0" + Arrays.toString(Arrays.copyOfRange(args, 1, args.length));
+        CachedStatement cs;
+        synchronized (pc.statementCache) {
+            cs = pc.statementCache.get(key);
+            if (cs != null && cs.inUse) {
+                // Same SQL already open on this lease (e.g. nested loop): hand out a plain statement
+                return lease.track(method.invoke(pc.physical, args));
+            }
+            if (cs == null) {
+                statementMisses.incrementAndGet();
+                cs = new CachedStatement(pc, key, (PreparedStatement) method.invoke(pc.physical, args));
+                pc.statementCache.put(key, cs);
+                evictOverflow(pc);
+            } else {
+                statementHits.incrementAndGet();
+            }
+            cs.inUse = true;
+        }
+        return lease.track(Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, new Checkout(cs, owner)));
+    }
+
+    // Least recently used first; statements currently checked out are skipped
+    private void evictOverflow(PooledConnection pc) {
+        Iterator<CachedStatement> it = pc.statementCache.values().iterator();
+        while (pc.statementCache.size() > statementCacheSize && it.hasNext()) {
+            CachedStatement cs = it.next();
+            if (!cs.inUse) {
+                it.remove();
+                cs.closePhysical();
+            }
+        }
+    }
+
+    // ♻️ Called when a borrower closes its proxy
+    private void release(Lease lease) {
+        leases.remove(lease);
+        PooledConnection pc = lease.pc;
+        boolean reusable = !closed && !lease.broken;
+        try {
+            lease.closeStatements();
+            if (reusable && !pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            if (reusable && pc.physical.isReadOnly()) pc.physical.setReadOnly(false);
+            if (reusable && pc.physical.getTransactionIsolation() != pc.defaultIsolation) {
+                pc.physical.setTransactionIsolation(pc.defaultIsolation);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pc.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(pc);
+        } else {
+            destroy(pc);
+        }
+        permits.release();
+    }
+
+    // 🧹 Leak detection + evicting idle connections beyond minIdle
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        for (Lease l : leases) {
+            if (!l.reported && now - l.borrowedAt > leakThresholdMs) {
+                l.reported = true;
+                leaksDetected.incrementAndGet();
+                if (l.borrowSite != null) {
+                    System.err.println("⚠️ Possible connection leak: held for " + (now - l.borrowedAt)
+                            + "ms by " + l.owner + ", borrowed at:");
+                    l.borrowSite.printStackTrace();
+                } else {
+                    System.err.println("⚠️ Possible connection leak: held for " + (now - l.borrowedAt)
+                            + "ms by " + l.owner + " (set stockup.db.leakTrace=true to see where)");
+                }
+            }
+        }
+
+        int excess = idle.size() - minIdle;
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (excess > 0 && it.hasNext()) {
+            PooledConnection pc = it.next();
+            if (now - pc.lastReturned > idleTimeoutMs && idle.removeLastOccurrence(pc)) {
+                destroy(pc);
+                excess--;
+            }
+        }
+    }
+
+    // 📊 Metrics
+    public int getMaxSize() { return maxSize; }
+    public int getActiveCount() { return leases.size(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getWaitingCount() { return permits.getQueueLength(); }
+    public long getCreatedCount() { return created.get(); }
+    public long getDestroyedCount() { return destroyed.get(); }
+    public long getBorrowCount() { return borrowed.get(); }
+    public long getReconnectCount() { return reconnects.get(); }
+    public long getTimeoutCount() { return timeouts.get(); }
+    public long getLeakCount() { return leaksDetected.get(); }
+
+    // 🔍 Leak reports name the thread and hold time; with this on they also show where it was borrowed
+    public void setLeakTrace(boolean leakTrace) { this.leakTrace = leakTrace; }
+
+    public LatencyHistogram getAcquireLatency() { return acquireLatency; }
+    public long getStatementCacheHits() { return statementHits.get(); }
+    public long getStatementCacheMisses() { return statementMisses.get(); }
+
+    public double getAvgAcquireMillis() {
+        long n = borrowed.get();
+        return n == 0 ? 0 : acquireNanos.get() / 1e6 / n;
+    }
+
+    public String stats() {
+        return String.format("active=%d idle=%d waiting=%d max=%d created=%d destroyed=%d borrows=%d reconnects=%d timeouts=%d leaks=%d avgAcquire=%.3fms stmtHits=%d stmtMisses=%d",
+                getActiveCount(), getIdleCount(), getWaitingCount(), maxSize, getCreatedCount(), getDestroyedCount(),
+                getBorrowCount(), getReconnectCount(), getTimeoutCount(), getLeakCount(), getAvgAcquireMillis(),
+                getStatementCacheHits(), getStatementCacheMisses());
+    }
+
+    // 🔒 Close idle connections; in-flight ones are closed when their borrowers return them
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) destroy(pc);
+    }
+
+    // 🧩 DataSource plumbing
+    @Override public PrintWriter getLogWriter() { return logWriter; }
+    @Override public void setLogWriter(PrintWriter out) { this.logWriter = out; }
+    @Override public void setLoginTimeout(int seconds) { this.loginTimeout = seconds; }
+    @Override public int getLoginTimeout() { return loginTimeout; }
+    @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return (T) this;
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    private static final class PooledConnection {
+        final Connection physical;
+        final int defaultIsolation;
+        final LinkedHashMap<String, CachedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true);
+        volatile long lastReturned = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+    }
+
+    // 🎫 One borrow of a physical connection; the proxy handed to callers dispatches here
+    private final class Lease implements InvocationHandler {
+        final PooledConnection pc;
+        final long borrowedAt = System.currentTimeMillis();
+        final String owner = Thread.currentThread().getName();
+        final Exception borrowSite = leakTrace ? new Exception("connection borrowed here") : null;
+        final List<Statement> statements = new ArrayList<>();
+        volatile boolean reported;
+        boolean broken;
+        boolean returned;
+
+        Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            release(this);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) throw new SQLException("Connection has been returned to the pool");
+
+            try {
+                if (isCacheablePrepare(method)) return prepareCached(this, (Connection) proxy, method, args);
+                return track(method.invoke(pc.physical, args));
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLNonTransientConnectionException
+                        || cause instanceof SQLRecoverableException) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        Object track(Object result) {
+            if (result instanceof Statement) {
+                synchronized (this) {
+                    statements.add((Statement) result);
+                }
+            }
+            return result;
+        }
+
+        // 🧹 Statements left open by the borrower (and their ResultSets) are closed on return;
+        // cached ones go back to the statement cache
+        synchronized void closeStatements() {
+            for (Statement st : statements) {
+                try {
+                    st.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            statements.clear();
+        }
+    }
+
+    // 🗃️ A physical PreparedStatement kept open on its connection between borrows
+    private static final class CachedStatement {
+        final PooledConnection pc;
+        final String key;
+        final PreparedStatement physical;
+        boolean inUse;
+
+        CachedStatement(PooledConnection pc, String key, PreparedStatement physical) {
+            this.pc = pc;
+            this.key = key;
+            this.physical = physical;
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    // 🎟️ One use of a cached statement; close() resets it and returns it to the cache
+    private static final class Checkout implements InvocationHandler {
+        final CachedStatement cs;
+        final Connection owner;
+        final List<ResultSet> results = new ArrayList<>();
+        boolean closed;
+
+        Checkout(CachedStatement cs, Connection owner) {
+            this.cs = cs;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return closed || cs.physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cs.key + "]";
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Statement is closed");
+            try {
+                Object result = method.invoke(cs.physical, args);
+                if (result instanceof ResultSet) results.add((ResultSet) result);
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private synchronized void giveBack() {
+            if (closed) return;
+            closed = true;
+            boolean reusable = true;
+            try {
+                for (ResultSet rs : results) rs.close();
+                cs.physical.clearParameters();
+                cs.physical.clearBatch();
+                cs.physical.clearWarnings();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+            results.clear();
+            synchronized (cs.pc.statementCache) {
+                cs.inUse = false;
+                if (!reusable) {
+                    cs.pc.statementCache.remove(cs.key, cs);
+                    cs.closePhysical();
+                }
+            }
+        }
+    }
+}
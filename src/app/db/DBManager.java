@@ -1,91 +1,216 @@
 package app.db;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
 import app.models.*;
 
 public class DBManager {
 
     private static DBManager instance;
-    private Connection conn;
+    private volatile ConnectionPool pool;
+    private volatile CompletableFuture<Void> connecting = CompletableFuture.completedFuture(null);
+    private AsyncDBManager async;
+    private final MetricsRegistry metrics = MetricsRegistry.shared();
+    private final AccountRepository accounts = new AccountRepository();
+    private final PortfolioRepository portfolio = new PortfolioRepository();
+    private final TransactionRepository transactions = new TransactionRepository();
+    private final WatchlistRepository watchlist = new WatchlistRepository();
+    private final JournalCheckpointRepository journalCheckpoints = new JournalCheckpointRepository();
+    private final AlertRepository alerts = new AlertRepository();
+    private final StockRepository stocks = new StockRepository();
 
-    private final String host;
-    private final int port;
+    // 🗃️ Read caches: balances (written through by trades and deposits, versioned under the user's row
+    // lock so late puts can't overwrite newer ones) and stocks metadata (company names)
+    //   stockup.cache=false              kill switch (every read goes to the database)
+    //   stockup.cache.balance.max        users kept (default 10000)
+    //   stockup.cache.balance.ttlMs      re-read after this long, e.g. for changes made elsewhere (default 10000)
+    //   stockup.cache.stocks.max         symbols kept (default 1000)
+    //   stockup.cache.stocks.ttlMs       the app never writes stocks; default 600000
+    private final ReadThroughCache<Integer, Double> balances = new ReadThroughCache<>(
+            Integer.getInteger("stockup.cache.balance.max", 10_000),
+            Long.getLong("stockup.cache.balance.ttlMs", 10_000),
+            !"false".equalsIgnoreCase(System.getProperty("stockup.cache", "true")));
+    private final ReadThroughCache<String, Optional<String>> stockNames = new ReadThroughCache<>(
+            Integer.getInteger("stockup.cache.stocks.max", 1_000),
+            Long.getLong("stockup.cache.stocks.ttlMs", 600_000),
+            !"false".equalsIgnoreCase(System.getProperty("stockup.cache", "true")));
+
+    private final String url;
     private final String database;
     private final String user;
     private final String password;
 
-    private DBManager(String host, int port, String database, String user, String password) {
-        this.host = host;
-        this.port = port;
+    private DBManager(String url, String database, String user, String password) {
+        this.url = url;
         this.database = database;
         this.user = user;
         this.password = password;
     }
 
     // ✅ Singleton pattern
-    public static DBManager getInstance(String host, int port, String database, String user, String password) {
+    public static synchronized DBManager getInstance(String host, int port, String database, String user, String password) {
         if (instance == null) {
-            instance = new DBManager(host, port, database, user, password);
+            instance = new DBManager(mysqlUrl(host, port, database), database, user, password);
             instance.connect();
         }
         return instance;
     }
 
+    // ⚡ Fast startup: the singleton exists at once; loading the JDBC driver and warming the pool run on a
+    // background thread, and the first caller that needs a connection waits for them
+    public static synchronized DBManager connectInBackground(String host, int port, String database, String user, String password) {
+        if (instance == null) {
+            DBManager db = new DBManager(mysqlUrl(host, port, database), database, user, password);
+            Thread t = new Thread(db::connect, "db-connect");
+            t.setDaemon(true);
+            db.connecting = new CompletableFuture<>();
+            instance = db;
+            t.start();
+        }
+        return instance;
+    }
+
+    // -Dstockup.db.url=jdbc:... replaces the MySQL URL (e.g. an H2 file in MySQL mode for probe runs)
+    private static String mysqlUrl(String host, int port, String database) {
+        String override = System.getProperty("stockup.db.url");
+        if (override != null && !override.isBlank()) return override;
+        return String.format(
+                "jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&tcpKeepAlive=true&useServerPrepStmts=true&rewriteBatchedStatements=true",
+                host, port, database
+        );
+    }
+
     public static DBManager getInstance() {
         if (instance == null) throw new IllegalStateException("DBManager not initialized!");
         return instance;
     }
 
-    // ✅ MySQL Connection (auto reconnect)
-    private Connection connect() {
+    // 🧪 Standalone instance for any JDBC URL (benchmarks, load tests, embedded H2) — not the app singleton
+    public static DBManager forUrl(String url, String user, String password) {
+        DBManager db = new DBManager(url, url, user, password);
+        db.connect();
+        return db;
+    }
+
+    // ✅ Connection pool (replaces the single shared connection)
+    //   stockup.db.pool.max        connections (default 8)
+    //   stockup.db.pool.timeoutMs  how long a borrower waits for one (default 5000)
+    //   stockup.db.leakTrace       record each borrower's stack for leak reports (default false)
+    private void connect() {
         try {
-            if (conn == null || conn.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                String url = String.format(
-                	    "jdbc:mysql://%s:%d/%s?useSSL=false&allowPublicKeyRetrieval=true&autoReconnect=true&tcpKeepAlive=true",
-                	    host, port, database
-                	);
-                conn = DriverManager.getConnection(url, user, password);
-                System.out.println("✅ Connected to MySQL: " + database);
-                System.out.println("✅ Connected (new connection opened): " + new java.util.Date());
-            }
+            if (url.startsWith("jdbc:mysql:")) Class.forName("com.mysql.cj.jdbc.Driver");
+            pool = new ConnectionPool(url, user, password,
+                    Integer.getInteger("stockup.db.pool.max", 8), 2,
+                    Long.getLong("stockup.db.pool.timeoutMs", 5_000), 30_000, 600_000, 10_000);
+            pool.setLeakTrace(Boolean.getBoolean("stockup.db.leakTrace"));
+            pool.warmUp();
+            registerPoolMetrics();
+            registerCacheMetrics();
+            System.out.println("✅ Connected to " + database + " (pool: " + pool.stats() + ")");
         } catch (Exception e) {
             System.err.println("❌ Database connection failed!");
             e.printStackTrace();
+        } finally {
+            connecting.complete(null);
         }
-        return conn;
     }
 
-    public synchronized Connection getConnection() {
-        try {
-            // Check if connection exists and is open
-            if (conn == null || conn.isClosed() || !conn.isValid(2)) {
-                System.out.println("⚠️ Reconnecting to MySQL...");
-                connect();  // Force reconnect
-            }
-        } catch (SQLException e) {
-            System.err.println("⚠️ Connection invalid, attempting reconnect...");
-            connect();
-        }
+    // ✅ Completes once the pool is up (or the attempt failed); already complete unless connecting in the background
+    public CompletableFuture<Void> whenConnected() {
+        return connecting;
+    }
 
-        // Ensure we never return null
-        if (conn == null) {
-            connect();
-        }
+    // False until the pool is up, and for good when connecting failed
+    public boolean isConnected() {
+        return pool != null;
+    }
+
+    // ✅ Borrow a pooled connection — close() returns it to the pool
+    public Connection getConnection() throws SQLException {
+        if (pool == null) connecting.join();
+        if (pool == null) throw new SQLException("Database pool not initialized");
+        return pool.getConnection();
+    }
+
+    // 📊 Pool health in the shared registry: acquire latency, reconnects, timeouts, leaks, occupancy
+    private void registerPoolMetrics() {
+        metrics.register("db.pool.acquire", pool.getAcquireLatency());
+        metrics.registerCounter("db.pool.reconnects", pool::getReconnectCount);
+        metrics.registerCounter("db.pool.timeouts", pool::getTimeoutCount);
+        metrics.registerCounter("db.pool.leaks", pool::getLeakCount);
+        metrics.registerGauge("db.pool.active", pool::getActiveCount);
+        metrics.registerGauge("db.pool.idle", pool::getIdleCount);
+        metrics.registerGauge("db.pool.waiting", pool::getWaitingCount);
+        metrics.registerCounter("db.stmtcache.hits", pool::getStatementCacheHits);
+        metrics.registerCounter("db.stmtcache.misses", pool::getStatementCacheMisses);
+    }
+
+    private void registerCacheMetrics() {
+        metrics.registerCounter("cache.balance.hits", balances::getHits);
+        metrics.registerCounter("cache.balance.misses", balances::getMisses);
+        metrics.registerCounter("cache.balance.evictions", balances::getEvictions);
+        metrics.registerGauge("cache.balance.size", balances::size);
+        metrics.registerCounter("cache.stocks.hits", stockNames::getHits);
+        metrics.registerCounter("cache.stocks.misses", stockNames::getMisses);
+        metrics.registerGauge("cache.stocks.size", stockNames::size);
+    }
+
+    // 🔌 Runtime kill switch for the read caches
+    public void setCachingEnabled(boolean enabled) {
+        balances.setEnabled(enabled);
+        stockNames.setEnabled(enabled);
+    }
+
+    // 🧹 For writers that change users.balance outside executeTrade/deposit (the journal's batched flush)
+    public void invalidateBalance(int userId) {
+        balances.invalidate(userId);
+    }
 
-        return conn;
+    public DataSource getDataSource() {
+        return pool;
     }
 
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+
+    // 🗄️ Repositories — every SQL statement lives in one of these
+    public AccountRepository accounts() {
+        return accounts;
+    }
+
+    public PortfolioRepository portfolio() {
+        return portfolio;
+    }
+
+    public TransactionRepository transactions() {
+        return transactions;
+    }
+
+    public WatchlistRepository watchlist() {
+        return watchlist;
+    }
+
+    public JournalCheckpointRepository journalCheckpoints() {
+        return journalCheckpoints;
+    }
+
+    public AlertRepository alerts() {
+        return alerts;
+    }
 
     // 🔑 LOGIN
     public Optional<Integer> login(String username, String password) {
-        String sql = "SELECT id FROM users WHERE username=? AND password=?";
-        try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-            ps.setString(1, username);
-            ps.setString(2, password);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) return Optional.of(rs.getInt("id"));
+        try (LatencyHistogram.Timer t = metrics.time("sql.login");
+             Connection conn = getConnection()) {
+            return accounts.findIdByCredentials(conn, username, password);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -94,20 +219,16 @@ public class DBManager {
 
     // 🧾 SIGNUP
     public boolean signup(String username, String password) {
-        String check = "SELECT id FROM users WHERE username=?";
-        String insert = "INSERT INTO users (username, password) VALUES (?, ?)";
-        try (PreparedStatement psCheck = getConnection().prepareStatement(check)) {
-            psCheck.setString(1, username);
-            ResultSet rs = psCheck.executeQuery();
-            if (rs.next()) return false; // username exists
+        try (LatencyHistogram.Timer t = metrics.time("sql.signup.check");
+             Connection conn = getConnection()) {
+            if (accounts.usernameExists(conn, username)) return false; // username exists
         } catch (SQLException e) {
             e.printStackTrace();
         }
 
-        try (PreparedStatement ps = getConnection().prepareStatement(insert)) {
-            ps.setString(1, username);
-            ps.setString(2, password);
-            ps.executeUpdate();
+        try (LatencyHistogram.Timer t = metrics.time("sql.signup.insert");
+             Connection conn = getConnection()) {
+            accounts.create(conn, username, password);
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -117,73 +238,51 @@ public class DBManager {
 
     // 💼 LOAD PORTFOLIO
     public List<PortfolioItem> loadPortfolio(int userId) {
-        List<PortfolioItem> list = new ArrayList<>();
-        String sql = "SELECT symbol, company_name, quantity, avg_price FROM portfolio WHERE user_id=?";
-        try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String symbol = rs.getString("symbol");
-                String company = rs.getString("company_name");
-                int qty = rs.getInt("quantity");
-                double avgPrice = rs.getDouble("avg_price");
-
-                double randomFactor = (Math.random() * 0.1) - 0.05;
-                double currentValue = avgPrice * qty * (1 + randomFactor);
-
-                list.add(new PortfolioItem(symbol, company, qty, avgPrice, currentValue));
-            }
+        try (LatencyHistogram.Timer t = metrics.time("sql.loadPortfolio");
+             Connection conn = getConnection()) {
+            return portfolio.findByUser(conn, userId);
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return list;
+        return new ArrayList<>();
     }
 
     // 💳 LOAD TRANSACTIONS
     public List<Transaction> loadTransactions(int userId) {
-        List<Transaction> list = new ArrayList<>();
-        String sql = "SELECT symbol, type, quantity, price, created_at AS date FROM transactions WHERE user_id=? ORDER BY created_at DESC";
-        try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                list.add(new Transaction(
-                        rs.getString("symbol"),
-                        rs.getString("type"),
-                        rs.getInt("quantity"),
-                        rs.getDouble("price"),
-                        rs.getString("date")
-                ));
-            }
+        try (LatencyHistogram.Timer t = metrics.time("sql.loadTransactions");
+             Connection conn = getConnection()) {
+            return transactions.findByUser(conn, userId);
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return list;
+        return new ArrayList<>();
+    }
+
+    // 📄 LOAD TRANSACTIONS PAGE — keyset pagination, newest first.
+    // Pass null/0 for the first page, then the createdAt/transactionId of the last row received.
+    public List<Transaction> loadTransactionsPage(int userId, Timestamp beforeCreatedAt, int beforeId, int limit) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.loadTransactionsPage");
+             Connection conn = getConnection()) {
+            return transactions.findPage(conn, userId, beforeCreatedAt, beforeId, limit);
+        }
     }
 
     // 👀 LOAD WATCHLIST
     public List<String> loadWatchlist(int userId) {
-        List<String> list = new ArrayList<>();
-        String sql = "SELECT symbol FROM watchlist WHERE user_id=? ORDER BY symbol ASC";
-        try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                list.add(rs.getString("symbol"));
-            }
+        try (LatencyHistogram.Timer t = metrics.time("sql.loadWatchlist");
+             Connection conn = getConnection()) {
+            return watchlist.findSymbols(conn, userId);
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return list;
+        return new ArrayList<>();
     }
 
     // ➕ ADD TO WATCHLIST
     public boolean addToWatchlist(int userId, String symbol) {
-        String sql = "INSERT INTO watchlist (user_id, symbol) VALUES (?, ?)";
-        try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, symbol.toUpperCase());
-            ps.executeUpdate();
+        try (LatencyHistogram.Timer t = metrics.time("sql.addToWatchlist");
+             Connection conn = getConnection()) {
+            watchlist.insert(conn, userId, symbol.toUpperCase());
             return true;
         } catch (SQLException e) {
             if (!e.getMessage().contains("Duplicate entry")) e.printStackTrace();
@@ -191,15 +290,190 @@ public class DBManager {
         return false;
     }
 
+    // 👀 LOAD WATCHLIST (with company names, for the dashboard table)
+    public List<WatchlistItem> loadWatchlistItems(int userId) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.loadWatchlistItems");
+             Connection conn = getConnection()) {
+            return watchlist.findItems(conn, userId);
+        }
+    }
+
+    // ➕ ADD TO WATCHLIST (ignores duplicates)
+    public void addToWatchlist(int userId, String symbol, String companyName) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.addToWatchlist");
+             Connection conn = getConnection()) {
+            watchlist.insertIgnoringDuplicate(conn, userId, symbol, companyName);
+        }
+    }
+
+    // ➖ REMOVE FROM WATCHLIST
+    public void removeFromWatchlist(int userId, String symbol) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.removeFromWatchlist");
+             Connection conn = getConnection()) {
+            watchlist.delete(conn, userId, symbol);
+        }
+    }
+
+    // 🔔 ALERTS — armed rules only; triggered ones stay in the table as history
+    public List<AlertRule> loadAlerts(int userId) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.loadAlerts");
+             Connection conn = getConnection()) {
+            return alerts.findArmed(conn, userId);
+        }
+    }
+
+    public AlertRule addAlert(AlertRule rule) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.addAlert");
+             Connection conn = getConnection()) {
+            return alerts.insert(conn, rule);
+        }
+    }
+
+    public boolean markAlertTriggered(int alertId) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.markAlertTriggered");
+             Connection conn = getConnection()) {
+            return alerts.markTriggered(conn, alertId);
+        }
+    }
+
+    public void deleteAlert(int userId, int alertId) throws SQLException {
+        try (LatencyHistogram.Timer t = metrics.time("sql.deleteAlert");
+             Connection conn = getConnection()) {
+            alerts.delete(conn, userId, alertId);
+        }
+    }
+
+    // 🏦 BALANCE
+    public double getBalance(int userId) throws SQLException {
+        return balances.get(userId, id -> {
+            try (LatencyHistogram.Timer t = metrics.time("sql.getBalance");
+                 Connection conn = getConnection()) {
+                return accounts.getBalance(conn, id);
+            }
+        });
+    }
+
+    // 💰 DEPOSIT — relative update, returns the new balance
+    public double deposit(int userId, double amount) throws SQLException {
+        if (amount <= 0) throw new IllegalArgumentException("Amount must be positive");
+        try (LatencyHistogram.Timer t = metrics.time("sql.deposit");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                accounts.adjustBalance(conn, userId, amount);           // the UPDATE holds the row lock
+                long version = balances.nextVersion();
+                double balance = accounts.getBalance(conn, userId);
+                conn.commit();
+                balances.putIfNewer(userId, balance, version);
+                return balance;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                balances.invalidate(userId);     // the commit may or may not have happened
+                throw e;
+            }
+        }
+    }
+
+    // 💸 EXECUTE TRADE — balance check, position update, balance update and
+    // transaction record in one JDBC transaction. The user row is locked first
+    // (SELECT ... FOR UPDATE) so concurrent trades for the same user serialize
+    // instead of overwriting each other's balance.
+    public TradeResult executeTrade(int userId, String symbol, String side, int qty, double price) throws SQLException {
+        return executeTrade(userId, symbol, symbol, side, qty, price);
+    }
+
+    public TradeResult executeTrade(int userId, String symbol, String companyName, String side,
+                                    int qty, double price) throws SQLException {
+        if (qty <= 0) throw new IllegalArgumentException("Quantity must be positive");
+        String type = side.toUpperCase();
+        boolean buy = type.equals("BUY");
+        if (!buy && !type.equals("SELL")) throw new IllegalArgumentException("Unknown side: " + side);
+        double amount = price * qty;
+
+        try (LatencyHistogram.Timer t = metrics.time("sql.executeTrade");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                double balance = accounts.lockBalance(conn, userId);
+                long version = balances.nextVersion();                  // ordered by the row lock
+                PortfolioItem position = portfolio.findForUpdate(conn, userId, symbol);
+                int oldQty = position == null ? 0 : position.getQuantity();
+                double oldAvg = position == null ? 0 : position.getAvgPrice();
+
+                // ❌ Rejections leave nothing behind
+                if (buy && balance < amount) {
+                    conn.rollback();
+                    balances.putIfNewer(userId, balance, version);
+                    metrics.counter("trades.rejected").increment();
+                    return new TradeResult(TradeResult.Status.INSUFFICIENT_FUNDS, symbol, type, qty, price, oldQty, oldAvg, balance);
+                }
+                if (!buy && oldQty < qty) {
+                    conn.rollback();
+                    balances.putIfNewer(userId, balance, version);
+                    metrics.counter("trades.rejected").increment();
+                    return new TradeResult(TradeResult.Status.INSUFFICIENT_SHARES, symbol, type, qty, price, oldQty, oldAvg, balance);
+                }
+
+                int newQty = buy ? oldQty + qty : oldQty - qty;
+                double newAvg = buy ? ((oldAvg * oldQty) + amount) / newQty : oldAvg;
+
+                if (buy && position != null) {
+                    portfolio.addToPosition(conn, userId, symbol, qty, amount);
+                } else if (buy) {
+                    portfolio.insert(conn, userId, symbol, companyName, qty, price);
+                } else if (newQty == 0) {
+                    portfolio.delete(conn, userId, symbol);
+                } else {
+                    portfolio.reducePosition(conn, userId, symbol, qty);
+                }
+
+                accounts.adjustBalance(conn, userId, buy ? -amount : amount);
+
+                // created_at is set here (to the second, like the column) so the returned row matches the stored one
+                Timestamp createdAt = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
+                Transaction record = transactions.insert(conn, userId, symbol, type, qty, price, createdAt);
+
+                conn.commit();
+                double newBalance = buy ? balance - amount : balance + amount;
+                balances.putIfNewer(userId, toCents(newBalance), version);   // what DECIMAL(16,2) stored
+                metrics.counter("trades.filled").increment();
+                TradeResult result = new TradeResult(TradeResult.Status.FILLED, symbol, type, qty, price, newQty, newAvg, newBalance);
+                result.setTransaction(record);
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                balances.invalidate(userId);     // the commit may or may not have happened
+                throw e;
+            }
+        }
+    }
+
+    private static double toCents(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    // 🏷️ Company name from the stocks table, read through the cache; empty for unlisted symbols
+    public Optional<String> getStockName(String symbol) throws SQLException {
+        return stockNames.get(symbol, s -> {
+            try (LatencyHistogram.Timer t = metrics.time("sql.getStockName");
+                 Connection conn = getConnection()) {
+                return stocks.findName(conn, s);
+            }
+        });
+    }
+
+    // ⚡ Async facade — JDBC work off the JavaFX Application Thread
+    public synchronized AsyncDBManager async() {
+        if (async == null) async = new AsyncDBManager(this);
+        return async;
+    }
+
     // 🔒 Safe Close
     public void close() {
-        try {
-            if (conn != null && !conn.isClosed()) {
-                conn.close();
-                System.out.println("🔒 Database connection closed.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        if (async != null) async.shutdown();
+        if (pool != null) {
+            pool.close();
+            System.out.println("🔒 Database pool closed. " + pool.stats());
         }
     }
 }
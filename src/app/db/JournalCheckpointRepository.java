@@ -0,0 +1,47 @@
+package app.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// 📒 journal_checkpoint table: highest write-behind journal sequence already applied, per journal.
+// Advanced in the same transaction as the batch it covers, so a replay never applies a record twice.
+public class JournalCheckpointRepository {
+
+    private static final String LAST_SEQ = "SELECT last_seq FROM journal_checkpoint WHERE journal_id=?";
+    private static final String LAST_SEQ_FOR_UPDATE = "SELECT last_seq FROM journal_checkpoint WHERE journal_id=? FOR UPDATE";
+    private static final String UPDATE = "UPDATE journal_checkpoint SET last_seq=? WHERE journal_id=?";
+    private static final String INSERT = "INSERT INTO journal_checkpoint (journal_id, last_seq) VALUES (?, ?)";
+
+    // 0 when nothing from this journal has been applied yet
+    public long lastAppliedSeq(Connection conn, String journalId) throws SQLException {
+        return read(conn, LAST_SEQ, journalId);
+    }
+
+    public long lockLastAppliedSeq(Connection conn, String journalId) throws SQLException {
+        return read(conn, LAST_SEQ_FOR_UPDATE, journalId);
+    }
+
+    public void markApplied(Connection conn, String journalId, long seq) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UPDATE)) {
+            ps.setLong(1, seq);
+            ps.setString(2, journalId);
+            if (ps.executeUpdate() > 0) return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            ps.setString(1, journalId);
+            ps.setLong(2, seq);
+            ps.executeUpdate();
+        }
+    }
+
+    private static long read(Connection conn, String sql, String journalId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, journalId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong("last_seq") : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package app.db;
+
+import app.models.PortfolioItem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+// 💼 portfolio table: one row per (user, symbol) holding
+public class PortfolioRepository {
+
+    private static final String FIND_BY_USER =
+            "SELECT symbol, company_name, quantity, avg_price FROM portfolio WHERE user_id=?";
+    private static final String FIND_FOR_UPDATE =
+            "SELECT symbol, company_name, quantity, avg_price FROM portfolio WHERE user_id=? AND symbol=? FOR UPDATE";
+    private static final String INSERT =
+            "INSERT INTO portfolio (user_id, symbol, company_name, quantity, avg_price) VALUES (?, ?, ?, ?, ?)";
+    // avg_price is assigned first so it still sees the old quantity
+    private static final String ADD_TO_POSITION =
+            "UPDATE portfolio SET avg_price=(avg_price*quantity + ?)/(quantity + ?), quantity=quantity + ? WHERE user_id=? AND symbol=?";
+    private static final String REDUCE_POSITION =
+            "UPDATE portfolio SET quantity=quantity - ? WHERE user_id=? AND symbol=?";
+    private static final String DELETE =
+            "DELETE FROM portfolio WHERE user_id=? AND symbol=?";
+    private static final String SET_POSITION =
+            "UPDATE portfolio SET quantity=?, avg_price=? WHERE user_id=? AND symbol=?";
+
+    public List<PortfolioItem> findByUser(Connection conn, int userId) throws SQLException {
+        List<PortfolioItem> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(FIND_BY_USER)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String symbol = rs.getString("symbol");
+                    String company = rs.getString("company_name");
+                    int qty = rs.getInt("quantity");
+                    double avgPrice = rs.getDouble("avg_price");
+
+                    // Valued at cost here; the PositionBook marks it to market from live prices
+                    list.add(new PortfolioItem(symbol, company, qty, avgPrice, qty * avgPrice));
+                }
+            }
+        }
+        return list;
+    }
+
+    // 🔒 The holding with its row locked, or null if the user has none
+    public PortfolioItem findForUpdate(Connection conn, int userId, String symbol) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(FIND_FOR_UPDATE)) {
+            ps.setInt(1, userId);
+            ps.setString(2, symbol);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                int qty = rs.getInt("quantity");
+                double avgPrice = rs.getDouble("avg_price");
+                return new PortfolioItem(rs.getString("symbol"), rs.getString("company_name"), qty, avgPrice, qty * avgPrice);
+            }
+        }
+    }
+
+    // 🔒 Several holdings in one round trip, keyed by symbol; symbols the user doesn't hold are absent
+    public Map<String, PortfolioItem> findForUpdate(Connection conn, int userId, Collection<String> symbols) throws SQLException {
+        Map<String, PortfolioItem> found = new HashMap<>();
+        if (symbols.isEmpty()) return found;
+        String sql = "SELECT symbol, company_name, quantity, avg_price FROM portfolio WHERE user_id=? AND symbol IN ("
+                + String.join(", ", Collections.nCopies(symbols.size(), "?")) + ") FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            ps.setInt(i++, userId);
+            for (String s : symbols) ps.setString(i++, s);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int qty = rs.getInt("quantity");
+                    double avgPrice = rs.getDouble("avg_price");
+                    String symbol = rs.getString("symbol");
+                    found.put(symbol, new PortfolioItem(symbol, rs.getString("company_name"), qty, avgPrice, qty * avgPrice));
+                }
+            }
+        }
+        return found;
+    }
+
+    public void insert(Connection conn, int userId, String symbol, String companyName, int qty, double avgPrice) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            ps.setInt(1, userId);
+            ps.setString(2, symbol);
+            ps.setString(3, companyName);
+            ps.setInt(4, qty);
+            ps.setDouble(5, avgPrice);
+            ps.executeUpdate();
+        }
+    }
+
+    // ➕ Buy into an existing holding; the weighted average is computed by the database
+    public void addToPosition(Connection conn, int userId, String symbol, int qty, double amount) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ADD_TO_POSITION)) {
+            ps.setDouble(1, amount);
+            ps.setInt(2, qty);
+            ps.setInt(3, qty);
+            ps.setInt(4, userId);
+            ps.setString(5, symbol);
+            ps.executeUpdate();
+        }
+    }
+
+    public void reducePosition(Connection conn, int userId, String symbol, int qty) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(REDUCE_POSITION)) {
+            ps.setInt(1, qty);
+            ps.setInt(2, userId);
+            ps.setString(3, symbol);
+            ps.executeUpdate();
+        }
+    }
+
+    public void delete(Connection conn, int userId, String symbol) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DELETE)) {
+            ps.setInt(1, userId);
+            ps.setString(2, symbol);
+            ps.executeUpdate();
+        }
+    }
+
+    // 📦 Batched writes for the write-behind journal: absolute quantity/avg_price per holding
+
+    public void insertBatch(Connection conn, int userId, List<PortfolioItem> items) throws SQLException {
+        if (items.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            for (PortfolioItem p : items) {
+                ps.setInt(1, userId);
+                ps.setString(2, p.getSymbol());
+                ps.setString(3, p.getCompanyName());
+                ps.setInt(4, p.getQuantity());
+                ps.setDouble(5, p.getAvgPrice());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    public void updateBatch(Connection conn, int userId, List<PortfolioItem> items) throws SQLException {
+        if (items.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(SET_POSITION)) {
+            for (PortfolioItem p : items) {
+                ps.setInt(1, p.getQuantity());
+                ps.setDouble(2, p.getAvgPrice());
+                ps.setInt(3, userId);
+                ps.setString(4, p.getSymbol());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    public void deleteBatch(Connection conn, int userId, Collection<String> symbols) throws SQLException {
+        if (symbols.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(DELETE)) {
+            for (String s : symbols) {
+                ps.setInt(1, userId);
+                ps.setString(2, s);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package app.db;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// 🗃️ Bounded read-through cache: least-recently-used entries go once maxSize is reached, and every
+// entry expires ttl after it was stored. Writers either put the new value (write-through) or
+// invalidate; a load that overlapped a write is returned but not stored, so a slow reader can never
+// re-install a value older than the write. Disabled = every get goes to the loader.
+// Versioned writers take nextVersion() while they hold the row lock and putIfNewer() after commit, so
+// two commits whose puts arrive out of order leave the later one cached.
+public class ReadThroughCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        final long version;               // Long.MIN_VALUE for loaded values: any versioned put replaces them
+
+        Entry(V value, long expiresAt, long version) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.version = version;
+        }
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map;
+    private long writes;                 // guarded by map; bumped by every put/invalidate
+    private long versions;               // guarded by map; last version handed out
+    private long floor;                  // guarded by map; a put at or below this may be stale for an absent key
+    private volatile boolean enabled;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReadThroughCache(int maxSize, long ttlMillis, boolean enabled) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.enabled = enabled;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= ReadThroughCache.this.maxSize) return false;
+                evictions.increment();
+                floor = Math.max(floor, eldest.getValue().version);
+                return true;
+            }
+        };
+    }
+
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        if (!enabled) {
+            misses.increment();
+            return loader.load(key);
+        }
+        long seen;
+        synchronized (map) {
+            Entry<V> e = map.get(key);
+            if (e != null) {
+                if (e.expiresAt - System.nanoTime() > 0) {
+                    hits.increment();
+                    return e.value;
+                }
+                map.remove(key);
+                evictions.increment();
+                floor = Math.max(floor, e.version);
+            }
+            seen = writes;
+        }
+        misses.increment();
+        V value = loader.load(key);
+        synchronized (map) {
+            if (writes == seen && enabled) store(key, value, Long.MIN_VALUE);
+        }
+        return value;
+    }
+
+    // 🔢 Taken by a writer while it holds the lock that orders its writes; loads in flight are not stored
+    public long nextVersion() {
+        synchronized (map) {
+            writes++;
+            return ++versions;
+        }
+    }
+
+    // ✍️ Versioned write-through: stored unless a later version (or an invalidate since) already got here
+    public void putIfNewer(K key, V value, long version) {
+        synchronized (map) {
+            writes++;
+            Entry<V> e = map.get(key);
+            boolean newer = e != null ? version > e.version : version > floor;
+            if (newer && enabled) store(key, value, version);
+        }
+    }
+
+    // ✍️ Write-through: the caller has just committed this value
+    public void put(K key, V value) {
+        synchronized (map) {
+            writes++;
+            if (enabled) store(key, value, Long.MIN_VALUE);
+        }
+    }
+
+    // Also retires every version handed out so far: a versioned put still on its way may be stale
+    public void invalidate(K key) {
+        synchronized (map) {
+            writes++;
+            floor = versions;
+            map.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (map) {
+            writes++;
+            floor = versions;
+            map.clear();
+        }
+    }
+
+    // 🔌 Kill switch; turning it off (or back on) starts from empty
+    public void setEnabled(boolean enabled) {
+        synchronized (map) {
+            this.enabled = enabled;
+            writes++;
+            floor = versions;
+            map.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void store(K key, V value, long version) {
+        map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos, version));
+    }
+
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+}
@@ -0,0 +1,22 @@
+package app.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+// 🏷️ stocks table: listed symbols and their company names (read-only for the app)
+public class StockRepository {
+
+    private static final String FIND_NAME = "SELECT stock_name FROM stocks WHERE symbol=?";
+
+    public Optional<String> findName(Connection conn, String symbol) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(FIND_NAME)) {
+            ps.setString(1, symbol);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.ofNullable(rs.getString("stock_name")) : Optional.empty();
+            }
+        }
+    }
+}
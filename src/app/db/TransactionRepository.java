@@ -0,0 +1,147 @@
+package app.db;
+
+import app.models.Transaction;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// 💳 transactions table: append-only trade history
+public class TransactionRepository {
+
+    // 📤 Receives rows from forEachOldestFirst without materialising them
+    @FunctionalInterface
+    public interface RowVisitor {
+        void row(int transactionId, String symbol, String type, int quantity, double price, long createdAtMillis)
+                throws IOException;
+    }
+
+    private static final String FIND_BY_USER =
+            "SELECT symbol, type, quantity, price, created_at AS date FROM transactions WHERE user_id=? ORDER BY created_at DESC";
+    private static final String FIRST_PAGE =
+            "SELECT transaction_id, symbol, type, quantity, price, created_at FROM transactions WHERE user_id=? "
+                    + "ORDER BY created_at DESC, transaction_id DESC LIMIT ?";
+    private static final String NEXT_PAGE =
+            "SELECT transaction_id, symbol, type, quantity, price, created_at FROM transactions WHERE user_id=? "
+                    + "AND (created_at < ? OR (created_at = ? AND transaction_id < ?)) "
+                    + "ORDER BY created_at DESC, transaction_id DESC LIMIT ?";
+    private static final String INSERT =
+            "INSERT INTO transactions (user_id, symbol, type, quantity, price, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String COUNT_BY_USER = "SELECT COUNT(*) FROM transactions WHERE user_id=?";
+    private static final String ALL_OLDEST_FIRST =
+            "SELECT transaction_id, symbol, type, quantity, price, created_at FROM transactions "
+                    + "WHERE user_id=? ORDER BY created_at, transaction_id";
+
+    public List<Transaction> findByUser(Connection conn, int userId) throws SQLException {
+        List<Transaction> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(FIND_BY_USER)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Transaction(
+                            rs.getString("symbol"),
+                            rs.getString("type"),
+                            rs.getInt("quantity"),
+                            rs.getDouble("price"),
+                            rs.getString("date")
+                    ));
+                }
+            }
+        }
+        return list;
+    }
+
+    // 📄 Keyset page, newest first; beforeCreatedAt == null means the first page.
+    // Served by idx_transactions_user_created (user_id, created_at) — see SQl.txt.
+    public List<Transaction> findPage(Connection conn, int userId, Timestamp beforeCreatedAt, int beforeId, int limit) throws SQLException {
+        List<Transaction> list = new ArrayList<>(limit);
+        try (PreparedStatement ps = conn.prepareStatement(beforeCreatedAt == null ? FIRST_PAGE : NEXT_PAGE)) {
+            int i = 1;
+            ps.setInt(i++, userId);
+            if (beforeCreatedAt != null) {
+                ps.setTimestamp(i++, beforeCreatedAt);
+                ps.setTimestamp(i++, beforeCreatedAt);
+                ps.setInt(i++, beforeId);
+            }
+            ps.setInt(i, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Transaction(
+                            rs.getInt("transaction_id"),
+                            rs.getString("symbol"),
+                            rs.getString("type"),
+                            rs.getInt("quantity"),
+                            rs.getDouble("price"),
+                            rs.getTimestamp("created_at")));
+                }
+            }
+        }
+        return list;
+    }
+
+    // ✅ Returns the stored row including its generated id
+    public Transaction insert(Connection conn, int userId, String symbol, String type, int qty, double price,
+                              Timestamp createdAt) throws SQLException {
+        int transactionId = 0;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, userId);
+            ps.setString(2, symbol);
+            ps.setString(3, type);
+            ps.setInt(4, qty);
+            ps.setDouble(5, price);
+            ps.setTimestamp(6, createdAt);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) transactionId = keys.getInt(1);
+            }
+        }
+        return new Transaction(transactionId, symbol, type, qty, price, createdAt);
+    }
+
+    public long countByUser(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(COUNT_BY_USER)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // 🚿 Forward-only, read-only scan of the whole history; fetchSize decides how the driver streams it
+    public long forEachOldestFirst(Connection conn, int userId, int fetchSize, RowVisitor visitor)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(ALL_OLDEST_FIRST,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp ts = rs.getTimestamp(6);
+                    visitor.row(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getDouble(5),
+                            ts == null ? 0 : ts.getTime());
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // 📦 Batched insert for the write-behind journal; generated ids are not read back
+    public void insertBatch(Connection conn, int userId, List<Transaction> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            for (Transaction t : rows) {
+                ps.setInt(1, userId);
+                ps.setString(2, t.getSymbol());
+                ps.setString(3, t.getType());
+                ps.setInt(4, t.getQuantity());
+                ps.setDouble(5, t.getPrice());
+                ps.setTimestamp(6, t.getCreatedAt());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package app.db;
+
+import app.models.WatchlistItem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// 👀 watchlist table: (user, symbol) pairs with the company name for display
+public class WatchlistRepository {
+
+    private static final String FIND_SYMBOLS = "SELECT symbol FROM watchlist WHERE user_id=? ORDER BY symbol ASC";
+    private static final String FIND_ITEMS = "SELECT symbol, company_name FROM watchlist WHERE user_id=?";
+    private static final String INSERT = "INSERT INTO watchlist (user_id, symbol) VALUES (?, ?)";
+    private static final String INSERT_IGNORE = "INSERT IGNORE INTO watchlist (user_id, symbol, company_name) VALUES (?, ?, ?)";
+    private static final String DELETE = "DELETE FROM watchlist WHERE user_id=? AND symbol=?";
+
+    public List<String> findSymbols(Connection conn, int userId) throws SQLException {
+        List<String> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(FIND_SYMBOLS)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(rs.getString("symbol"));
+            }
+        }
+        return list;
+    }
+
+    public List<WatchlistItem> findItems(Connection conn, int userId) throws SQLException {
+        List<WatchlistItem> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(FIND_ITEMS)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new WatchlistItem(rs.getString("symbol"), rs.getString("company_name"), 0));
+                }
+            }
+        }
+        return list;
+    }
+
+    // Fails with a duplicate-key error if the symbol is already watched
+    public void insert(Connection conn, int userId, String symbol) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            ps.setInt(1, userId);
+            ps.setString(2, symbol);
+            ps.executeUpdate();
+        }
+    }
+
+    public void insertIgnoringDuplicate(Connection conn, int userId, String symbol, String companyName) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_IGNORE)) {
+            ps.setInt(1, userId);
+            ps.setString(2, symbol);
+            ps.setString(3, companyName);
+            ps.executeUpdate();
+        }
+    }
+
+    public void delete(Connection conn, int userId, String symbol) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DELETE)) {
+            ps.setInt(1, userId);
+            ps.setString(2, symbol);
+            ps.executeUpdate();
+        }
+    }
+
+    // 📦 Batched variants for the write-behind journal
+
+    public void insertIgnoringDuplicateBatch(Connection conn, int userId, List<WatchlistItem> items) throws SQLException {
+        if (items.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_IGNORE)) {
+            for (WatchlistItem w : items) {
+                ps.setInt(1, userId);
+                ps.setString(2, w.getSymbol());
+                ps.setString(3, w.getCompany());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    public void deleteBatch(Connection conn, int userId, Collection<String> symbols) throws SQLException {
+        if (symbols.isEmpty()) return;
+        try (PreparedStatement ps = conn.prepareStatement(DELETE)) {
+            for (String s : symbols) {
+                ps.setInt(1, userId);
+                ps.setString(2, s);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package app.engine;
+
+import app.db.AsyncDBManager;
+import app.db.DBManager;
+import app.market.Instrument;
+import app.market.MarketDataFeed;
+import app.market.MarketDataFeeds;
+import app.metrics.LatencyHistogram;
+import app.models.TradeResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// 🖥️ Drives the trading engine without JavaFX: a scripted order file or a random order simulator,
+// then prints throughput and latency.
+//   --headless                     (selects this mode in Main)
+//   --db-url=jdbc:...              default: the app's MySQL database
+//   --db-user=root --db-password=1234
+//   --user=NAME --password=PW      signed up on first use (default headless/headless)
+//   --script=orders.txt            one op per line: BUY TCS 10 | SELL TCS 5 | DEPOSIT 50000 |
+//                                  WATCH TCS | UNWATCH TCS | SLEEP 250 | # comment
+//   --simulate=N                   N random market orders across the feed's instruments
+//   --concurrency=C                max ops in flight (default 1 for scripts, 16 for the simulator)
+//   --seed=S                       simulator random seed
+public final class HeadlessRunner {
+
+    private final Map<String, String> options;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong filled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong otherOps = new AtomicLong();
+
+    private HeadlessRunner(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static boolean isRequested(String[] args) {
+        for (String a : args) if (a.equals("--headless")) return true;
+        return false;
+    }
+
+    // ✅ Exit code: 0 when every op completed (rejections count as completed), 1 otherwise
+    public static int run(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) options.put(a.substring(2), "true");
+            else options.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        try {
+            return new HeadlessRunner(options).execute();
+        } catch (Exception e) {
+            AsyncDBManager.rootCause(e).printStackTrace();
+            return 1;
+        }
+    }
+
+    private int execute() throws Exception {
+        DBManager db = options.containsKey("db-url")
+                ? DBManager.forUrl(options.get("db-url"), options.getOrDefault("db-user", "root"), options.getOrDefault("db-password", ""))
+                : DBManager.getInstance("localhost", 3306, "stockdb",
+                        options.getOrDefault("db-user", "root"), options.getOrDefault("db-password", "1234"));
+        MarketDataFeed feed = MarketDataFeeds.shared();
+        TradingEngine engine = new TradingEngine(db, feed);
+        feed.start();
+        try {
+            awaitPrices(feed);
+            int userId = loginOrSignup(engine,
+                    options.getOrDefault("user", "headless"), options.getOrDefault("password", "headless"));
+            TradingSession session = engine.openSession(userId).join();
+            try {
+                long start = System.nanoTime();
+                if (options.containsKey("script")) {
+                    runScript(session, Path.of(options.get("script")), Integer.parseInt(options.getOrDefault("concurrency", "1")));
+                } else {
+                    int count = Integer.parseInt(options.getOrDefault("simulate", "1000"));
+                    simulate(session, feed.instruments(), count, Integer.parseInt(options.getOrDefault("concurrency", "16")),
+                            Long.parseLong(options.getOrDefault("seed", String.valueOf(System.nanoTime()))));
+                }
+                long elapsed = System.nanoTime() - start;
+                session.flush().join();
+                report(session, elapsed);
+            } finally {
+                session.close();
+            }
+        } finally {
+            MarketDataFeeds.shutdown();
+            db.close();
+        }
+        return failed.get() == 0 ? 0 : 1;
+    }
+
+    private static void awaitPrices(MarketDataFeed feed) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (Instrument i : feed.instruments()) {
+            while (Double.isNaN(feed.prices().price(i.getSymbol())) && System.nanoTime() < deadline) Thread.sleep(10);
+        }
+    }
+
+    private static int loginOrSignup(TradingEngine engine, String user, String password) {
+        Optional<Integer> id = engine.login(user, password).join();
+        if (id.isPresent()) return id.get();
+        if (!engine.signup(user, password).join()) throw new IllegalStateException("Cannot log in or sign up as " + user);
+        System.out.println("✅ Signed up headless user " + user);
+        return engine.login(user, password).join().orElseThrow();
+    }
+
+    // 📜 Ops in file order; with concurrency 1 each waits for the previous one
+    private void runScript(TradingSession session, Path script, int concurrency) throws IOException, InterruptedException {
+        Semaphore inFlight = new Semaphore(Math.max(1, concurrency));
+        int lineNo = 0;
+        for (String raw : Files.readAllLines(script)) {
+            lineNo++;
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] f = line.split("\\s+");
+            String op = f[0].toUpperCase(Locale.ROOT);
+            try {
+                switch (op) {
+                    case "BUY":
+                    case "SELL":
+                        submit(inFlight, () -> session.trade(f[1].toUpperCase(Locale.ROOT), op, Integer.parseInt(f[2])));
+                        break;
+                    case "DEPOSIT":
+                        submit(inFlight, () -> session.deposit(Double.parseDouble(f[1])));
+                        break;
+                    case "WATCH":
+                        submit(inFlight, () -> session.addToWatchlist(f[1].toUpperCase(Locale.ROOT)));
+                        break;
+                    case "UNWATCH":
+                        submit(inFlight, () -> session.removeFromWatchlist(f[1].toUpperCase(Locale.ROOT)));
+                        break;
+                    case "SLEEP":
+                        drain(inFlight, concurrency);
+                        Thread.sleep(Long.parseLong(f[1]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown op " + f[0]);
+                }
+            } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+                System.out.println("⚠️ " + script.getFileName() + ":" + lineNo + " skipped (" + e.getMessage() + "): " + line);
+            }
+        }
+        drain(inFlight, concurrency);
+    }
+
+    // 🎲 Random market orders; buys outnumber sells so positions build up and sells mostly fill
+    private void simulate(TradingSession session, List<Instrument> instruments, int count, int concurrency, long seed)
+            throws InterruptedException {
+        if (session.getBalance() < 1_000_000) session.deposit(10_000_000).join();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> symbols = new ArrayList<>();
+        for (Instrument i : instruments) symbols.add(i.getSymbol());
+        Semaphore inFlight = new Semaphore(Math.max(1, concurrency));
+        for (int n = 0; n < count; n++) {
+            String symbol = symbols.get(random.nextInt(symbols.size()));
+            String side = random.nextInt(10) < 6 ? "BUY" : "SELL";
+            int qty = 1 + random.nextInt(10);
+            submit(inFlight, () -> session.trade(symbol, side, qty));
+        }
+        drain(inFlight, concurrency);
+    }
+
+    private void submit(Semaphore inFlight, Supplier<CompletableFuture<?>> op) throws InterruptedException {
+        inFlight.acquire();
+        long start = System.nanoTime();
+        CompletableFuture<?> f;
+        try {
+            f = op.get();
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        f.whenComplete((result, err) -> {
+            latency.record(System.nanoTime() - start);
+            if (err != null) {
+                failed.incrementAndGet();
+                System.out.println("❌ " + AsyncDBManager.rootCause(err).getMessage());
+            } else if (result instanceof TradeResult) {
+                if (((TradeResult) result).isFilled()) filled.incrementAndGet();
+                else rejected.incrementAndGet();
+            } else {
+                otherOps.incrementAndGet();
+            }
+            inFlight.release();
+        });
+    }
+
+    private static void drain(Semaphore inFlight, int concurrency) throws InterruptedException {
+        int permits = Math.max(1, concurrency);
+        inFlight.acquire(permits);
+        inFlight.release(permits);
+    }
+
+    private void report(TradingSession session, long elapsedNanos) {
+        long ops = latency.getCount();
+        double seconds = elapsedNanos / 1e9;
+        System.out.println(String.format(Locale.ROOT, "📊 Headless run: %d ops in %.2fs → %.0f ops/s",
+                ops, seconds, seconds == 0 ? 0 : ops / seconds));
+        System.out.println(String.format(Locale.ROOT, "   trades: %d filled, %d rejected; other ops: %d; failed: %d",
+                filled.get(), rejected.get(), otherOps.get(), failed.get()));
+        System.out.println(String.format(Locale.ROOT, "   latency ms: p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f",
+                latency.valueAtPercentile(50) / 1e6, latency.valueAtPercentile(90) / 1e6,
+                latency.valueAtPercentile(99) / 1e6, latency.valueAtPercentile(99.9) / 1e6, latency.getMaxNanos() / 1e6));
+        System.out.println(String.format(Locale.ROOT, "   portfolio ₹%.2f  cash ₹%.2f  unrealized ₹%.2f  realized ₹%.2f",
+                session.getPortfolioValue(), session.getBalance(),
+                session.positions().getUnrealizedPnl(), session.positions().getRealizedPnl()));
+    }
+}
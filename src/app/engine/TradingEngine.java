@@ -0,0 +1,102 @@
+package app.engine;
+
+import app.db.DBManager;
+import app.events.EventBus;
+import app.exchange.Exchange;
+import app.market.Instrument;
+import app.market.MarketDataFeed;
+import app.market.PriceStore;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// ⚙️ UI-free trading core: accounts, sessions and market data.
+// The JavaFX controllers and the headless runner are both clients of this API; nothing here
+// touches JavaFX, so it can run server-side or under load tests. Sessions publish what changed
+// (trades, balances, watchlists) and the feed's prices on the engine's EventBus. Orders are matched on
+// the engine's simulated Exchange unless stockup.exchange=false.
+public class TradingEngine {
+
+    private final DBManager db;
+    private final MarketDataFeed feed;
+    private final EventBus events;
+    private final Exchange exchange;              // null when stockup.exchange=false
+    private final Map<String, String> companyNames = new ConcurrentHashMap<>();
+    // 📣 Sessions publish trades and watchlist changes from here, in order, so a subscriber that is slow
+    // to drain never holds up a journal writer or a DB thread
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("session-events").daemon(true).factory());
+
+    public TradingEngine(DBManager db, MarketDataFeed feed) {
+        this(db, feed, EventBus.shared());
+    }
+
+    public TradingEngine(DBManager db, MarketDataFeed feed, EventBus events) {
+        this.db = db;
+        this.feed = feed;
+        this.events = events;
+        for (Instrument i : feed.instruments()) {
+            companyNames.put(i.getSymbol(), i.getName());
+            if (i.getName().equals(i.getSymbol())) nameFromStocksTable(i.getSymbol());
+        }
+        events.follow(feed);
+        this.exchange = Exchange.fromSystemProperties(feed);
+        if (exchange != null) feed.subscribe(exchange);
+    }
+
+    public DBManager db() {
+        return db;
+    }
+
+    public MarketDataFeed feed() {
+        return feed;
+    }
+
+    public EventBus events() {
+        return events;
+    }
+
+    public Exchange exchange() {
+        return exchange;
+    }
+
+    Executor publisher() {
+        return publisher;
+    }
+
+    public PriceStore prices() {
+        return feed.prices();
+    }
+
+    // 🔑 User id when the credentials match
+    public CompletableFuture<Optional<Integer>> login(String username, String password) {
+        return db.async().login(username, password);
+    }
+
+    // False when the username is taken
+    public CompletableFuture<Boolean> signup(String username, String password) {
+        return db.async().signup(username, password);
+    }
+
+    // 📂 Open the journal (replaying anything left unflushed) and load positions and balance
+    public CompletableFuture<TradingSession> openSession(int userId) {
+        return TradingSession.open(this, userId);
+    }
+
+    // 🏷️ Feeds without names (replay files) get them from the stocks table, off the caller's thread; until
+    // then, or when the table is missing or has no row, the symbol stands in
+    private void nameFromStocksTable(String symbol) {
+        db.async().submit(d -> d.getStockName(symbol))
+                .thenAccept(name -> name.ifPresent(n -> companyNames.put(symbol, n)))
+                .exceptionally(t -> null);
+    }
+
+    public String companyNameOf(String symbol) {
+        return companyNames.getOrDefault(symbol, symbol);
+    }
+}
@@ -0,0 +1,436 @@
+package app.engine;
+
+import app.db.DBManager;
+import app.events.AppEvent;
+import app.events.BalanceChanged;
+import app.events.EventBus;
+import app.events.TradeExecuted;
+import app.events.WatchlistChanged;
+import app.exchange.Exchange;
+import app.exchange.Execution;
+import app.journal.WriteBehindJournal;
+import app.market.PriceStore;
+import app.market.TickListener;
+import app.metrics.Counter;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+import app.models.TradeResult;
+import app.models.WatchlistItem;
+import app.portfolio.Position;
+import app.portfolio.PositionBook;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// 👤 One logged-in user: trades, deposits, watchlist and live valuation.
+// Mutations go through the write-behind journal when it is enabled, otherwise straight to MySQL.
+// The position book follows the feed from the moment the session opens, so valuation and P&L
+// are always current without a query. Futures complete on DB/journal threads; UI callers hop
+// back to their own thread. Every change is also published once on the engine's EventBus, after the
+// session's own state (book, balance) reflects it. With an Exchange, orders match on its books and each
+// fill is recorded like a market trade; resting limit orders live as long as the session. Cash and shares
+// promised to resting orders and to fills not yet booked are held back, so every order is checked against
+// what is actually free rather than a balance that has not caught up yet.
+public class TradingSession implements AutoCloseable {
+
+    private final TradingEngine engine;
+    private final DBManager db;
+    private final PriceStore prices;
+    private final EventBus events;
+    private final int userId;
+    private final WriteBehindJournal journal;      // null when stockup.journal=false
+    private final Exchange exchange;               // null when stockup.exchange=false
+    private final Map<Long, OpenOrder> openOrders = new ConcurrentHashMap<>();   // resting orders by id
+    private final Object holds = new Object();
+    private long heldPaise;                                                       // guarded by holds
+    private final Map<String, Integer> heldShares = new HashMap<>();              // guarded by holds
+    private final PositionBook book = new PositionBook();
+    private final TickListener ticker;
+    private volatile double balance = Double.NaN;
+    private CompletableFuture<?> lastWrite = CompletableFuture.completedFuture(null);   // guarded by this
+
+    private final LatencyHistogram tradeLatency = MetricsRegistry.shared().histogram("engine.trade");
+    private final Counter filled = MetricsRegistry.shared().counter("engine.trades.filled");
+    private final Counter rejected = MetricsRegistry.shared().counter("engine.trades.rejected");
+
+    private TradingSession(TradingEngine engine, int userId, WriteBehindJournal journal) {
+        this.engine = engine;
+        this.db = engine.db();
+        this.prices = engine.prices();
+        this.events = engine.events();
+        this.exchange = engine.exchange();
+        this.userId = userId;
+        this.journal = journal;
+        this.ticker = (id, price, size, ts) -> book.onPrice(prices.symbolOf(id), price);
+    }
+
+    static CompletableFuture<TradingSession> open(TradingEngine engine, int userId) {
+        return engine.db().async().submit(d -> {
+                    try {
+                        return WriteBehindJournal.openFromSystemProperties(d, userId);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .thenCompose(journal -> {
+                    TradingSession session = new TradingSession(engine, userId, journal);
+                    engine.feed().subscribe(session.ticker);
+                    if (session.exchange != null) session.exchange.register(userId, session.fillHandler());
+                    return session.reload().thenApply(v -> session);
+                });
+    }
+
+    // 🔁 Positions and balance from the database (the journal's view when journaling)
+    public CompletableFuture<Void> reload() {
+        CompletableFuture<Void> positions = db.async().loadPortfolio(userId)
+                .thenAccept(items -> book.load(items, prices::price, this::openOf));
+        return positions.thenCompose(v -> refreshBalance()).thenApply(b -> null);
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public TradingEngine engine() {
+        return engine;
+    }
+
+    // 💸 Market order: matched on the exchange's book (the unfilled part is dropped), or filled whole at
+    // the feed price without one
+    public CompletableFuture<TradeResult> trade(String symbol, String side, int qty) {
+        if (qty <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("Quantity must be positive"));
+        String type = side.toUpperCase();
+        if (!type.equals("BUY") && !type.equals("SELL")) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Side must be BUY or SELL: " + side));
+        }
+        double price = prices.price(symbol);
+        if (Double.isNaN(price)) return CompletableFuture.failedFuture(new IllegalArgumentException("No price for " + symbol));
+
+        long start = System.nanoTime();
+        if (exchange == null || !exchange.trades(symbol)) return record(symbol, type, qty, price, start);
+
+        boolean buy = type.equals("BUY");
+        Execution x;
+        if (buy) {
+            // 🔒 Capped at what the free cash pays for, and its cost held before anyone else can spend it
+            synchronized (holds) {
+                long cap = freePaise() / qty;
+                if (cap < paise(exchange.ask(prices.idOf(symbol)))) {
+                    rejected.increment();
+                    return CompletableFuture.completedFuture(rejection(TradeResult.Status.INSUFFICIENT_FUNDS, symbol, type, qty, price));
+                }
+                x = exchange.market(userId, symbol, true, qty, cap / 100.0);
+                heldPaise += spentPaise(x);
+            }
+        } else {
+            if (!hold(symbol, false, qty, 0)) {
+                rejected.increment();
+                return CompletableFuture.completedFuture(rejection(TradeResult.Status.INSUFFICIENT_SHARES, symbol, type, qty, price));
+            }
+            x = exchange.market(userId, symbol, false, qty);
+            release(symbol, false, qty - x.getFilled(), 0);
+        }
+        if (x.getFilled() == 0) return CompletableFuture.completedFuture(rejection(TradeResult.Status.NO_LIQUIDITY, symbol, type, qty, price));
+        long spent = spentPaise(x);
+        return record(symbol, type, x.getFilled(), x.getAvgPrice(), start)
+                .whenComplete((t, e) -> {
+                    if (buy) releasePaise(spent);
+                    else release(symbol, false, x.getFilled(), 0);
+                });
+    }
+
+    // 📝 Limit order: what crosses trades now (published as TradeExecuted), the rest rests on the book and
+    // fills later as the market moves through it
+    public CompletableFuture<Execution> limit(String symbol, String side, int qty, double limitPrice) {
+        if (exchange == null) return CompletableFuture.failedFuture(new IllegalStateException("Limit orders need the exchange (stockup.exchange)"));
+        if (qty <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("Quantity must be positive"));
+        String type = side.toUpperCase();
+        if (!type.equals("BUY") && !type.equals("SELL")) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Side must be BUY or SELL: " + side));
+        }
+        if (!exchange.trades(symbol)) return CompletableFuture.failedFuture(new IllegalArgumentException("Not traded: " + symbol));
+
+        if (!(limitPrice > 0)) return CompletableFuture.failedFuture(new IllegalArgumentException("Limit price must be positive: " + limitPrice));
+
+        boolean buy = type.equals("BUY");
+        long px = paise(limitPrice);
+        if (!hold(symbol, buy, qty, px)) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new IllegalStateException(buy
+                    ? "Insufficient funds for " + qty + " " + symbol + " at " + limitPrice
+                    : "Not enough " + symbol + " shares to sell " + qty));
+        }
+        long start = System.nanoTime();
+        Execution x;
+        try {
+            x = exchange.limit(userId, symbol, buy, qty, limitPrice);
+        } catch (RuntimeException e) {
+            release(symbol, buy, qty, px);
+            return CompletableFuture.failedFuture(e);
+        }
+        if (x.getResting() > 0) {
+            openOrders.put(x.getOrderId(), new OpenOrder(symbol, buy, px));
+            // the last fill may have been handled before the put; don't keep a stale entry
+            if (exchange.remaining(symbol, x.getOrderId()) == 0) openOrders.remove(x.getOrderId());
+        }
+        if (x.getFilled() == 0) return CompletableFuture.completedFuture(x);
+        return record(symbol, type, x.getFilled(), x.getAvgPrice(), start)
+                .whenComplete((t, e) -> release(symbol, buy, x.getFilled(), px))
+                .thenApply(t -> x);
+    }
+
+    // ✖ Cancel this session's resting orders on a symbol; returns how many were still open
+    public int cancelOrders(String symbol) {
+        if (exchange == null) return 0;
+        int cancelled = 0;
+        for (Map.Entry<Long, OpenOrder> e : openOrders.entrySet()) {
+            OpenOrder o = e.getValue();
+            if (!o.symbol.equals(symbol)) continue;
+            if (cancel(e.getKey(), o)) cancelled++;
+            openOrders.remove(e.getKey());
+        }
+        return cancelled;
+    }
+
+    // ✖ Only what actually came off the book is released; fills that beat the cancel release their own share
+    private boolean cancel(long orderId, OpenOrder o) {
+        int left = exchange.cancel(userId, o.symbol, orderId);
+        release(o.symbol, o.buy, left, o.pricePaise);
+        return left > 0;
+    }
+
+    public int openOrderCount() {
+        return openOrders.size();
+    }
+
+    private Exchange.FillHandler fillHandler() {
+        return new Exchange.FillHandler() {
+            @Override
+            public void onFill(String symbol, long orderId, boolean buy, int qty, double price, int remaining) {
+                onRestingFill(symbol, orderId, buy, qty, price, remaining);
+            }
+
+            @Override
+            public void onCancelled(String symbol, long orderId, boolean buy, int qty, double price) {
+                onSelfTradeCancel(symbol, orderId, buy, qty, price);
+            }
+        };
+    }
+
+    // 🚫 Exchange fill thread: our own order crossed this resting one, so the book cancelled it; free its hold
+    private void onSelfTradeCancel(String symbol, long orderId, boolean buy, int qty, double price) {
+        openOrders.remove(orderId);
+        release(symbol, buy, qty, paise(price));
+    }
+
+    // 🤝 Exchange fill thread: a resting order traded
+    private void onRestingFill(String symbol, long orderId, boolean buy, int qty, double price, int remaining) {
+        if (remaining == 0) openOrders.remove(orderId);
+        long px = paise(price);
+        record(symbol, buy ? "BUY" : "SELL", qty, price, System.nanoTime())
+                .whenComplete((trade, t) -> {
+                    release(symbol, buy, qty, px);
+                    if (t != null) t.printStackTrace();
+                    else if (!trade.isFilled()) System.err.println("⚠️ Fill on order " + orderId + " refused: " + trade.getStatus());
+                });
+    }
+
+    // ✅ Book a trade through the journal or MySQL, which have the final say on funds and shares
+    private CompletableFuture<TradeResult> record(String symbol, String type, int qty, double price, long start) {
+        String companyName = engine.companyNameOf(symbol);
+        if (journal != null) return journal.trade(symbol, companyName, type, qty, price)
+                .thenApply(trade -> applyTrade(trade, symbol, companyName, type, start));
+        return inOrder(() -> db.async().executeTrade(userId, symbol, companyName, type, qty, price)
+                .thenApply(trade -> applyTrade(trade, symbol, companyName, type, start)));
+    }
+
+    private TradeResult applyTrade(TradeResult trade, String symbol, String companyName, String type, long start) {
+        tradeLatency.record(System.nanoTime() - start);
+        if (trade.isFilled()) {
+            filled.increment();
+            book.apply(trade, companyName, prices.price(symbol));
+            setBalance(trade.getBalance());
+            publish(new TradeExecuted(userId, type, trade));
+        } else {
+            rejected.increment();
+            setBalance(trade.getBalance());
+        }
+        return trade;
+    }
+
+    // 🔗 Straight to MySQL, concurrent writes could complete out of commit order and leave the book and
+    // balance at an older state; each one starts once the previous one has been applied instead. The
+    // journal needs none of this: it accepts writes in order and completes them in order.
+    private synchronized <T> CompletableFuture<T> inOrder(Supplier<CompletableFuture<T>> write) {
+        CompletableFuture<T> next = lastWrite.handle((v, t) -> null).thenCompose(v -> write.get());
+        lastWrite = next;
+        return next;
+    }
+
+    // 🔒 Hold back qty × pricePaise of cash (buy) or qty shares (sell) until the order's fills are booked
+    // or it is cancelled, so a doomed order never takes liquidity; false (nothing held) when the account
+    // cannot cover it on top of what is already held
+    private boolean hold(String symbol, boolean buy, int qty, long pricePaise) {
+        synchronized (holds) {
+            if (buy) {
+                long cost = qty * pricePaise;
+                if (cost > freePaise()) return false;
+                heldPaise += cost;
+            } else {
+                Position held = book.get(symbol);
+                int free = (held == null ? 0 : held.getQuantity()) - heldShares.getOrDefault(symbol, 0);
+                if (qty > free) return false;
+                heldShares.merge(symbol, qty, Integer::sum);
+            }
+            return true;
+        }
+    }
+
+    private void release(String symbol, boolean buy, int qty, long pricePaise) {
+        if (qty <= 0) return;
+        if (buy) {
+            releasePaise(qty * pricePaise);
+            return;
+        }
+        synchronized (holds) {
+            heldShares.merge(symbol, -qty, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private void releasePaise(long paise) {
+        synchronized (holds) {
+            heldPaise -= paise;
+        }
+    }
+
+    // Cash not held back, in paise; the balance is loaded before the session opens
+    private long freePaise() {
+        double b = balance;
+        return Double.isNaN(b) ? 0 : paise(b) - heldPaise;
+    }
+
+    private static long paise(double rupees) {
+        return Double.isNaN(rupees) ? 0 : Math.round(rupees * 100);
+    }
+
+    private static long spentPaise(Execution x) {
+        return x.getFilled() == 0 ? 0 : Math.round(x.getAvgPrice() * x.getFilled() * 100);
+    }
+
+    private TradeResult rejection(TradeResult.Status status, String symbol, String type, int qty, double price) {
+        Position held = book.get(symbol);
+        return new TradeResult(status, symbol, type, qty, price,
+                held == null ? 0 : held.getQuantity(), held == null ? 0 : held.getAvgPrice(), balance);
+    }
+
+    // 💰 Returns the new balance
+    public CompletableFuture<Double> deposit(double amount) {
+        if (amount <= 0) return CompletableFuture.failedFuture(new IllegalArgumentException("Amount must be positive"));
+        if (journal != null) return journal.deposit(amount).thenApply(this::setBalance);
+        return inOrder(() -> db.async().deposit(userId, amount).thenApply(this::setBalance));
+    }
+
+    public CompletableFuture<Double> refreshBalance() {
+        if (journal != null) return CompletableFuture.completedFuture(setBalance(journal.getBalance()));
+        return inOrder(() -> db.async().getBalance(userId).thenApply(this::setBalance));
+    }
+
+    // 📣 Off the journal writer and DB threads; balances are conflated and never wait, so they go inline
+    private void publish(AppEvent event) {
+        engine.publisher().execute(() -> events.publish(event));
+    }
+
+    private double setBalance(double b) {
+        double previous = balance;
+        balance = b;
+        if (Double.compare(previous, b) != 0) events.publish(new BalanceChanged(userId, b));
+        return b;
+    }
+
+    // 🏦 Last known cash balance (NaN until first loaded)
+    public double getBalance() {
+        return balance;
+    }
+
+    // 👀 Watchlist
+    public CompletableFuture<List<WatchlistItem>> loadWatchlist() {
+        return db.async().loadWatchlistItems(userId).thenApply(items -> {
+            for (WatchlistItem i : items) {
+                double price = prices.price(i.getSymbol());
+                i.setPrice(Double.isNaN(price) ? 0 : price);
+            }
+            return items;
+        });
+    }
+
+    public CompletableFuture<Void> addToWatchlist(String symbol) {
+        String companyName = engine.companyNameOf(symbol);
+        CompletableFuture<Void> result = journal != null ? journal.addToWatchlist(symbol, companyName)
+                : db.async().addToWatchlist(userId, symbol, companyName);
+        return result.thenRun(() -> publish(new WatchlistChanged(userId, symbol, companyName, true)));
+    }
+
+    public CompletableFuture<Void> removeFromWatchlist(String symbol) {
+        CompletableFuture<Void> result = journal != null ? journal.removeFromWatchlist(symbol)
+                : db.async().removeFromWatchlist(userId, symbol);
+        return result.thenRun(() -> publish(new WatchlistChanged(userId, symbol,
+                engine.companyNameOf(symbol), false)));
+    }
+
+    // 📊 Valuation
+    public PositionBook positions() {
+        return book;
+    }
+
+    public double getPortfolioValue() {
+        return book.getTotalValue();
+    }
+
+    public double getNetWorth() {
+        return balance + book.getTotalValue();
+    }
+
+    // ✅ Everything accepted so far is in MySQL once this completes
+    public CompletableFuture<Void> flush() {
+        return journal != null ? journal.flush() : CompletableFuture.completedFuture(null);
+    }
+
+    private double openOf(String symbol) {
+        int id = prices.idOf(symbol);
+        return id < 0 ? Double.NaN : prices.open(id);
+    }
+
+    // 🚪 Stops following the feed, cancels resting orders and drains the journal (blocks until flushed).
+    // Fills that beat the cancels are still booked: the fill thread is drained before the handler goes
+    // and the journal closes.
+    @Override
+    public void close() {
+        engine.feed().unsubscribe(ticker);
+        if (exchange != null) {
+            for (Map.Entry<Long, OpenOrder> e : openOrders.entrySet()) cancel(e.getKey(), e.getValue());
+            openOrders.clear();
+            exchange.awaitFills();
+            exchange.unregister(userId);
+        }
+        if (journal != null) journal.close();
+    }
+
+    // 📝 A resting order: enough to release what it holds when it is cancelled
+    private static final class OpenOrder {
+        final String symbol;
+        final boolean buy;
+        final long pricePaise;
+
+        OpenOrder(String symbol, boolean buy, long pricePaise) {
+            this.symbol = symbol;
+            this.buy = buy;
+            this.pricePaise = pricePaise;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package app.events;
+
+// 👤 An event about one user's account; views filter on the logged-in user
+public interface AccountEvent extends AppEvent {
+
+    int getUserId();
+}
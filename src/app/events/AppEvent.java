@@ -0,0 +1,17 @@
+package app.events;
+
+// 📨 Something that changed, published once on the EventBus.
+// An event with a conflation key supersedes a still-undelivered event of the same type and key,
+// so a slow subscriber only ever sees the latest of them (a balance, a symbol's price).
+// A lossless event records something already durable (a trade): it is never dropped and never makes
+// its publisher wait, even when the subscriber's mailbox is over capacity.
+public interface AppEvent {
+
+    default Object conflationKey() {
+        return null;
+    }
+
+    default boolean lossless() {
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package app.events;
+
+// 🏦 New cash balance after a trade, deposit or reload; only the latest one per user is delivered
+public class BalanceChanged implements AccountEvent {
+
+    private final int userId;
+    private final double balance;
+
+    public BalanceChanged(int userId, double balance) {
+        this.userId = userId;
+        this.balance = balance;
+    }
+
+    @Override
+    public int getUserId() { return userId; }
+    public double getBalance() { return balance; }
+
+    @Override
+    public Object conflationKey() {
+        return userId;
+    }
+}
@@ -0,0 +1,266 @@
+package app.events;
+
+import app.market.MarketDataFeed;
+import app.market.PriceStore;
+import app.metrics.Counter;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// 🚌 In-process publish/subscribe for typed AppEvents: one event per change, delivered only to the
+// subscribers of its exact type whose filter accepts it.
+//   stockup.events.threads   delivery pool size (default 2)
+//   stockup.events.capacity  undelivered events per subscriber before publishers wait (default 1024)
+//   stockup.events.blockMs   how long a publisher waits for room before the event is dropped (default 1000)
+// Each subscriber has its own bounded mailbox, drained in order on its executor (the bus's pool, or e.g.
+// the JavaFX thread) in batches, so one slow subscriber never delays another. Conflatable events
+// (balances, prices) replace their undelivered predecessor and never wait; lossless ones (trades) are
+// queued past capacity and never wait either; others apply backpressure to the publisher. A thread that
+// is itself delivering events never waits, so handlers can publish.
+public class EventBus {
+
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final int BATCH = 64;                    // events per drain before yielding the thread
+    private static final ThreadLocal<Boolean> DELIVERING = ThreadLocal.withInitial(() -> false);
+    private static EventBus shared;
+
+    private final ExecutorService pool;
+    private final int capacity;
+    private final long blockNanos;
+    private final Map<Class<?>, Subscriber<?>[]> byType = new ConcurrentHashMap<>();
+    private final Set<MarketDataFeed> followed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Counter published = MetricsRegistry.shared().counter("events.published");
+    private final Counter delivered = MetricsRegistry.shared().counter("events.delivered");
+    private final Counter conflated = MetricsRegistry.shared().counter("events.conflated");
+    private final Counter dropped = MetricsRegistry.shared().counter("events.dropped");
+    private final LatencyHistogram lag = MetricsRegistry.shared().histogram("events.lag");
+
+    public EventBus(int threads, int capacity, long blockMillis) {
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads),
+                Thread.ofPlatform().name("events-", 0).daemon(true).factory());
+        this.capacity = Math.max(1, capacity);
+        this.blockNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockMillis));
+    }
+
+    public static synchronized EventBus shared() {
+        if (shared == null) {
+            shared = new EventBus(Integer.getInteger("stockup.events.threads", 2),
+                    Integer.getInteger("stockup.events.capacity", 1024),
+                    Long.getLong("stockup.events.blockMs", 1000));
+        }
+        return shared;
+    }
+
+    // 📬 Delivered on the bus's pool
+    public <E extends AppEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler) {
+        return subscribe(type, e -> true, pool, handler);
+    }
+
+    // 🎯 The filter runs on the publishing thread, so events nobody wants are never queued
+    public <E extends AppEvent> Subscription subscribe(Class<E> type, Predicate<? super E> filter,
+                                                       Executor deliverOn, Consumer<? super E> handler) {
+        Subscriber<E> s = new Subscriber<>(type, filter, deliverOn, handler);
+        synchronized (byType) {
+            Subscriber<?>[] current = byType.getOrDefault(type, new Subscriber<?>[0]);
+            Subscriber<?>[] next = Arrays.copyOf(current, current.length + 1);
+            next[next.length - 1] = s;
+            byType.put(type, next);
+        }
+        return s;
+    }
+
+    private void unsubscribe(Subscriber<?> s) {
+        synchronized (byType) {
+            Subscriber<?>[] current = byType.get(s.type);
+            if (current == null) return;
+            List<Subscriber<?>> next = new ArrayList<>(Arrays.asList(current));
+            next.remove(s);
+            if (next.isEmpty()) byType.remove(s.type);
+            else byType.put(s.type, next.toArray(new Subscriber<?>[0]));
+        }
+    }
+
+    public boolean hasSubscribers(Class<? extends AppEvent> type) {
+        return byType.containsKey(type);
+    }
+
+    // ✅ False when a subscriber had no room within stockup.events.blockMs and the event was dropped for it
+    public boolean publish(AppEvent event) {
+        published.increment();
+        Subscriber<?>[] subs = byType.get(event.getClass());
+        if (subs == null) return true;
+        long wait = DELIVERING.get() ? 0 : blockNanos;
+        boolean all = true;
+        for (Subscriber<?> s : subs) all &= s.offer(event, wait);
+        return all;
+    }
+
+    // 📡 Republish a feed's ticks as PriceTick events; idempotent per feed. Costs the feed thread one map
+    // lookup per tick while nobody subscribes to PriceTick.
+    public void follow(MarketDataFeed feed) {
+        synchronized (followed) {
+            if (!followed.add(feed)) return;
+        }
+        PriceStore prices = feed.prices();
+        feed.subscribe((id, price, size, ts) -> {
+            if (hasSubscribers(PriceTick.class)) publish(new PriceTick(id, prices.symbolOf(id), price, ts));
+        });
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static final class Slot {
+        AppEvent event;
+        final long enqueuedNanos = System.nanoTime();
+
+        Slot(AppEvent event) {
+            this.event = event;
+        }
+    }
+
+    // 📥 One subscription: a bounded mailbox with at most one drain scheduled on its executor at a time
+    private final class Subscriber<E extends AppEvent> implements Subscription, Runnable {
+
+        final Class<E> type;
+        private final Predicate<? super E> filter;
+        private final Executor executor;
+        private final Consumer<? super E> handler;
+
+        private final ArrayDeque<Slot> queue = new ArrayDeque<>();           // guarded by this
+        private final Map<Object, Slot> pendingByKey = new HashMap<>();     // undelivered conflatable events
+        private int unkeyed;                                                // queued events that count against capacity
+        private boolean scheduled;
+        private volatile boolean closed;
+
+        Subscriber(Class<E> type, Predicate<? super E> filter, Executor executor, Consumer<? super E> handler) {
+            this.type = type;
+            this.filter = filter;
+            this.executor = executor;
+            this.handler = handler;
+        }
+
+        boolean offer(AppEvent event, long waitNanos) {
+            if (closed || !filter.test(type.cast(event))) return true;
+            synchronized (this) {
+                Object key = event.conflationKey();
+                if (key != null) {
+                    Slot pending = pendingByKey.get(key);
+                    if (pending != null) {
+                        pending.event = event;
+                        conflated.increment();
+                        return true;
+                    }
+                    Slot s = new Slot(event);
+                    pendingByKey.put(key, s);
+                    queue.add(s);
+                } else {
+                    // ⏳ Backpressure: wait for the subscriber to catch up, then give up on this event
+                    long deadline = System.nanoTime() + waitNanos;
+                    while (unkeyed >= capacity && !closed && !event.lossless()) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            dropped.increment();
+                            return false;
+                        }
+                        try {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped.increment();
+                            return false;
+                        }
+                    }
+                    if (closed) return true;
+                    unkeyed++;
+                    queue.add(new Slot(event));
+                }
+                if (scheduled) return true;
+                scheduled = true;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    scheduled = false;          // bus shut down; the queue is never drained
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            DELIVERING.set(true);
+            try {
+                for (int n = 0; n < BATCH; n++) {
+                    Slot s;
+                    synchronized (this) {
+                        s = queue.poll();
+                        if (s == null) {
+                            scheduled = false;
+                            return;
+                        }
+                        Object key = s.event.conflationKey();
+                        if (key != null) {
+                            pendingByKey.remove(key);
+                        } else {
+                            unkeyed--;
+                            notifyAll();
+                        }
+                    }
+                    if (closed) continue;
+                    lag.record(System.nanoTime() - s.enqueuedNanos);
+                    try {
+                        handler.accept(type.cast(s.event));
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                    delivered.increment();
+                }
+            } finally {
+                DELIVERING.set(false);
+            }
+            schedule();                         // more queued: go to the back of the executor's line
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            unsubscribe(this);
+            synchronized (this) {
+                queue.clear();
+                pendingByKey.clear();
+                unkeyed = 0;
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package app.events;
+
+// 📈 Latest price of one symbol; conflated per symbol, so a subscriber that falls behind skips
+// straight to the newest price instead of replaying every tick
+public class PriceTick implements AppEvent {
+
+    private final int symbolId;
+    private final String symbol;
+    private final double price;
+    private final long timestampNanos;
+
+    public PriceTick(int symbolId, String symbol, double price, long timestampNanos) {
+        this.symbolId = symbolId;
+        this.symbol = symbol;
+        this.price = price;
+        this.timestampNanos = timestampNanos;
+    }
+
+    public int getSymbolId() { return symbolId; }
+    public String getSymbol() { return symbol; }
+    public double getPrice() { return price; }
+    public long getTimestampNanos() { return timestampNanos; }
+
+    @Override
+    public Object conflationKey() {
+        return symbolId;
+    }
+}
@@ -0,0 +1,28 @@
+package app.events;
+
+import app.models.TradeResult;
+
+// 💸 A market order was filled; the position book and balance already reflect it
+public class TradeExecuted implements AccountEvent {
+
+    private final int userId;
+    private final String side;
+    private final TradeResult trade;
+
+    public TradeExecuted(int userId, String side, TradeResult trade) {
+        this.userId = userId;
+        this.side = side;
+        this.trade = trade;
+    }
+
+    @Override
+    public int getUserId() { return userId; }
+    public String getSide() { return side; }
+    public TradeResult getTrade() { return trade; }
+    public String getSymbol() { return trade.getSymbol(); }
+
+    @Override
+    public boolean lossless() {
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package app.events;
+
+// ⭐ A symbol was added to or removed from a user's watchlist
+public class WatchlistChanged implements AccountEvent {
+
+    private final int userId;
+    private final String symbol;
+    private final String companyName;
+    private final boolean added;
+
+    public WatchlistChanged(int userId, String symbol, String companyName, boolean added) {
+        this.userId = userId;
+        this.symbol = symbol;
+        this.companyName = companyName;
+        this.added = added;
+    }
+
+    @Override
+    public int getUserId() { return userId; }
+    public String getSymbol() { return symbol; }
+    public String getCompanyName() { return companyName; }
+    public boolean isAdded() { return added; }
+}
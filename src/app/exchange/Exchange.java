@@ -0,0 +1,297 @@
+package app.exchange;
+
+import app.market.Instrument;
+import app.market.MarketDataFeed;
+import app.market.PriceStore;
+import app.market.TickListener;
+import app.metrics.Counter;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 🏛️ Simulated exchange: one OrderBook per feed symbol, with a market maker quoting around the feed price.
+//   stockup.exchange            true (default) | false = market orders fill at the feed price, as before
+//   stockup.exchange.spreadBps  market maker's distance from the feed price on each side (default 5)
+//   stockup.exchange.levels     price levels quoted per side, one tick apart (default 5)
+//   stockup.exchange.size       shares per quoted level (default 500)
+//   stockup.exchange.maxOrders  resting orders per symbol (default 4096)
+// The market maker re-quotes a symbol on every tick, cancel and replace without allocating, so the book
+// follows the feed, and a user's resting limit order fills when the market trades through it. Fills on
+// resting user orders go to the owner's FillHandler on the exchange's fill thread, in order, and so do
+// resting orders the book cancels because their owner's own order would have traded with them.
+// Top of book is kept in primitive columns indexed by PriceStore id, readable from any thread.
+public class Exchange implements TickListener {
+
+    public static final int MARKET_MAKER = -1;
+    private static final double TICKS_PER_RUPEE = 100;    // tick size ₹0.01
+
+    private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    @FunctionalInterface
+    public interface FillHandler {
+        void onFill(String symbol, long orderId, boolean buy, int qty, double price, int remaining);
+
+        // 🚫 Self-trade prevention took this resting order off the book; qty is what was still resting
+        default void onCancelled(String symbol, long orderId, boolean buy, int qty, double price) {
+        }
+    }
+
+    private final PriceStore prices;
+    private final Venue[] venues;                    // by PriceStore id; null for symbols not traded here
+    private final int levels;
+    private final int levelSize;
+    private final double halfSpread;
+    private final Map<Integer, FillHandler> handlers = new ConcurrentHashMap<>();
+    private final ExecutorService fillThread = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("exchange-fills").daemon(true).factory());
+
+    // 📊 Top of book, NaN / 0 when a side is empty
+    private final double[] bid;
+    private final double[] ask;
+    private final long[] bidQty;
+    private final long[] askQty;
+
+    private final LatencyHistogram orderLatency = MetricsRegistry.shared().histogram("exchange.order");
+    private final Counter orders = MetricsRegistry.shared().counter("exchange.orders");
+    private final Counter fills = MetricsRegistry.shared().counter("exchange.fills");
+    private final Counter requotes = MetricsRegistry.shared().counter("exchange.requotes");
+    private final Counter selfTradeCancels = MetricsRegistry.shared().counter("exchange.selfTradeCancels");
+
+    public Exchange(PriceStore prices, List<Instrument> instruments, int levels, int levelSize,
+                    double spreadBps, int maxOrders) {
+        this.prices = prices;
+        this.levels = Math.max(1, levels);
+        this.levelSize = Math.max(1, levelSize);
+        this.halfSpread = spreadBps / 10_000.0;
+        int size = 0;
+        for (Instrument i : instruments) size = Math.max(size, prices.intern(i.getSymbol()) + 1);
+        venues = new Venue[size];
+        bid = new double[size];
+        ask = new double[size];
+        bidQty = new long[size];
+        askQty = new long[size];
+        Arrays.fill(bid, Double.NaN);
+        Arrays.fill(ask, Double.NaN);
+        for (Instrument i : instruments) {
+            int id = prices.idOf(i.getSymbol());
+            venues[id] = new Venue(id, i.getSymbol(), maxOrders, this.levels);
+            requote(venues[id], prices.price(id));
+        }
+    }
+
+    // 🏭 null when stockup.exchange=false
+    public static Exchange fromSystemProperties(MarketDataFeed feed) {
+        if (!Boolean.parseBoolean(System.getProperty("stockup.exchange", "true"))) return null;
+        return new Exchange(feed.prices(), feed.instruments(),
+                Integer.getInteger("stockup.exchange.levels", 5),
+                Integer.getInteger("stockup.exchange.size", 500),
+                Integer.getInteger("stockup.exchange.spreadBps", 5),
+                Integer.getInteger("stockup.exchange.maxOrders", 4096));
+    }
+
+    // 👤 Where a user's resting orders report their fills
+    public void register(int userId, FillHandler handler) {
+        handlers.put(userId, handler);
+    }
+
+    public void unregister(int userId) {
+        handlers.remove(userId);
+    }
+
+    // ⏳ Returns once every fill that has already happened has reached its FillHandler
+    public void awaitFills() {
+        try {
+            fillThread.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // ⚡ Immediate-or-cancel against the book; the unfilled part is dropped
+    public Execution market(int userId, String symbol, boolean buy, int qty) {
+        return market(userId, symbol, buy, qty, Double.NaN);
+    }
+
+    // ⏱️ Same, but never trades beyond priceCap (NaN = any price), so a buy cannot cost more than qty × priceCap
+    public Execution market(int userId, String symbol, boolean buy, int qty, double priceCap) {
+        Venue v = venue(symbol);
+        long start = System.nanoTime();
+        long id;
+        int filled;
+        long notional;
+        synchronized (v) {
+            id = Double.isNaN(priceCap) ? v.book.market(userId, buy, qty) : v.book.ioc(userId, buy, toTicks(priceCap), qty);
+            filled = v.book.lastFilled();
+            notional = v.book.lastNotional();
+            publishTop(v);
+        }
+        orderLatency.record(System.nanoTime() - start);
+        orders.increment();
+        return new Execution(id, symbol, buy, qty, filled, avgPrice(notional, filled), 0);
+    }
+
+    // 📝 Trades what crosses now; the rest rests at the limit price until filled or cancelled
+    public Execution limit(int userId, String symbol, boolean buy, int qty, double price) {
+        if (!(price > 0)) throw new IllegalArgumentException("Limit price must be positive: " + price);
+        Venue v = venue(symbol);
+        long start = System.nanoTime();
+        long id;
+        int filled;
+        long notional;
+        int resting;
+        synchronized (v) {
+            id = v.book.limit(userId, buy, toTicks(price), qty);
+            filled = v.book.lastFilled();
+            notional = v.book.lastNotional();
+            resting = v.book.remaining(id);
+            publishTop(v);
+        }
+        orderLatency.record(System.nanoTime() - start);
+        orders.increment();
+        return new Execution(id, symbol, buy, qty, filled, avgPrice(notional, filled), resting);
+    }
+
+    // ✖ Returns the quantity taken off the book; 0 when the order is no longer resting or belongs to someone else
+    public int cancel(int userId, String symbol, long orderId) {
+        Venue v = venue(symbol);
+        synchronized (v) {
+            int left = v.book.remaining(orderId);
+            if (left == 0 || v.book.ownerOf(orderId) != userId) return 0;
+            v.book.cancel(orderId);
+            publishTop(v);
+            return left;
+        }
+    }
+
+    // Resting quantity of an order, 0 once it has filled or been cancelled
+    public int remaining(String symbol, long orderId) {
+        Venue v = venue(symbol);
+        synchronized (v) {
+            return v.book.remaining(orderId);
+        }
+    }
+
+    public boolean trades(String symbol) {
+        int id = prices.idOf(symbol);
+        return id >= 0 && id < venues.length && venues[id] != null;
+    }
+
+    // 📡 Feed thread: move the market maker's quotes to the new price
+    @Override
+    public void onTick(int symbolId, double price, long size, long timestampNanos) {
+        if (symbolId < venues.length && venues[symbolId] != null) requote(venues[symbolId], price);
+    }
+
+    private void requote(Venue v, double price) {
+        if (!(price > 0)) return;
+        long mid = toTicks(price);
+        long half = Math.max(1, Math.round(mid * halfSpread));
+        synchronized (v) {
+            long[] quotes = v.quotes;
+            for (int i = 0; i < quotes.length; i++) {
+                if (quotes[i] != 0) v.book.cancel(quotes[i]);
+                quotes[i] = 0;
+            }
+            try {
+                for (int k = 0; k < levels; k++) {
+                    quotes[k] = v.book.limit(MARKET_MAKER, true, mid - half - k, levelSize);
+                    quotes[levels + k] = v.book.limit(MARKET_MAKER, false, mid + half + k, levelSize);
+                }
+            } catch (IllegalStateException e) {
+                // book full of user orders: quote what fitted, the next tick tries again
+            }
+            publishTop(v);
+        }
+        requotes.increment();
+    }
+
+    private void publishTop(Venue v) {
+        int id = v.symbolId;
+        long b = v.book.bestBid();
+        long a = v.book.bestAsk();
+        DOUBLES.setRelease(bid, id, b == OrderBook.NO_PRICE ? Double.NaN : b / TICKS_PER_RUPEE);
+        DOUBLES.setRelease(ask, id, a == OrderBook.NO_PRICE ? Double.NaN : a / TICKS_PER_RUPEE);
+        LONGS.setRelease(bidQty, id, v.book.bestBidQty());
+        LONGS.setRelease(askQty, id, v.book.bestAskQty());
+    }
+
+    // 📊 Top of book by PriceStore id
+    public double bid(int symbolId) {
+        return symbolId < bid.length ? (double) DOUBLES.getAcquire(bid, symbolId) : Double.NaN;
+    }
+
+    public double ask(int symbolId) {
+        return symbolId < ask.length ? (double) DOUBLES.getAcquire(ask, symbolId) : Double.NaN;
+    }
+
+    public long bidSize(int symbolId) {
+        return symbolId < bidQty.length ? (long) LONGS.getAcquire(bidQty, symbolId) : 0;
+    }
+
+    public long askSize(int symbolId) {
+        return symbolId < askQty.length ? (long) LONGS.getAcquire(askQty, symbolId) : 0;
+    }
+
+    private Venue venue(String symbol) {
+        int id = prices.idOf(symbol);
+        if (id < 0 || id >= venues.length || venues[id] == null) throw new IllegalArgumentException("Not traded: " + symbol);
+        return venues[id];
+    }
+
+    private static long toTicks(double price) {
+        return Math.round(price * TICKS_PER_RUPEE);
+    }
+
+    private static double avgPrice(long notionalTicks, int filled) {
+        return filled == 0 ? Double.NaN : notionalTicks / TICKS_PER_RUPEE / filled;
+    }
+
+    // 📒 One symbol's book, its market maker quotes and the hand-off of user fills
+    private final class Venue implements OrderBook.FillListener {
+
+        final int symbolId;
+        final String symbol;
+        final OrderBook book;
+        final long[] quotes;               // market maker order ids: bids, then asks
+
+        Venue(int symbolId, String symbol, int maxOrders, int levels) {
+            this.symbolId = symbolId;
+            this.symbol = symbol;
+            this.book = new OrderBook(maxOrders, maxOrders, this);
+            this.quotes = new long[levels * 2];
+        }
+
+        @Override
+        public void onFill(long makerId, int makerOwner, int makerLeft, long takerId, int takerOwner,
+                           boolean takerBuys, long price, int qty) {
+            fills.increment();
+            if (makerOwner == MARKET_MAKER) return;
+            FillHandler h = handlers.get(makerOwner);
+            if (h == null) return;
+            double px = price / TICKS_PER_RUPEE;
+            fillThread.execute(() -> h.onFill(symbol, makerId, !takerBuys, qty, px, makerLeft));
+        }
+
+        @Override
+        public void onSelfTradeCancel(long makerId, int owner, boolean makerBuys, long price, int qty) {
+            selfTradeCancels.increment();
+            if (owner == MARKET_MAKER) return;
+            FillHandler h = handlers.get(owner);
+            if (h == null) return;
+            double px = price / TICKS_PER_RUPEE;
+            fillThread.execute(() -> h.onCancelled(symbol, makerId, makerBuys, qty, px));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package app.exchange;
+
+// 🧾 What happened to one order when it reached the book: how much traded at once (and at what average
+// price), and how much is left resting as a limit order
+public class Execution {
+
+    private final long orderId;
+    private final String symbol;
+    private final boolean buy;
+    private final int requested;
+    private final int filled;
+    private final double avgPrice;         // NaN when nothing traded
+    private final int resting;
+
+    Execution(long orderId, String symbol, boolean buy, int requested, int filled, double avgPrice, int resting) {
+        this.orderId = orderId;
+        this.symbol = symbol;
+        this.buy = buy;
+        this.requested = requested;
+        this.filled = filled;
+        this.avgPrice = avgPrice;
+        this.resting = resting;
+    }
+
+    public long getOrderId() { return orderId; }
+    public String getSymbol() { return symbol; }
+    public boolean isBuy() { return buy; }
+    public String getSide() { return buy ? "BUY" : "SELL"; }
+    public int getRequested() { return requested; }
+    public int getFilled() { return filled; }
+    public double getAvgPrice() { return avgPrice; }
+    public int getResting() { return resting; }
+}
@@ -0,0 +1,329 @@
+package app.exchange;
+
+// 📒 Limit order book for one symbol with price-time priority.
+// Prices are integer ticks. Orders and price levels live in preallocated primitive arrays with free
+// lists; each level is a FIFO linked through int indices, and each side is a sorted array of level
+// indices with the best price last. Matching, resting and cancelling therefore allocate nothing.
+// Order ids carry their slot, so cancel needs no map. Not thread-safe: the Exchange locks each book.
+// Self-trade prevention is cancel-resting: an order that would trade with its owner's own resting order
+// cancels that resting order instead and keeps matching behind it.
+public class OrderBook {
+
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private static final int SLOT_BITS = 24;
+    private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;   // slot part of an id that never rested
+    private static final int NIL = -1;
+
+    // 🤝 Called for every fill, inside the matching loop; must not call back into the book.
+    // The price is the resting (maker) order's; makerLeft is what is still resting after this fill.
+    @FunctionalInterface
+    public interface FillListener {
+        void onFill(long makerId, int makerOwner, int makerLeft, long takerId, int takerOwner,
+                    boolean takerBuys, long price, int qty);
+
+        // 🚫 A resting order taken off the book unfilled by self-trade prevention; same rules as onFill
+        default void onSelfTradeCancel(long makerId, int owner, boolean makerBuys, long price, int qty) {
+        }
+    }
+
+    // 🧾 Orders, indexed by slot
+    private final long[] orderId;          // 0 = free slot
+    private final int[] owner;
+    private final int[] remaining;
+    private final int[] level;
+    private final int[] next;              // FIFO successor; free-list link when free
+    private final int[] prev;
+    private int freeOrder;
+    private int orders;
+    private long sequence;
+
+    // 📶 Price levels, indexed by slot
+    private final long[] levelPrice;
+    private final long[] levelQty;
+    private final boolean[] levelBid;
+    private final int[] head;              // free-list link when free
+    private final int[] tail;
+    private int freeLevel;
+
+    // Level slots sorted so the best price is last: bids ascending, asks descending
+    private final int[] bids;
+    private final int[] asks;
+    private int bidCount;
+    private int askCount;
+
+    private final FillListener listener;
+
+    // Totals of the last submit, so callers get fill size and VWAP without an allocation
+    private int lastFilled;
+    private long lastNotional;
+
+    public OrderBook(int maxOrders, int maxLevels, FillListener listener) {
+        if (maxOrders <= 0 || maxOrders >= SLOT_MASK) throw new IllegalArgumentException("maxOrders out of range: " + maxOrders);
+        if (maxLevels <= 0) throw new IllegalArgumentException("maxLevels must be positive");
+        this.listener = listener;
+
+        orderId = new long[maxOrders];
+        owner = new int[maxOrders];
+        remaining = new int[maxOrders];
+        level = new int[maxOrders];
+        next = new int[maxOrders];
+        prev = new int[maxOrders];
+        for (int i = 0; i < maxOrders; i++) next[i] = i + 1 < maxOrders ? i + 1 : NIL;
+        freeOrder = 0;
+
+        levelPrice = new long[maxLevels];
+        levelQty = new long[maxLevels];
+        levelBid = new boolean[maxLevels];
+        head = new int[maxLevels];
+        tail = new int[maxLevels];
+        for (int i = 0; i < maxLevels; i++) head[i] = i + 1 < maxLevels ? i + 1 : NIL;
+        freeLevel = 0;
+
+        bids = new int[maxLevels];
+        asks = new int[maxLevels];
+    }
+
+    // ✅ Match up to the limit price, then rest what is left. Returns the order id.
+    // IllegalStateException when no order slot is free (checked before matching) or no price level is
+    // free for the remainder.
+    public long limit(int who, boolean buy, long price, int qty) {
+        return submit(who, buy, price, qty, true);
+    }
+
+    // ⚡ Immediate-or-cancel at any price: whatever the opposite side cannot fill is dropped
+    public long market(int who, boolean buy, int qty) {
+        return submit(who, buy, buy ? Long.MAX_VALUE : Long.MIN_VALUE, qty, false);
+    }
+
+    // ⏱️ Immediate-or-cancel up to a limit price: like market, but stops at the first level beyond it
+    public long ioc(int who, boolean buy, long price, int qty) {
+        return submit(who, buy, price, qty, false);
+    }
+
+    private long submit(int who, boolean buy, long limit, int qty, boolean rest) {
+        if (qty <= 0) throw new IllegalArgumentException("Quantity must be positive");
+        lastFilled = 0;
+        lastNotional = 0;
+
+        int slot = NIL;
+        if (rest) {
+            if (freeOrder == NIL) throw new IllegalStateException("Order book full");
+            slot = freeOrder;                      // taken now so the id is known to the fills
+            freeOrder = next[slot];
+        }
+        long id = (++sequence << SLOT_BITS) | (slot == NIL ? SLOT_MASK : slot);
+
+        int left = match(id, who, buy, limit, qty);
+        int lvl = left > 0 && rest ? levelFor(buy, limit) : NIL;
+        if (lvl == NIL) {
+            if (slot != NIL) {
+                next[slot] = freeOrder;
+                freeOrder = slot;
+            }
+            if (left > 0 && rest) throw new IllegalStateException("Order book has no free price level");
+        } else {
+            orderId[slot] = id;
+            owner[slot] = who;
+            remaining[slot] = left;
+            level[slot] = lvl;
+            append(lvl, slot);
+            orders++;
+        }
+        return id;
+    }
+
+    // 🔁 The matching loop: best opposite level first, oldest order first within a level
+    private int match(long takerId, int who, boolean buy, long limit, int qty) {
+        int left = qty;
+        int[] side = buy ? asks : bids;
+        while (left > 0) {
+            int count = buy ? askCount : bidCount;
+            if (count == 0) break;
+            int lvl = side[count - 1];
+            long px = levelPrice[lvl];
+            if (buy ? px > limit : px < limit) break;
+
+            int o = head[lvl];
+            while (o != NIL && left > 0) {
+                if (owner[o] == who) {
+                    int following = next[o];
+                    long makerId = orderId[o];
+                    int cancelled = remaining[o];
+                    levelQty[lvl] -= cancelled;
+                    unlink(lvl, o);
+                    release(o);
+                    listener.onSelfTradeCancel(makerId, who, !buy, px, cancelled);
+                    o = following;
+                    continue;
+                }
+                int take = Math.min(left, remaining[o]);
+                left -= take;
+                remaining[o] -= take;
+                levelQty[lvl] -= take;
+                lastFilled += take;
+                lastNotional += take * px;
+                long makerId = orderId[o];
+                int makerOwner = owner[o];
+                int makerLeft = remaining[o];
+                int following = next[o];
+                if (makerLeft == 0) {
+                    unlink(lvl, o);
+                    release(o);
+                }
+                listener.onFill(makerId, makerOwner, makerLeft, takerId, who, buy, px, take);
+                o = following;
+            }
+            if (head[lvl] == NIL) {
+                if (buy) askCount--;
+                else bidCount--;
+                releaseLevel(lvl);
+            }
+        }
+        return left;
+    }
+
+    // ✖ False when the order already filled, was cancelled, or never rested
+    public boolean cancel(long id) {
+        int o = slotOf(id);
+        if (o == NIL) return false;
+        int lvl = level[o];
+        levelQty[lvl] -= remaining[o];
+        unlink(lvl, o);
+        release(o);
+        if (head[lvl] == NIL) removeLevel(lvl);
+        return true;
+    }
+
+    // Resting quantity of an order, 0 when it is no longer on the book
+    public int remaining(long id) {
+        int o = slotOf(id);
+        return o == NIL ? 0 : remaining[o];
+    }
+
+    public int ownerOf(long id) {
+        int o = slotOf(id);
+        if (o == NIL) throw new IllegalArgumentException("Order not on the book: " + id);
+        return owner[o];
+    }
+
+    private int slotOf(long id) {
+        long s = id & SLOT_MASK;
+        if (s >= orderId.length) return NIL;
+        int o = (int) s;
+        return orderId[o] == id ? o : NIL;
+    }
+
+    // 📶 Existing level at this price on the resting side, or a new one inserted in price order
+    private int levelFor(boolean buy, long price) {
+        int[] side = buy ? bids : asks;
+        int count = buy ? bidCount : askCount;
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long p = levelPrice[side[mid]];
+            if (p == price) return side[mid];
+            if (buy ? p < price : p > price) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        if (freeLevel == NIL) return NIL;
+        int lvl = freeLevel;
+        freeLevel = head[lvl];
+        levelPrice[lvl] = price;
+        levelQty[lvl] = 0;
+        head[lvl] = NIL;
+        tail[lvl] = NIL;
+        levelBid[lvl] = buy;
+        System.arraycopy(side, lo, side, lo + 1, count - lo);
+        side[lo] = lvl;
+        if (buy) bidCount++;
+        else askCount++;
+        return lvl;
+    }
+
+    private void removeLevel(int lvl) {
+        boolean buy = levelBid[lvl];
+        int[] side = buy ? bids : asks;
+        int count = buy ? bidCount : askCount;
+        for (int i = count - 1; i >= 0; i--) {        // cancels cluster near the touch, at the end
+            if (side[i] != lvl) continue;
+            System.arraycopy(side, i + 1, side, i, count - i - 1);
+            break;
+        }
+        if (buy) bidCount--;
+        else askCount--;
+        releaseLevel(lvl);
+    }
+
+    private void append(int lvl, int o) {
+        next[o] = NIL;
+        prev[o] = tail[lvl];
+        if (tail[lvl] == NIL) head[lvl] = o;
+        else next[tail[lvl]] = o;
+        tail[lvl] = o;
+        levelQty[lvl] += remaining[o];
+    }
+
+    private void unlink(int lvl, int o) {
+        if (prev[o] == NIL) head[lvl] = next[o];
+        else next[prev[o]] = next[o];
+        if (next[o] == NIL) tail[lvl] = prev[o];
+        else prev[next[o]] = prev[o];
+    }
+
+    private void release(int o) {
+        orderId[o] = 0;
+        next[o] = freeOrder;
+        freeOrder = o;
+        orders--;
+    }
+
+    private void releaseLevel(int lvl) {
+        head[lvl] = freeLevel;
+        freeLevel = lvl;
+    }
+
+    // 📊 Top of book and depth; NO_PRICE when a side is empty
+    public long bestBid() {
+        return bidCount == 0 ? NO_PRICE : levelPrice[bids[bidCount - 1]];
+    }
+
+    public long bestAsk() {
+        return askCount == 0 ? NO_PRICE : levelPrice[asks[askCount - 1]];
+    }
+
+    public long bestBidQty() {
+        return bidCount == 0 ? 0 : levelQty[bids[bidCount - 1]];
+    }
+
+    public long bestAskQty() {
+        return askCount == 0 ? 0 : levelQty[asks[askCount - 1]];
+    }
+
+    // Copies up to prices.length levels of one side, best first; returns how many
+    public int depth(boolean bidSide, long[] prices, long[] quantities) {
+        int[] side = bidSide ? bids : asks;
+        int count = bidSide ? bidCount : askCount;
+        int n = Math.min(count, Math.min(prices.length, quantities.length));
+        for (int i = 0; i < n; i++) {
+            int lvl = side[count - 1 - i];
+            prices[i] = levelPrice[lvl];
+            quantities[i] = levelQty[lvl];
+        }
+        return n;
+    }
+
+    public int orderCount() {
+        return orders;
+    }
+
+    public int lastFilled() {
+        return lastFilled;
+    }
+
+    // Sum of price × quantity over the last submit's fills, in ticks
+    public long lastNotional() {
+        return lastNotional;
+    }
+}
@@ -0,0 +1,185 @@
+package app.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 🧱 Compact columnar binary export (.stkc). Rows are buffered into fixed-size row groups of
+// primitive columns; each group is written column by column so readers can skip what they don't need.
+//
+//   header   : int magic "STKC", short version
+//   group    : int rows, then per column (int byteLength, bytes):
+//              transaction_id  zig-zag varint delta
+//              created_at      zig-zag varint delta (epoch millis)
+//              symbol          varint dictionary index
+//              type            1 byte (0 = BUY, 1 = SELL)
+//              quantity        varint
+//              price           zig-zag varint, in paise (price × 100)
+//   footer   : varint dictionary size, (varint length, UTF-8 bytes) per symbol,
+//              int groupCount, long totalRows, long groupOffset per group
+//   trailer  : long footerOffset, int magic
+class ColumnarSink implements RowSink {
+
+    static final int MAGIC = 0x53544B43;
+    static final short VERSION = 1;
+    static final int ROW_GROUP = 65_536;
+
+    private final FileChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 16);
+    private final ByteBuffer column = ByteBuffer.allocate(ROW_GROUP * 10);
+
+    private final int[] ids = new int[ROW_GROUP];
+    private final long[] times = new long[ROW_GROUP];
+    private final int[] symbols = new int[ROW_GROUP];
+    private final byte[] types = new byte[ROW_GROUP];
+    private final int[] quantities = new int[ROW_GROUP];
+    private final long[] paise = new long[ROW_GROUP];
+    private int buffered;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryOrder = new ArrayList<>();
+    private final List<Long> groupOffsets = new ArrayList<>();
+    private long position;
+    private long totalRows;
+
+    ColumnarSink(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ensure(6);
+        out.putInt(MAGIC).putShort(VERSION);
+        position += 6;
+    }
+
+    @Override
+    public void row(int transactionId, String symbol, String type, int quantity, double price, long createdAtMillis) throws IOException {
+        int i = buffered;
+        ids[i] = transactionId;
+        times[i] = createdAtMillis;
+        symbols[i] = dictionary.computeIfAbsent(symbol == null ? "" : symbol, s -> {
+            dictionaryOrder.add(s);
+            return dictionaryOrder.size() - 1;
+        });
+        types[i] = (byte) ("SELL".equalsIgnoreCase(type) ? 1 : 0);
+        quantities[i] = quantity;
+        paise[i] = Math.round(price * 100);
+        if (++buffered == ROW_GROUP) flushGroup();
+    }
+
+    private void flushGroup() throws IOException {
+        if (buffered == 0) return;
+        int n = buffered;
+        groupOffsets.add(position);
+        putInt(n);
+
+        column.clear();
+        long prev = 0;
+        for (int i = 0; i < n; i++) { putZigZag(ids[i] - prev); prev = ids[i]; }
+        writeColumn();
+
+        prev = 0;
+        for (int i = 0; i < n; i++) { putZigZag(times[i] - prev); prev = times[i]; }
+        writeColumn();
+
+        for (int i = 0; i < n; i++) putVarint(symbols[i]);
+        writeColumn();
+
+        column.put(types, 0, n);
+        writeColumn();
+
+        for (int i = 0; i < n; i++) putVarint(quantities[i] & 0xFFFFFFFFL);
+        writeColumn();
+
+        for (int i = 0; i < n; i++) putZigZag(paise[i]);
+        writeColumn();
+
+        totalRows += n;
+        buffered = 0;
+    }
+
+    private void writeColumn() throws IOException {
+        column.flip();
+        putInt(column.remaining());
+        while (column.hasRemaining()) {
+            ensure(1);
+            int chunk = Math.min(out.remaining(), column.remaining());
+            ByteBuffer slice = column.slice().limit(chunk);
+            out.put(slice);
+            column.position(column.position() + chunk);
+            position += chunk;
+        }
+        column.clear();
+    }
+
+    private void putZigZag(long v) {
+        putVarint((v << 1) ^ (v >> 63));
+    }
+
+    private void putVarint(long v) {
+        while ((v & ~0x7FL) != 0) {
+            column.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        column.put((byte) v);
+    }
+
+    private void putInt(int v) throws IOException {
+        ensure(4);
+        out.putInt(v);
+        position += 4;
+    }
+
+    private void putLong(long v) throws IOException {
+        ensure(8);
+        out.putLong(v);
+        position += 8;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (out.remaining() < bytes) flushOut();
+    }
+
+    private void flushOut() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushGroup();
+
+            long footer = position;
+            column.clear();
+            putVarint(dictionaryOrder.size());
+            for (String s : dictionaryOrder) {
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                putVarint(b.length);
+                column.put(b);
+            }
+            column.flip();
+            while (column.hasRemaining()) {
+                ensure(1);
+                out.put(column.get());
+                position++;
+            }
+            putInt(groupOffsets.size());
+            putLong(totalRows);
+            for (long off : groupOffsets) putLong(off);
+            putLong(footer);
+            putInt(MAGIC);
+
+            flushOut();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
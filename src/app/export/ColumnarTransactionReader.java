@@ -0,0 +1,97 @@
+package app.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+
+// 📥 Reads .stkc files written by TransactionExporter (format described in ColumnarSink).
+// One row group is decoded at a time, so memory stays bounded by the group size.
+public class ColumnarTransactionReader {
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        void row(int transactionId, Timestamp createdAt, String symbol, String type, int quantity, double price);
+    }
+
+    // ✅ Returns the number of rows visited
+    public static long read(Path file, RowVisitor visitor) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            ByteBuffer trailer = readFully(ch, size - 12, 12);
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != ColumnarSink.MAGIC) throw new IOException("Not a .stkc file: " + file);
+
+            ByteBuffer head = readFully(ch, 0, 6);
+            if (head.getInt() != ColumnarSink.MAGIC || head.getShort() != ColumnarSink.VERSION) {
+                throw new IOException("Unsupported .stkc header: " + file);
+            }
+
+            ByteBuffer footer = readFully(ch, footerOffset, (int) (size - 12 - footerOffset));
+            String[] dictionary = new String[(int) getVarint(footer)];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] b = new byte[(int) getVarint(footer)];
+                footer.get(b);
+                dictionary[i] = new String(b, StandardCharsets.UTF_8);
+            }
+            int groups = footer.getInt();
+            footer.getLong(); // total rows
+            long[] offsets = new long[groups];
+            for (int g = 0; g < groups; g++) offsets[g] = footer.getLong();
+
+            long rows = 0;
+            for (int g = 0; g < groups; g++) {
+                long end = g + 1 < groups ? offsets[g + 1] : footerOffset;
+                ByteBuffer group = readFully(ch, offsets[g], (int) (end - offsets[g]));
+                int n = group.getInt();
+
+                ByteBuffer idCol = column(group), timeCol = column(group), symCol = column(group),
+                        typeCol = column(group), qtyCol = column(group), priceCol = column(group);
+                long id = 0, time = 0;
+                for (int i = 0; i < n; i++) {
+                    id += getZigZag(idCol);
+                    time += getZigZag(timeCol);
+                    visitor.row((int) id, new Timestamp(time), dictionary[(int) getVarint(symCol)],
+                            typeCol.get() == 1 ? "SELL" : "BUY", (int) getVarint(qtyCol), getZigZag(priceCol) / 100.0);
+                }
+                rows += n;
+            }
+            return rows;
+        }
+    }
+
+    private static ByteBuffer column(ByteBuffer group) {
+        int len = group.getInt();
+        ByteBuffer col = group.slice().limit(len);
+        group.position(group.position() + len);
+        return col;
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long offset, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, offset + buf.position()) < 0) throw new IOException("Truncated .stkc file");
+        }
+        return buf.flip();
+    }
+
+    private static long getVarint(ByteBuffer b) {
+        long v = 0;
+        int shift = 0;
+        byte x;
+        do {
+            x = b.get();
+            v |= (long) (x & 0x7F) << shift;
+            shift += 7;
+        } while ((x & 0x80) != 0);
+        return v;
+    }
+
+    private static long getZigZag(ByteBuffer b) {
+        long v = getVarint(b);
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
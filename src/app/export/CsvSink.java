@@ -0,0 +1,78 @@
+package app.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+
+// 📝 CSV through one reusable row builder and a 64 KiB direct buffer on a FileChannel
+class CsvSink implements RowSink {
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 16);
+    private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder line = new StringBuilder(128);
+
+    CsvSink(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        write("transaction_id,created_at,symbol,type,quantity,price\n");
+    }
+
+    @Override
+    public void row(int transactionId, String symbol, String type, int quantity, double price, long createdAtMillis) throws IOException {
+        line.setLength(0);
+        line.append(transactionId).append(',')
+                .append(new Timestamp(createdAtMillis).toString(), 0, 19).append(',');
+        appendField(symbol);
+        line.append(',');
+        appendField(type);
+        line.append(',').append(quantity).append(',').append(price).append('\n');
+        write(line);
+    }
+
+    // Quote only when needed
+    private void appendField(String s) {
+        if (s == null) return;
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) {
+            line.append(s);
+        } else {
+            line.append('"').append(s.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private void write(CharSequence cs) throws IOException {
+        CharBuffer in = CharBuffer.wrap(cs);
+        while (true) {
+            CoderResult r = utf8.encode(in, buf, true);
+            if (r.isOverflow()) {
+                flush();
+            } else {
+                break;
+            }
+        }
+        utf8.reset();
+    }
+
+    private void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
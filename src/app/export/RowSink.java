@@ -0,0 +1,12 @@
+package app.export;
+
+import java.io.IOException;
+
+// ✏️ Receives exported transaction rows one at a time
+interface RowSink extends AutoCloseable {
+
+    void row(int transactionId, String symbol, String type, int quantity, double price, long createdAtMillis) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,71 @@
+package app.export;
+
+import app.db.DBManager;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+
+// 📤 Streams a user's full transaction history to a file without materialising it.
+// The query runs forward-only/read-only with a streaming fetch size, each row goes straight into a
+// buffered NIO sink, so memory stays flat no matter how long the history is.
+// Output is written to <target>.part and moved into place only when complete.
+public class TransactionExporter {
+
+    public enum Format { CSV, COLUMNAR }
+
+    // 📊 Called from the exporting thread every REPORT_EVERY rows and once at the end
+    @FunctionalInterface
+    public interface Progress {
+        void update(long rowsWritten, long totalRows);
+    }
+
+    private static final int FETCH_SIZE = 1_000;
+    private static final int REPORT_EVERY = 10_000;
+
+    private final DBManager db;
+
+    public TransactionExporter(DBManager db) {
+        this.db = db;
+    }
+
+    public static Format formatFor(Path target) {
+        String name = target.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") ? Format.CSV : Format.COLUMNAR;
+    }
+
+    public long export(int userId, Path target, Format format, Progress progress) throws SQLException, IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        try (LatencyHistogram.Timer t = MetricsRegistry.shared().time("sql.exportTransactions");
+             Connection conn = db.getConnection()) {
+            long total = db.transactions().countByUser(conn, userId);
+            progress.update(0, total);
+
+            long rows;
+            try (RowSink sink = format == Format.CSV ? new CsvSink(part) : new ColumnarSink(part)) {
+                long[] written = {0};
+                rows = db.transactions().forEachOldestFirst(conn, userId, streamingFetchSize(conn),
+                        (id, symbol, type, qty, price, createdAt) -> {
+                            sink.row(id, symbol, type, qty, price, createdAt);
+                            if (++written[0] % REPORT_EVERY == 0) progress.update(written[0], total);
+                        });
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            progress.update(rows, Math.max(rows, total));
+            System.out.println("📤 Exported " + rows + " transactions to " + target);
+            return rows;
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+    }
+
+    // ✅ Connector/J only streams row-by-row with MIN_VALUE; other drivers take a normal batch size
+    private static int streamingFetchSize(Connection conn) throws SQLException {
+        return "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+}
@@ -0,0 +1,118 @@
+package app.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 🕯️ Incremental OHLC aggregation into memory-mapped <symbol>.<1s|1m|1h>.candles files.
+// Records are (long start, double open, high, low, close, long volume). The newest record is the open
+// candle: each tick updates it in place, and a tick in a later bucket appends the next one. Nothing is
+// buffered on the heap, so a restart resumes the open candle straight from the file.
+public class CandleAggregator implements Closeable {
+
+    static final int MAGIC = 0x53544B43;          // "STKC"
+    static final int RECORD_BYTES = 48;
+    private static final int RECORDS_PER_SEGMENT = 1 << 12;
+
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+
+    private final Path dir;
+    private final Map<String, MappedRecordFile> files = new ConcurrentHashMap<>();
+
+    public CandleAggregator(Path dir) throws IOException {
+        this.dir = Files.createDirectories(dir);
+    }
+
+    // ✍️ Handle feeding every interval of one symbol; keep it to skip the map lookups on every tick
+    public Writer writer(String symbol) throws IOException {
+        MappedRecordFile[] perInterval = new MappedRecordFile[INTERVALS.length];
+        for (CandleInterval interval : INTERVALS) perInterval[interval.ordinal()] = file(symbol, interval);
+        return new Writer(perInterval);
+    }
+
+    // 🔍 Candles whose bucket overlaps [fromNanos, toNanos], oldest first; the last one may still be open
+    public CandleRange range(String symbol, CandleInterval interval, long fromNanos, long toNanos) throws IOException {
+        MappedRecordFile f = files.get(key(symbol, interval));
+        if (f == null) {
+            if (!Files.exists(pathFor(symbol, interval))) return CandleRange.EMPTY;
+            f = file(symbol, interval);
+        }
+        long n = f.count();
+        return new CandleRange(f, f.lowerBound(interval.bucketStart(fromNanos), n), f.upperBound(toNanos, n));
+    }
+
+    private MappedRecordFile file(String symbol, CandleInterval interval) throws IOException {
+        try {
+            return files.computeIfAbsent(key(symbol, interval), k -> {
+                try {
+                    return MappedRecordFile.open(pathFor(symbol, interval), MAGIC, RECORD_BYTES, RECORDS_PER_SEGMENT);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String key(String symbol, CandleInterval interval) {
+        return symbol + '.' + interval.suffix();
+    }
+
+    private Path pathFor(String symbol, CandleInterval interval) {
+        return dir.resolve(TickStore.fileName(symbol) + "." + interval.suffix() + ".candles");
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (MappedRecordFile f : files.values()) f.close();
+        files.clear();
+    }
+
+    // ✍️ Single-writer; late ticks (older than the open candle) are folded into the open candle
+    public static final class Writer {
+        private final MappedRecordFile[] files;
+        private final long[] openStart;
+
+        Writer(MappedRecordFile[] files) {
+            this.files = files;
+            this.openStart = new long[files.length];
+            for (int k = 0; k < files.length; k++) {
+                long n = files[k].count();
+                openStart[k] = n == 0 ? Long.MIN_VALUE : files[k].timestampAt(n - 1);
+            }
+        }
+
+        public void onTick(long epochNanos, double price, long size) throws IOException {
+            for (int k = 0; k < files.length; k++) {
+                MappedRecordFile f = files[k];
+                long bucket = INTERVALS[k].bucketStart(epochNanos);
+                long n = f.count();
+                if (n > 0 && bucket <= openStart[k]) {
+                    MappedByteBuffer seg = f.mapped(n - 1);
+                    int off = f.offsetOf(n - 1);
+                    if (price > seg.getDouble(off + 16)) seg.putDouble(off + 16, price);
+                    if (price < seg.getDouble(off + 24)) seg.putDouble(off + 24, price);
+                    seg.putDouble(off + 32, price);
+                    seg.putLong(off + 40, seg.getLong(off + 40) + size);
+                } else {
+                    MappedByteBuffer seg = f.segmentFor(n);
+                    int off = f.offsetOf(n);
+                    seg.putLong(off, bucket)
+                            .putDouble(off + 8, price)
+                            .putDouble(off + 16, price)
+                            .putDouble(off + 24, price)
+                            .putDouble(off + 32, price)
+                            .putLong(off + 40, size);
+                    f.commit(n + 1);
+                    openStart[k] = bucket;
+                }
+            }
+        }
+    }
+}
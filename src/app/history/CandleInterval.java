@@ -0,0 +1,32 @@
+package app.history;
+
+import java.util.concurrent.TimeUnit;
+
+// ⏱️ Candle widths kept by the aggregator; suffix names the file (<symbol>.<suffix>.candles)
+public enum CandleInterval {
+    SECOND("1s", TimeUnit.SECONDS.toNanos(1)),
+    MINUTE("1m", TimeUnit.MINUTES.toNanos(1)),
+    HOUR("1h", TimeUnit.HOURS.toNanos(1));
+
+    private final String suffix;
+    private final long nanos;
+
+    CandleInterval(String suffix, long nanos) {
+        this.suffix = suffix;
+        this.nanos = nanos;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    // Start of the bucket containing epochNanos (Long.MIN_VALUE for the first, partial bucket)
+    public long bucketStart(long epochNanos) {
+        long bucket = Math.floorDiv(epochNanos, nanos);
+        return bucket == Math.floorDiv(Long.MIN_VALUE, nanos) ? Long.MIN_VALUE : bucket * nanos;
+    }
+}
@@ -0,0 +1,67 @@
+package app.history;
+
+import java.nio.MappedByteBuffer;
+
+// 🕯️ Zero-copy view over a slice of one symbol's candles for one interval.
+// The last candle may still be open; it is updated in place as ticks arrive, so its high/low/close/volume
+// can move between reads.
+public final class CandleRange {
+
+    static final CandleRange EMPTY = new CandleRange(null, 0, 0);
+
+    private final MappedRecordFile file;
+    private final long from;
+    private final int size;
+
+    CandleRange(MappedRecordFile file, long from, long to) {
+        this.file = file;
+        this.from = from;
+        this.size = (int) Math.min(Integer.MAX_VALUE, Math.max(0, to - from));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Bucket start, epoch nanoseconds
+    public long start(int i) {
+        return buf(i).getLong(offset(i));
+    }
+
+    public double open(int i) {
+        return buf(i).getDouble(offset(i) + 8);
+    }
+
+    public double high(int i) {
+        return buf(i).getDouble(offset(i) + 16);
+    }
+
+    public double low(int i) {
+        return buf(i).getDouble(offset(i) + 24);
+    }
+
+    public double close(int i) {
+        return buf(i).getDouble(offset(i) + 32);
+    }
+
+    public long volume(int i) {
+        return buf(i).getLong(offset(i) + 40);
+    }
+
+    private MappedByteBuffer buf(int i) {
+        return file.mapped(index(i));
+    }
+
+    private int offset(int i) {
+        return file.offsetOf(index(i));
+    }
+
+    private long index(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return from + i;
+    }
+}
@@ -0,0 +1,139 @@
+package app.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// 🗺️ Append-only file of fixed-width records, memory-mapped in fixed-size segments.
+// Header (64 bytes): magic, version, record size, committed record count. The count is written after
+// the record itself, so a crash never exposes a half-written record. One writer thread; any number of
+// readers see records below count() without locks or copies (absolute reads on the mapped buffers).
+final class MappedRecordFile implements Closeable {
+
+    private static final int HEADER_BYTES = 64;
+    private static final int VERSION = 1;
+    private static final int COUNT_OFFSET = 16;
+
+    private final FileChannel channel;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final MappedByteBuffer header;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile long count;
+
+    private MappedRecordFile(FileChannel channel, int recordSize, int recordsPerSegment, MappedByteBuffer header, long count) {
+        this.channel = channel;
+        this.recordSize = recordSize;
+        this.recordsPerSegment = recordsPerSegment;
+        this.header = header;
+        this.count = count;
+    }
+
+    static MappedRecordFile open(Path path, int magic, int recordSize, int recordsPerSegment) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean fresh = ch.size() < HEADER_BYTES;
+            MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            long count = 0;
+            if (fresh) {
+                header.putInt(0, magic).putInt(4, VERSION).putInt(8, recordSize).putLong(COUNT_OFFSET, 0);
+            } else {
+                if (header.getInt(0) != magic) throw new IOException("Unexpected file type: " + path);
+                if (header.getInt(8) != recordSize) throw new IOException("Record size mismatch in " + path);
+                count = header.getLong(COUNT_OFFSET);
+            }
+            MappedRecordFile f = new MappedRecordFile(ch, recordSize, recordsPerSegment, header, count);
+            if (count > 0) f.segmentFor(count - 1);
+            return f;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    int recordSize() {
+        return recordSize;
+    }
+
+    // 📍 Buffer holding record index — maps (and grows the file) on first touch of a new segment
+    MappedByteBuffer segmentFor(long index) throws IOException {
+        int seg = (int) (index / recordsPerSegment);
+        MappedByteBuffer[] current = segments;
+        if (seg < current.length) return current[seg];
+        synchronized (this) {
+            current = segments;
+            if (seg >= current.length) {
+                MappedByteBuffer[] grown = Arrays.copyOf(current, seg + 1);
+                long segmentBytes = (long) recordsPerSegment * recordSize;
+                for (int s = current.length; s <= seg; s++) {
+                    grown[s] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + s * segmentBytes, segmentBytes);
+                }
+                segments = grown;
+                current = grown;
+            }
+            return current[seg];
+        }
+    }
+
+    // Readers: the segment of a committed record is always mapped already
+    MappedByteBuffer mapped(long index) {
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    int offsetOf(long index) {
+        return (int) (index % recordsPerSegment) * recordSize;
+    }
+
+    long timestampAt(long index) {
+        return mapped(index).getLong(offsetOf(index));
+    }
+
+    // ✅ Publish records below newCount (header first for durability, then the volatile for readers)
+    void commit(long newCount) {
+        header.putLong(COUNT_OFFSET, newCount);
+        count = newCount;
+    }
+
+    // 🔍 First index in [0, limit) whose leading timestamp is >= ts (records are in timestamp order)
+    long lowerBound(long ts, long limit) {
+        long lo = 0, hi = limit;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (timestampAt(mid) < ts) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // First index in [0, limit) whose leading timestamp is > ts
+    long upperBound(long ts, long limit) {
+        long lo = 0, hi = limit;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (timestampAt(mid) <= ts) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    void force() {
+        header.force();
+        for (MappedByteBuffer b : segments) b.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,47 @@
+package app.history;
+
+// 🔭 Zero-copy view over a slice of one symbol's tick file — reads go straight to the mapped pages.
+// The slice is fixed at creation; ticks appended later are not part of it.
+public final class TickRange {
+
+    static final TickRange EMPTY = new TickRange(null, 0, 0);
+
+    private final MappedRecordFile file;
+    private final long from;
+    private final int size;
+
+    TickRange(MappedRecordFile file, long from, long to) {
+        this.file = file;
+        this.from = from;
+        this.size = (int) Math.min(Integer.MAX_VALUE, Math.max(0, to - from));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Epoch nanoseconds
+    public long timestamp(int i) {
+        long idx = index(i);
+        return file.mapped(idx).getLong(file.offsetOf(idx));
+    }
+
+    public double price(int i) {
+        long idx = index(i);
+        return file.mapped(idx).getDouble(file.offsetOf(idx) + 8);
+    }
+
+    public long size(int i) {
+        long idx = index(i);
+        return file.mapped(idx).getLong(file.offsetOf(idx) + 16);
+    }
+
+    private long index(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return from + i;
+    }
+}
@@ -0,0 +1,97 @@
+package app.history;
+
+import app.market.PriceStore;
+import app.market.TickListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// 📼 Feed listener that persists every tick and keeps the candles current.
+// Runs on the feed thread: per-symbol writers sit in arrays indexed by PriceStore id, so a tick costs
+// a few stores into mapped pages. Feed timestamps are System.nanoTime(); they are converted to epoch
+// nanos once here so history stays meaningful across restarts.
+//   stockup.history       record ticks (default false: nothing expires, the files grow for as long as it runs)
+//   stockup.history.dir   directory for .ticks/.candles files (default ~/.stockup/history)
+public class TickRecorder implements TickListener, Closeable {
+
+    private final PriceStore prices;
+    private final TickStore ticks;
+    private final CandleAggregator candles;
+    private final long epochOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    private TickStore.Writer[] tickWriters = new TickStore.Writer[0];
+    private CandleAggregator.Writer[] candleWriters = new CandleAggregator.Writer[0];
+    private volatile long recorded;
+    private volatile boolean failed;
+
+    public TickRecorder(PriceStore prices, Path dir) throws IOException {
+        this.prices = prices;
+        this.ticks = new TickStore(dir);
+        this.candles = new CandleAggregator(dir);
+    }
+
+    // Null when recording is switched off or the directory is unusable
+    public static TickRecorder fromSystemProperties(PriceStore prices) {
+        if (!Boolean.parseBoolean(System.getProperty("stockup.history", "false"))) return null;
+        Path dir = Path.of(System.getProperty("stockup.history.dir",
+                Path.of(System.getProperty("user.home"), ".stockup", "history").toString()));
+        try {
+            return new TickRecorder(prices, dir);
+        } catch (IOException e) {
+            System.out.println("⚠️ Tick history disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void onTick(int symbolId, double price, long size, long timestampNanos) {
+        if (failed) return;
+        try {
+            if (symbolId >= tickWriters.length) {
+                int capacity = Math.max(symbolId + 1, tickWriters.length * 2);
+                tickWriters = Arrays.copyOf(tickWriters, capacity);
+                candleWriters = Arrays.copyOf(candleWriters, capacity);
+            }
+            TickStore.Writer tw = tickWriters[symbolId];
+            if (tw == null) {
+                String symbol = prices.symbolOf(symbolId);
+                tw = ticks.writer(symbol);
+                candleWriters[symbolId] = candles.writer(symbol);
+                tickWriters[symbolId] = tw;
+            }
+            long epochNanos = timestampNanos + epochOffsetNanos;
+            tw.append(epochNanos, price, size);
+            candleWriters[symbolId].onTick(epochNanos, price, size);
+            recorded++;
+        } catch (IOException e) {
+            // ❌ Disk full or unmappable file: stop recording rather than fail every tick
+            failed = true;
+            e.printStackTrace();
+        }
+    }
+
+    // 🔁 Feed-clock timestamp (System.nanoTime) to the epoch nanos stored on disk
+    public long toEpochNanos(long feedNanos) {
+        return feedNanos + epochOffsetNanos;
+    }
+
+    public TickStore ticks() {
+        return ticks;
+    }
+
+    public CandleAggregator candles() {
+        return candles;
+    }
+
+    public long recorded() {
+        return recorded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ticks.close();
+        candles.close();
+    }
+}
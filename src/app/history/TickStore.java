@@ -0,0 +1,104 @@
+package app.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 🗃️ Per-symbol tick history: one memory-mapped <symbol>.ticks file each, records of
+// (long epochNanos, double price, long size). Appends are plain stores into the mapping;
+// range() hands out zero-copy views, so days of ticks never touch the heap.
+public class TickStore implements Closeable {
+
+    static final int MAGIC = 0x53544B54;          // "STKT"
+    static final int RECORD_BYTES = 24;
+    private static final int RECORDS_PER_SEGMENT = 1 << 16;
+
+    private final Path dir;
+    private final Map<String, MappedRecordFile> files = new ConcurrentHashMap<>();
+
+    public TickStore(Path dir) throws IOException {
+        this.dir = Files.createDirectories(dir);
+    }
+
+    // ✍️ Handle for one symbol's file; keep it to skip the map lookup on every tick
+    public Writer writer(String symbol) throws IOException {
+        return new Writer(file(symbol));
+    }
+
+    public void append(String symbol, long epochNanos, double price, long size) throws IOException {
+        writer(symbol).append(epochNanos, price, size);
+    }
+
+    public long count(String symbol) throws IOException {
+        return existing(symbol) == null ? 0 : file(symbol).count();
+    }
+
+    // 🔍 Ticks with fromNanos <= timestamp <= toNanos
+    public TickRange range(String symbol, long fromNanos, long toNanos) throws IOException {
+        MappedRecordFile f = existing(symbol);
+        if (f == null) return TickRange.EMPTY;
+        long n = f.count();
+        return new TickRange(f, f.lowerBound(fromNanos, n), f.upperBound(toNanos, n));
+    }
+
+    private MappedRecordFile existing(String symbol) throws IOException {
+        MappedRecordFile f = files.get(symbol);
+        if (f != null) return f;
+        return Files.exists(pathFor(symbol)) ? file(symbol) : null;
+    }
+
+    private MappedRecordFile file(String symbol) throws IOException {
+        try {
+            return files.computeIfAbsent(symbol, s -> {
+                try {
+                    return MappedRecordFile.open(pathFor(s), MAGIC, RECORD_BYTES, RECORDS_PER_SEGMENT);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Path pathFor(String symbol) {
+        return dir.resolve(fileName(symbol) + ".ticks");
+    }
+
+    static String fileName(String symbol) {
+        return symbol.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (MappedRecordFile f : files.values()) f.close();
+        files.clear();
+    }
+
+    // ✍️ Single-writer appender; timestamps are clamped so the file stays sorted for binary search
+    public static final class Writer {
+        private final MappedRecordFile file;
+        private long last;
+
+        Writer(MappedRecordFile file) {
+            this.file = file;
+            long n = file.count();
+            this.last = n == 0 ? Long.MIN_VALUE : file.timestampAt(n - 1);
+        }
+
+        public void append(long epochNanos, double price, long size) throws IOException {
+            long ts = Math.max(epochNanos, last);
+            long i = file.count();
+            MappedByteBuffer seg = file.segmentFor(i);
+            int off = file.offsetOf(i);
+            seg.putLong(off, ts).putDouble(off + 8, price).putLong(off + 16, size);
+            file.commit(i + 1);
+            last = ts;
+        }
+    }
+}
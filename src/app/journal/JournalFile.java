@@ -0,0 +1,148 @@
+package app.journal;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+// 🧾 Append-only journal file.
+// Header: magic "STKJ", version, 16-byte journal id (names this log in journal_checkpoint).
+// Each record is framed as [int length][int crc32][payload]; a torn or corrupt tail left by a crash
+// is detected on read and cut off, so appends always continue after the last good record.
+final class JournalFile implements Closeable {
+
+    private static final int MAGIC = 0x53544B4A;   // "STKJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 16;
+
+    private final FileChannel channel;
+    private final UUID id;
+
+    private JournalFile(FileChannel channel, UUID id) {
+        this.channel = channel;
+        this.id = id;
+    }
+
+    static JournalFile open(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // One session per journal: a second app instance for the same user must not interleave appends
+            FileLock lock;
+            try {
+                lock = ch.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) throw new IOException("Journal is in use by another session: " + path);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (ch.size() < HEADER_BYTES) {
+                UUID id = UUID.randomUUID();
+                header.putInt(MAGIC).putInt(VERSION)
+                        .putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).flip();
+                ch.truncate(0);
+                ch.write(header, 0);
+                ch.force(true);
+                return new JournalFile(ch, id);
+            }
+            ch.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) throw new IOException("Not a journal file: " + path);
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported journal version " + version + " in " + path);
+            return new JournalFile(ch, new UUID(header.getLong(), header.getLong()));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    // 🔍 Every intact record in order; anything after the first bad frame is truncated away
+    List<JournalRecord> readAll() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        long pos = HEADER_BYTES;
+        long end = channel.size();
+        ByteBuffer frame = ByteBuffer.allocate(8);
+        CRC32 crc = new CRC32();
+        while (pos + 8 <= end) {
+            frame.clear();
+            channel.read(frame, pos);
+            frame.flip();
+            int length = frame.getInt();
+            int checksum = frame.getInt();
+            if (length <= 0 || pos + 8 + length > end) break;
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, pos + 8);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) break;
+            records.add(JournalRecord.readFrom(new DataInputStream(new ByteArrayInputStream(payload.array()))));
+            pos += 8 + length;
+        }
+        if (pos < end) {
+            System.err.println("⚠️ Journal: discarding " + (end - pos) + " bytes of torn/corrupt tail");
+            channel.truncate(pos);
+        }
+        return records;
+    }
+
+    // ✍️ Writes all records with one write call; durability comes from sync()
+    void append(List<JournalRecord> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(96);
+        DataOutputStream payloadOut = new DataOutputStream(payload);
+        CRC32 crc = new CRC32();
+        for (JournalRecord r : records) {
+            payload.reset();
+            r.writeTo(payloadOut);
+            payloadOut.flush();
+            crc.reset();
+            crc.update(payload.toByteArray());
+            out.writeInt(payload.size());
+            out.writeInt((int) crc.getValue());
+            payload.writeTo(out);
+        }
+        out.flush();
+        ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+        long pos = channel.size();
+        while (buf.hasRemaining()) pos += channel.write(buf, pos);
+    }
+
+    void sync() throws IOException {
+        channel.force(false);
+    }
+
+    // ✂️ Cut a failed append back off, so records that never became durable are not replayed
+    void truncate(long size) throws IOException {
+        channel.truncate(size);
+        channel.force(true);
+    }
+
+    // 🧹 Drop all records (they are in MySQL); the header and journal id stay
+    void reset() throws IOException {
+        channel.truncate(HEADER_BYTES);
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,85 @@
+package app.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// 📝 One journaled mutation. Records are immutable and carry everything needed to apply them
+// to MySQL later, so the log alone is enough to recover after a crash.
+public final class JournalRecord {
+
+    public enum Kind { TRADE, DEPOSIT, WATCH_ADD, WATCH_REMOVE }
+
+    private final long seq;
+    private final Kind kind;
+    private final int userId;
+    private final String symbol;
+    private final String companyName;
+    private final String side;
+    private final int quantity;
+    private final double price;
+    private final double amount;
+    private final long timestampMillis;
+
+    private JournalRecord(long seq, Kind kind, int userId, String symbol, String companyName, String side,
+                          int quantity, double price, double amount, long timestampMillis) {
+        this.seq = seq;
+        this.kind = kind;
+        this.userId = userId;
+        this.symbol = symbol;
+        this.companyName = companyName;
+        this.side = side;
+        this.quantity = quantity;
+        this.price = price;
+        this.amount = amount;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public static JournalRecord trade(long seq, int userId, String symbol, String companyName, String side,
+                                      int quantity, double price, long timestampMillis) {
+        return new JournalRecord(seq, Kind.TRADE, userId, symbol, companyName, side, quantity, price,
+                price * quantity, timestampMillis);
+    }
+
+    public static JournalRecord deposit(long seq, int userId, double amount, long timestampMillis) {
+        return new JournalRecord(seq, Kind.DEPOSIT, userId, "", "", "", 0, 0, amount, timestampMillis);
+    }
+
+    public static JournalRecord watchAdd(long seq, int userId, String symbol, String companyName, long timestampMillis) {
+        return new JournalRecord(seq, Kind.WATCH_ADD, userId, symbol, companyName, "", 0, 0, 0, timestampMillis);
+    }
+
+    public static JournalRecord watchRemove(long seq, int userId, String symbol, long timestampMillis) {
+        return new JournalRecord(seq, Kind.WATCH_REMOVE, userId, symbol, "", "", 0, 0, 0, timestampMillis);
+    }
+
+    public long getSeq() { return seq; }
+    public Kind getKind() { return kind; }
+    public int getUserId() { return userId; }
+    public String getSymbol() { return symbol; }
+    public String getCompanyName() { return companyName; }
+    public String getSide() { return side; }
+    public int getQuantity() { return quantity; }
+    public double getPrice() { return price; }
+    public double getAmount() { return amount; }
+    public long getTimestampMillis() { return timestampMillis; }
+    public boolean isBuy() { return side.equals("BUY"); }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(seq);
+        out.writeByte(kind.ordinal());
+        out.writeInt(userId);
+        out.writeUTF(symbol);
+        out.writeUTF(companyName);
+        out.writeUTF(side);
+        out.writeInt(quantity);
+        out.writeDouble(price);
+        out.writeDouble(amount);
+        out.writeLong(timestampMillis);
+    }
+
+    static JournalRecord readFrom(DataInput in) throws IOException {
+        return new JournalRecord(in.readLong(), Kind.values()[in.readUnsignedByte()], in.readInt(),
+                in.readUTF(), in.readUTF(), in.readUTF(), in.readInt(), in.readDouble(), in.readDouble(), in.readLong());
+    }
+}
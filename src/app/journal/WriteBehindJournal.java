@@ -0,0 +1,670 @@
+package app.journal;
+
+import app.db.DBManager;
+import app.metrics.LatencyHistogram;
+import app.metrics.MetricsRegistry;
+import app.models.PortfolioItem;
+import app.models.TradeResult;
+import app.models.Transaction;
+import app.models.WatchlistItem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// 📒 Write-behind journal for one user's session.
+// Trades, deposits and watchlist edits are validated against in-memory account state, appended to a
+// local log and fsynced in groups (one force() covers everything queued meanwhile); the caller's future
+// completes as soon as its record is durable. A background flusher applies the log to MySQL in JDBC
+// batches, one transaction per flush, advancing journal_checkpoint in that same transaction.
+// On open, records a previous session left unapplied are replayed before state is loaded.
+// A failed write fences the journal: that batch and everything queued behind it fail, the log is cut back
+// to its last durable record, the session state rolls back to what is durable, and nothing more is
+// accepted; records that were already durable still go to MySQL.
+// MySQL errors that can pass (timeouts, deadlocks, lost connections) are retried. Any other error means
+// the batch will never apply: it and everything behind it move to journal-<userId>.dead, the checkpoint
+// moves past them so they are not replayed, and the journal refuses further mutations and fails pending
+// flushes with that error. The next login starts again from what MySQL holds.
+//   stockup.journal           true (default) | false — false keeps the synchronous DBManager paths
+//   stockup.journal.dir       directory for journal-<userId>.log (default ~/.stockup/journal)
+//   stockup.journal.flushMs   longest a durable record waits before going to MySQL (default 200)
+//   stockup.journal.batch     max records per MySQL transaction (default 500)
+public class WriteBehindJournal implements AutoCloseable {
+
+    private static final long COMPACT_BYTES = 1 << 20;
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+    private static final long MAX_RETRY_MS = 30_000;
+
+    private final DBManager db;
+    private final int userId;
+    private final JournalFile file;
+    private final Path deadLetterPath;
+    private JournalFile deadLetter;                // opened on first use, flusher / open only
+    private long deadLetteredSeq;
+    private final String journalId;
+    private final long flushIntervalMs;
+    private final int maxBatch;
+    private final Object fileLock = new Object();
+    private final MetricsRegistry metrics = MetricsRegistry.shared();
+    private final LatencyHistogram fsyncLatency = metrics.histogram("journal.fsync");
+    private final LatencyHistogram applyLatency = metrics.histogram("journal.apply");
+
+    // 💰 Session state (guarded by this), and the same state as of the last fsync to roll back to
+    private double balance;
+    private final Map<String, Holding> holdings = new HashMap<>();
+    private double durableBalance;
+    private final Map<String, Holding> durableHoldings = new HashMap<>();
+    private long nextSeq;
+
+    // 🚚 Pipeline (guarded by this): submitted → toWrite → durable in the log → toApply → in MySQL
+    private final List<Pending> toWrite = new ArrayList<>();
+    private final ArrayDeque<JournalRecord> toApply = new ArrayDeque<>();
+    private final List<FlushWaiter> flushWaiters = new ArrayList<>();
+    private long oldestQueuedAt;
+    private long lastAppliedSeq;
+    private boolean flushRequested;
+    private boolean closing;
+    private boolean writerDone;
+    private IOException writeFailure;
+    private Exception rejected;                    // a batch MySQL will never accept
+
+    private final Thread writer;
+    private final Thread flusher;
+
+    private WriteBehindJournal(DBManager db, int userId, JournalFile file, Path deadLetterPath,
+                               long flushIntervalMs, int maxBatch) {
+        this.db = db;
+        this.userId = userId;
+        this.file = file;
+        this.deadLetterPath = deadLetterPath;
+        this.journalId = file.id().toString();
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatch = maxBatch;
+        this.writer = new Thread(this::writeLoop, "journal-writer-" + userId);
+        this.flusher = new Thread(this::flushLoop, "journal-flusher-" + userId);
+        writer.setDaemon(true);
+        flusher.setDaemon(true);
+    }
+
+    // ✅ null when stockup.journal=false
+    public static WriteBehindJournal openFromSystemProperties(DBManager db, int userId) throws SQLException, IOException {
+        if (!Boolean.parseBoolean(System.getProperty("stockup.journal", "true"))) return null;
+        String dir = System.getProperty("stockup.journal.dir",
+                Path.of(System.getProperty("user.home"), ".stockup", "journal").toString());
+        return open(db, userId, Path.of(dir),
+                Long.getLong("stockup.journal.flushMs", 200), Integer.getInteger("stockup.journal.batch", 500));
+    }
+
+    public static WriteBehindJournal open(DBManager db, int userId, Path dir, long flushIntervalMs, int maxBatch)
+            throws SQLException, IOException {
+        JournalFile file = JournalFile.open(dir.resolve("journal-" + userId + ".log"));
+        try {
+            WriteBehindJournal journal = new WriteBehindJournal(db, userId, file,
+                    dir.resolve("journal-" + userId + ".dead"), flushIntervalMs, Math.max(1, maxBatch));
+            journal.recover(file.readAll());
+            journal.loadState();
+            journal.metrics.registerGauge("journal.pending", journal::pendingCount);
+            journal.writer.start();
+            journal.flusher.start();
+            return journal;
+        } catch (SQLException | IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    // 🔁 Crash recovery: apply whatever the last session journaled but never got into MySQL
+    private void recover(List<JournalRecord> leftover) throws SQLException, IOException {
+        long checkpoint;
+        try (Connection conn = db.getConnection()) {
+            checkpoint = db.journalCheckpoints().lastAppliedSeq(conn, journalId);
+        }
+        long maxSeq = checkpoint;
+        int replayed = 0;
+        for (int i = 0; i < leftover.size(); i += maxBatch) {
+            List<JournalRecord> chunk = leftover.subList(i, Math.min(leftover.size(), i + maxBatch));
+            try {
+                replayed += apply(chunk);
+            } catch (SQLException | RuntimeException e) {
+                if (isTransient(e)) throw e;
+                List<JournalRecord> rest = leftover.subList(i, leftover.size());
+                report(e, rest);
+                quarantine(rest);
+                maxSeq = Math.max(maxSeq, rest.get(rest.size() - 1).getSeq());
+                break;
+            }
+            maxSeq = Math.max(maxSeq, chunk.get(chunk.size() - 1).getSeq());
+        }
+        file.reset();
+        nextSeq = maxSeq + 1;
+        lastAppliedSeq = maxSeq;
+        if (replayed > 0) System.out.println("📒 Journal: replayed " + replayed + " unflushed records for user " + userId);
+    }
+
+    private void loadState() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            balance = db.accounts().getBalance(conn, userId);
+            for (PortfolioItem p : db.portfolio().findByUser(conn, userId)) {
+                holdings.put(p.getSymbol(), new Holding(p.getCompanyName(), p.getQuantity(), p.getAvgPrice()));
+            }
+        }
+        durableBalance = balance;
+        copyHoldings(holdings, durableHoldings);
+    }
+
+    // 💸 Same checks and result as DBManager.executeTrade, against the session state
+    public CompletableFuture<TradeResult> trade(String symbol, String companyName, String side, int qty, double price) {
+        if (qty <= 0) throw new IllegalArgumentException("Quantity must be positive");
+        String type = side.toUpperCase();
+        boolean buy = type.equals("BUY");
+        if (!buy && !type.equals("SELL")) throw new IllegalArgumentException("Unknown side: " + side);
+        double amount = price * qty;
+
+        synchronized (this) {
+            if (!usable()) return CompletableFuture.failedFuture(unusable());
+            Holding h = holdings.get(symbol);
+            int oldQty = h == null ? 0 : h.quantity;
+            double oldAvg = h == null ? 0 : h.avgPrice;
+
+            if (buy && balance < amount) {
+                metrics.counter("trades.rejected").increment();
+                return CompletableFuture.completedFuture(new TradeResult(
+                        TradeResult.Status.INSUFFICIENT_FUNDS, symbol, type, qty, price, oldQty, oldAvg, balance));
+            }
+            if (!buy && oldQty < qty) {
+                metrics.counter("trades.rejected").increment();
+                return CompletableFuture.completedFuture(new TradeResult(
+                        TradeResult.Status.INSUFFICIENT_SHARES, symbol, type, qty, price, oldQty, oldAvg, balance));
+            }
+
+            if (h == null) {
+                h = new Holding(companyName, 0, 0);
+                holdings.put(symbol, h);
+            }
+            h.apply(buy, qty, amount);
+            if (h.quantity == 0) holdings.remove(symbol);
+            balance += buy ? -amount : amount;
+
+            long ts = System.currentTimeMillis() / 1000 * 1000;
+            TradeResult result = new TradeResult(TradeResult.Status.FILLED, symbol, type, qty, price,
+                    h.quantity, h.avgPrice, balance);
+            result.setTransaction(new Transaction(0, symbol, type, qty, price, new Timestamp(ts)));
+            metrics.counter("trades.filled").increment();
+            return enqueue(JournalRecord.trade(nextSeq++, userId, symbol, companyName, type, qty, price, ts))
+                    .thenApply(v -> result);
+        }
+    }
+
+    // 💰 Returns the new session balance
+    public CompletableFuture<Double> deposit(double amount) {
+        if (amount <= 0) throw new IllegalArgumentException("Amount must be positive");
+        synchronized (this) {
+            if (!usable()) return CompletableFuture.failedFuture(unusable());
+            balance += amount;
+            double newBalance = balance;
+            return enqueue(JournalRecord.deposit(nextSeq++, userId, amount, System.currentTimeMillis()))
+                    .thenApply(v -> newBalance);
+        }
+    }
+
+    public synchronized CompletableFuture<Void> addToWatchlist(String symbol, String companyName) {
+        if (!usable()) return CompletableFuture.failedFuture(unusable());
+        return enqueue(JournalRecord.watchAdd(nextSeq++, userId, symbol, companyName, System.currentTimeMillis()));
+    }
+
+    public synchronized CompletableFuture<Void> removeFromWatchlist(String symbol) {
+        if (!usable()) return CompletableFuture.failedFuture(unusable());
+        return enqueue(JournalRecord.watchRemove(nextSeq++, userId, symbol, System.currentTimeMillis()));
+    }
+
+    public synchronized double getBalance() {
+        return balance;
+    }
+
+    // Records accepted but not yet in MySQL
+    public synchronized long pendingCount() {
+        return nextSeq - 1 - lastAppliedSeq;
+    }
+
+    // 🚿 Completes once everything submitted so far is in MySQL (e.g. before an export reads it back)
+    public synchronized CompletableFuture<Void> flush() {
+        long target = nextSeq - 1;
+        if (target <= lastAppliedSeq) return CompletableFuture.completedFuture(null);
+        if (writeFailure != null || rejected != null) return CompletableFuture.failedFuture(unusable());
+        FlushWaiter w = new FlushWaiter(target);
+        flushWaiters.add(w);
+        flushRequested = true;
+        notifyAll();
+        return w.future;
+    }
+
+    private boolean usable() {
+        return !closing && writeFailure == null && rejected == null;
+    }
+
+    private IllegalStateException unusable() {
+        if (closing) return new IllegalStateException("Journal is closed");
+        return writeFailure != null ? new IllegalStateException("Journal write failed", writeFailure)
+                : new IllegalStateException("Journal records rejected by MySQL", rejected);
+    }
+
+    private CompletableFuture<Void> enqueue(JournalRecord record) {
+        Pending p = new Pending(record);
+        toWrite.add(p);
+        metrics.counter("journal.records").increment();
+        notifyAll();
+        return p.durable;
+    }
+
+    // ✍️ Group commit: everything queued while the previous fsync ran goes out in the next one
+    private void writeLoop() {
+        while (true) {
+            List<Pending> batch;
+            synchronized (this) {
+                while (toWrite.isEmpty() && !closing) waitQuietly(0);
+                if (toWrite.isEmpty()) {
+                    writerDone = true;
+                    notifyAll();
+                    return;
+                }
+                batch = new ArrayList<>(toWrite);
+                toWrite.clear();
+            }
+
+            List<JournalRecord> records = new ArrayList<>(batch.size());
+            for (Pending p : batch) records.add(p.record);
+            long goodSize = -1;
+            try {
+                synchronized (fileLock) {
+                    goodSize = file.size();
+                    try (LatencyHistogram.Timer t = fsyncLatency.time()) {
+                        file.append(records);
+                        file.sync();
+                    }
+                }
+            } catch (IOException e) {
+                fence(batch, goodSize, e);
+                return;
+            }
+
+            synchronized (this) {
+                for (JournalRecord r : records) makeDurable(r);
+                if (toApply.isEmpty()) oldestQueuedAt = System.currentTimeMillis();
+                toApply.addAll(records);
+                notifyAll();
+            }
+            for (Pending p : batch) p.durable.complete(null);
+        }
+    }
+
+    // Holds this. Advances the rollback point past a record that is now in the log
+    private void makeDurable(JournalRecord r) {
+        switch (r.getKind()) {
+            case TRADE -> {
+                Holding h = durableHoldings.computeIfAbsent(r.getSymbol(), s -> new Holding(r.getCompanyName(), 0, 0));
+                h.apply(r.isBuy(), r.getQuantity(), r.getAmount());
+                if (h.quantity == 0) durableHoldings.remove(r.getSymbol());
+                durableBalance += r.isBuy() ? -r.getAmount() : r.getAmount();
+            }
+            case DEPOSIT -> durableBalance += r.getAmount();
+            case WATCH_ADD, WATCH_REMOVE -> { }
+        }
+    }
+
+    // 🚧 Writer thread, after a failed append or fsync: fail the batch and everything queued behind it,
+    // cut the log back, roll the session state back to the last durable record and stop writing
+    private void fence(List<Pending> batch, long goodSize, IOException e) {
+        System.err.println("❌ Journal write failed — pending mutations are rolled back and further ones refused");
+        e.printStackTrace();
+        if (goodSize >= 0) {
+            synchronized (fileLock) {
+                try {
+                    file.truncate(goodSize);
+                } catch (IOException t) {
+                    System.err.println("⚠️ Journal: could not cut off the failed write; it may be replayed on next open");
+                    t.printStackTrace();
+                }
+            }
+        }
+        List<Pending> failed = new ArrayList<>(batch);
+        synchronized (this) {
+            writeFailure = e;
+            failed.addAll(toWrite);
+            toWrite.clear();
+            nextSeq = batch.get(0).record.getSeq();
+            balance = durableBalance;
+            copyHoldings(durableHoldings, holdings);
+            for (FlushWaiter w : flushWaiters) w.future.completeExceptionally(e);
+            flushWaiters.clear();
+            writerDone = true;
+            notifyAll();
+        }
+        for (Pending p : failed) p.durable.completeExceptionally(e);
+    }
+
+    private static void copyHoldings(Map<String, Holding> from, Map<String, Holding> to) {
+        to.clear();
+        for (Map.Entry<String, Holding> e : from.entrySet()) {
+            Holding h = e.getValue();
+            to.put(e.getKey(), new Holding(h.companyName, h.quantity, h.avgPrice));
+        }
+    }
+
+    // 🚚 Moves durable records into MySQL; on a transient failure they stay queued (and in the log) and are
+    // retried. Once a batch has been rejected, it and every later one go to the dead-letter file instead.
+    private void flushLoop() {
+        long retryDelay = 500;
+        while (true) {
+            List<JournalRecord> batch;
+            boolean reject;
+            synchronized (this) {
+                batch = nextBatch();
+                if (batch == null) return;
+                reject = rejected != null;
+            }
+            try {
+                if (reject) quarantine(batch);
+                else apply(batch);
+                retryDelay = 500;
+            } catch (SQLException | IOException | RuntimeException e) {
+                if (!reject && !isTransient(e)) {
+                    reject(e, batch);
+                    continue;                   // the same batch again, this time to the dead-letter file
+                }
+                System.err.println("⚠️ Journal flush failed, will retry: " + e.getMessage());
+                synchronized (this) {
+                    if (closing) return;
+                    waitQuietly(retryDelay);
+                }
+                retryDelay = Math.min(MAX_RETRY_MS, retryDelay * 2);
+                continue;
+            }
+            synchronized (this) {
+                for (int i = 0; i < batch.size(); i++) toApply.pollFirst();
+                if (!toApply.isEmpty()) oldestQueuedAt = System.currentTimeMillis();
+                lastAppliedSeq = batch.get(batch.size() - 1).getSeq();
+                completeFlushWaiters();
+            }
+            compactIfIdle(COMPACT_BYTES);
+        }
+    }
+
+    // 🔁 Worth retrying: timeouts, deadlocks and lost connections. Anything else (a constraint, a missing
+    // table, an oversold position) fails the same way every time.
+    static boolean isTransient(Throwable t) {
+        for (; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientException || t instanceof SQLRecoverableException) return true;
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("08")) return true;      // connection exception class
+            }
+        }
+        return false;
+    }
+
+    // 🛑 Flusher: MySQL will never take this batch. Mutations stop and pending flushes fail with the cause.
+    private void reject(Exception cause, List<JournalRecord> batch) {
+        report(cause, batch);
+        synchronized (this) {
+            rejected = cause;
+            for (FlushWaiter w : flushWaiters) w.future.completeExceptionally(cause);
+            flushWaiters.clear();
+            flushRequested = true;              // drain the rest to the dead-letter file without waiting
+            notifyAll();
+        }
+    }
+
+    private void report(Exception cause, List<JournalRecord> batch) {
+        System.err.println("❌ Journal: MySQL rejected records " + batch.get(0).getSeq() + ".."
+                + batch.get(batch.size() - 1).getSeq() + " for user " + userId + " (" + cause.getMessage()
+                + "); they and any later records go to " + deadLetterPath + " and the session stops accepting changes");
+        cause.printStackTrace();
+    }
+
+    // ☣️ Keep rejected records in the dead-letter file and move the checkpoint past them, so they are
+    // never replayed. Idempotent when retried after a failure half way.
+    private void quarantine(List<JournalRecord> batch) throws IOException, SQLException {
+        List<JournalRecord> fresh = new ArrayList<>(batch.size());
+        for (JournalRecord r : batch) if (r.getSeq() > deadLetteredSeq) fresh.add(r);
+        if (!fresh.isEmpty()) {
+            if (deadLetter == null) deadLetter = JournalFile.open(deadLetterPath);
+            deadLetter.append(fresh);
+            deadLetter.sync();
+            deadLetteredSeq = fresh.get(fresh.size() - 1).getSeq();
+        }
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long applied = db.journalCheckpoints().lockLastAppliedSeq(conn, journalId);
+                long last = batch.get(batch.size() - 1).getSeq();
+                if (last > applied) db.journalCheckpoints().markApplied(conn, journalId, last);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Holds this. Waits until a batch is due: full, flush requested, closing, or the oldest record aged out
+    private List<JournalRecord> nextBatch() {
+        while (true) {
+            if (toApply.isEmpty()) {
+                completeFlushWaiters();
+                if (closing && writerDone) return null;
+                waitQuietly(0);
+                continue;
+            }
+            long remaining = oldestQueuedAt + flushIntervalMs - System.currentTimeMillis();
+            if (remaining <= 0 || flushRequested || closing || toApply.size() >= maxBatch) {
+                List<JournalRecord> batch = new ArrayList<>(Math.min(maxBatch, toApply.size()));
+                for (JournalRecord r : toApply) {
+                    if (batch.size() == maxBatch) break;
+                    batch.add(r);
+                }
+                return batch;
+            }
+            waitQuietly(remaining);
+        }
+    }
+
+    private void completeFlushWaiters() {
+        Iterator<FlushWaiter> it = flushWaiters.iterator();
+        while (it.hasNext()) {
+            FlushWaiter w = it.next();
+            if (w.seq <= lastAppliedSeq) {
+                w.future.complete(null);
+                it.remove();
+            }
+        }
+        if (flushWaiters.isEmpty()) flushRequested = false;
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closing = true;
+        }
+    }
+
+    // 🧹 Once every submitted record is in MySQL the log holds nothing worth keeping
+    private void compactIfIdle(long minBytes) {
+        synchronized (fileLock) {
+            synchronized (this) {
+                if (nextSeq - 1 != lastAppliedSeq) return;
+            }
+            try {
+                if (file.size() > minBytes) file.reset();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // 🗄️ One MySQL transaction for the whole batch: holdings are folded in memory and written back with
+    // absolute values, so the number of round trips doesn't grow with the number of trades.
+    // Returns how many records were applied (records at or below the checkpoint are skipped).
+    private int apply(List<JournalRecord> batch) throws SQLException {
+        try (LatencyHistogram.Timer t = applyLatency.time();
+             Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long applied = db.journalCheckpoints().lockLastAppliedSeq(conn, journalId);
+                Set<String> traded = new LinkedHashSet<>();
+                for (JournalRecord r : batch) {
+                    if (r.getSeq() > applied && r.getKind() == JournalRecord.Kind.TRADE) traded.add(r.getSymbol());
+                }
+                Map<String, PortfolioItem> existing = db.portfolio().findForUpdate(conn, userId, traded);
+
+                Map<String, Holding> folded = new LinkedHashMap<>();
+                Map<String, JournalRecord> watch = new LinkedHashMap<>();
+                List<Transaction> rows = new ArrayList<>();
+                double balanceDelta = 0;
+                long last = applied;
+                int count = 0;
+                for (JournalRecord r : batch) {
+                    if (r.getSeq() <= applied) continue;
+                    last = r.getSeq();
+                    count++;
+                    switch (r.getKind()) {
+                        case TRADE -> {
+                            Holding h = folded.computeIfAbsent(r.getSymbol(), s -> {
+                                PortfolioItem p = existing.get(s);
+                                return p == null ? new Holding(r.getCompanyName(), 0, 0)
+                                        : new Holding(p.getCompanyName(), p.getQuantity(), p.getAvgPrice());
+                            });
+                            // ❌ MySQL has drifted from the session: selling what it doesn't hold would mint cash
+                            if (!r.isBuy() && h.quantity < r.getQuantity()) {
+                                throw new SQLDataException("Journal record " + r.getSeq() + " sells " + r.getQuantity()
+                                        + " " + r.getSymbol() + " but MySQL holds " + h.quantity);
+                            }
+                            h.apply(r.isBuy(), r.getQuantity(), r.getAmount());
+                            balanceDelta += r.isBuy() ? -r.getAmount() : r.getAmount();
+                            rows.add(new Transaction(0, r.getSymbol(), r.getSide(), r.getQuantity(), r.getPrice(),
+                                    new Timestamp(r.getTimestampMillis())));
+                        }
+                        case DEPOSIT -> balanceDelta += r.getAmount();
+                        case WATCH_ADD, WATCH_REMOVE -> watch.put(r.getSymbol(), r);
+                    }
+                }
+                if (count == 0) {
+                    conn.rollback();
+                    return 0;
+                }
+
+                List<PortfolioItem> inserts = new ArrayList<>();
+                List<PortfolioItem> updates = new ArrayList<>();
+                List<String> deletes = new ArrayList<>();
+                for (Map.Entry<String, Holding> e : folded.entrySet()) {
+                    Holding h = e.getValue();
+                    boolean exists = existing.containsKey(e.getKey());
+                    if (h.quantity <= 0) {
+                        if (exists) deletes.add(e.getKey());
+                    } else {
+                        PortfolioItem p = new PortfolioItem(e.getKey(), h.companyName, h.quantity, h.avgPrice, 0);
+                        (exists ? updates : inserts).add(p);
+                    }
+                }
+                List<WatchlistItem> watchAdds = new ArrayList<>();
+                List<String> watchRemoves = new ArrayList<>();
+                for (JournalRecord r : watch.values()) {
+                    if (r.getKind() == JournalRecord.Kind.WATCH_ADD) {
+                        watchAdds.add(new WatchlistItem(r.getSymbol(), r.getCompanyName(), 0));
+                    } else {
+                        watchRemoves.add(r.getSymbol());
+                    }
+                }
+
+                db.portfolio().insertBatch(conn, userId, inserts);
+                db.portfolio().updateBatch(conn, userId, updates);
+                db.portfolio().deleteBatch(conn, userId, deletes);
+                if (balanceDelta != 0) db.accounts().adjustBalance(conn, userId, balanceDelta);
+                db.transactions().insertBatch(conn, userId, rows);
+                db.watchlist().insertIgnoringDuplicateBatch(conn, userId, watchAdds);
+                db.watchlist().deleteBatch(conn, userId, watchRemoves);
+                db.journalCheckpoints().markApplied(conn, journalId, last);
+                conn.commit();
+                if (balanceDelta != 0) db.invalidateBalance(userId);
+                metrics.counter("journal.applied").add(count);
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // 🔒 Drains to MySQL (bounded wait) and empties the log; anything left is replayed on next open
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closing) return;
+            closing = true;
+            notifyAll();
+        }
+        try {
+            writer.join(CLOSE_TIMEOUT_MS);
+            flusher.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compactIfIdle(0);
+        try {
+            file.close();
+            if (deadLetter != null) deadLetter.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        long pending = pendingCount();
+        if (pending > 0) System.err.println("⚠️ Journal closed with " + pending + " records not yet in MySQL; they will be replayed");
+    }
+
+    // 📌 Quantity and average price of one symbol, folded trade by trade
+    private static final class Holding {
+        final String companyName;
+        int quantity;
+        double avgPrice;
+
+        Holding(String companyName, int quantity, double avgPrice) {
+            this.companyName = companyName;
+            this.quantity = quantity;
+            this.avgPrice = avgPrice;
+        }
+
+        void apply(boolean buy, int qty, double amount) {
+            if (buy) {
+                avgPrice = ((avgPrice * quantity) + amount) / (quantity + qty);
+                quantity += qty;
+            } else {
+                quantity -= qty;                // callers refuse oversells first
+            }
+        }
+    }
+
+    private static final class Pending {
+        final JournalRecord record;
+        final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        Pending(JournalRecord record) {
+            this.record = record;
+        }
+    }
+
+    private static final class FlushWaiter {
+        final long seq;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        FlushWaiter(long seq) {
+            this.seq = seq;
+        }
+    }
+}
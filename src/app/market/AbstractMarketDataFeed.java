@@ -0,0 +1,120 @@
+package app.market;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// 🧩 Shared plumbing for feeds: symbol registration, subscriber fan-out and the producer thread.
+// Subclasses implement produce(), which loops until isRunning() turns false, calling publish() per tick.
+public abstract class AbstractMarketDataFeed implements MarketDataFeed {
+
+    private final String threadName;
+    protected final PriceStore prices;
+    private final List<Instrument> instruments;
+
+    private volatile TickListener[] listeners = new TickListener[0];
+    private volatile boolean running;
+    private volatile long ticks;
+    private Thread producer;
+
+    protected AbstractMarketDataFeed(String threadName, List<Instrument> instruments) {
+        this.threadName = threadName;
+        this.instruments = Collections.unmodifiableList(new ArrayList<>(instruments));
+        this.prices = new PriceStore(Math.max(16, instruments.size()));
+        long now = System.nanoTime();
+        for (Instrument i : instruments) {
+            prices.update(prices.intern(i.getSymbol()), i.getReferencePrice(), now);
+        }
+    }
+
+    @Override
+    public List<Instrument> instruments() {
+        return instruments;
+    }
+
+    @Override
+    public PriceStore prices() {
+        return prices;
+    }
+
+    @Override
+    public synchronized void subscribe(TickListener listener) {
+        TickListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[next.length - 1] = listener;
+        listeners = next;
+    }
+
+    @Override
+    public synchronized void unsubscribe(TickListener listener) {
+        List<TickListener> next = new ArrayList<>(Arrays.asList(listeners));
+        next.remove(listener);
+        listeners = next.toArray(new TickListener[0]);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        producer = new Thread(this::run, threadName);
+        producer.setDaemon(true);
+        producer.start();
+        System.out.println("📡 Market feed started: " + threadName + " (" + instruments.size() + " symbols)");
+    }
+
+    @Override
+    public void stop() {
+        Thread t;
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+            t = producer;
+            producer = null;
+        }
+        t.interrupt();
+        try {
+            t.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("📡 Market feed stopped after " + ticks + " ticks");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public long tickCount() {
+        return ticks;
+    }
+
+    private void run() {
+        try {
+            produce();
+        } catch (InterruptedException e) {
+            // stop() requested
+        } catch (Exception e) {
+            System.err.println("❌ Market feed " + threadName + " failed");
+            e.printStackTrace();
+        } finally {
+            running = false;
+        }
+    }
+
+    protected abstract void produce() throws Exception;
+
+    // ✅ Single writer: only the producer thread calls this
+    protected final void publish(int symbolId, double price, long size, long timestampNanos) {
+        prices.update(symbolId, price, timestampNanos);
+        ticks++;
+        for (TickListener l : listeners) {
+            try {
+                l.onTick(symbolId, price, size, timestampNanos);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
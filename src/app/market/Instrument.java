@@ -0,0 +1,18 @@
+package app.market;
+
+// 🏷️ Static description of a tradable symbol served by a MarketDataFeed
+public class Instrument {
+    private final String symbol;
+    private final String name;
+    private final double referencePrice;
+
+    public Instrument(String symbol, String name, double referencePrice) {
+        this.symbol = symbol;
+        this.name = name;
+        this.referencePrice = referencePrice;
+    }
+
+    public String getSymbol() { return symbol; }
+    public String getName() { return name; }
+    public double getReferencePrice() { return referencePrice; }
+}
@@ -0,0 +1,31 @@
+package app.market;
+
+import java.util.List;
+
+// 📡 Source of market ticks.
+// Implementations produce on their own background thread, write every tick into prices(),
+// then notify subscribers with the symbol's PriceStore id.
+public interface MarketDataFeed extends AutoCloseable {
+
+    List<Instrument> instruments();
+
+    PriceStore prices();
+
+    void subscribe(TickListener listener);
+
+    void unsubscribe(TickListener listener);
+
+    // Idempotent; a stopped feed can be started again
+    void start();
+
+    void stop();
+
+    boolean isRunning();
+
+    long tickCount();
+
+    @Override
+    default void close() {
+        stop();
+    }
+}
@@ -0,0 +1,100 @@
+package app.market;
+
+import app.history.TickRecorder;
+import app.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// 🏭 Builds the process-wide market-data feed from system properties:
+//   stockup.feed          synthetic (default) | replay
+//   stockup.feed.tps      synthetic ticks per second (default 50)
+//   stockup.feed.symbols  synthetic universe size; extra symbols are generated (default 5)
+//   stockup.feed.seed     synthetic random seed
+//   stockup.feed.file     replay CSV path
+//   stockup.feed.speed    replay speed factor, 0 = as fast as possible (default 1)
+//   stockup.feed.loop     replay from the start again at end of file (default true)
+// With stockup.history=true, ticks are also recorded to disk by a TickRecorder (see stockup.history.dir).
+public final class MarketDataFeeds {
+
+    private static MarketDataFeed shared;
+    private static TickRecorder history;
+
+    private MarketDataFeeds() {
+    }
+
+    public static synchronized MarketDataFeed shared() {
+        if (shared == null) {
+            shared = fromSystemProperties();
+            MetricsRegistry.shared().registerCounter("market.ticks", shared::tickCount);
+            history = TickRecorder.fromSystemProperties(shared.prices());
+            if (history != null) {
+                shared.subscribe(history);
+                MetricsRegistry.shared().registerCounter("history.ticks", history::recorded);
+            }
+        }
+        return shared;
+    }
+
+    // 🛑 Process exit: stop the shared feed, then close the history files it was writing to
+    public static synchronized void shutdown() {
+        if (shared == null) return;
+        shared.stop();
+        if (history == null) return;
+        shared.unsubscribe(history);
+        try {
+            history.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        history = null;
+    }
+
+    // 📼 Tick/candle history of the shared feed; null when recording is disabled
+    public static synchronized TickRecorder history() {
+        shared();
+        return history;
+    }
+
+    public static List<Instrument> defaultInstruments() {
+        List<Instrument> list = new ArrayList<>();
+        list.add(new Instrument("TCS", "Tata Consultancy", 3821.50));
+        list.add(new Instrument("INFY", "Infosys Ltd", 1445.75));
+        list.add(new Instrument("HDFC", "HDFC Bank", 1602.90));
+        list.add(new Instrument("RELI", "Reliance Industries", 2904.40));
+        list.add(new Instrument("WIPR", "Wipro Ltd", 468.10));
+        return list;
+    }
+
+    // ✅ The default five, padded with generated symbols up to count
+    public static List<Instrument> syntheticUniverse(int count) {
+        List<Instrument> list = defaultInstruments();
+        if (count < list.size()) return new ArrayList<>(list.subList(0, Math.max(1, count)));
+        for (int i = list.size(); i < count; i++) {
+            String symbol = String.format("SYM%04d", i);
+            list.add(new Instrument(symbol, "Synthetic " + symbol, 50 + (i * 37 % 2000)));
+        }
+        return list;
+    }
+
+    public static MarketDataFeed fromSystemProperties() {
+        String kind = System.getProperty("stockup.feed", "synthetic");
+        if (kind.equalsIgnoreCase("replay")) {
+            String file = System.getProperty("stockup.feed.file");
+            if (file == null) throw new IllegalStateException("stockup.feed=replay needs stockup.feed.file");
+            try {
+                return new ReplayMarketDataFeed(Path.of(file),
+                        Double.parseDouble(System.getProperty("stockup.feed.speed", "1")),
+                        Boolean.parseBoolean(System.getProperty("stockup.feed.loop", "true")));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read replay file " + file, e);
+            }
+        }
+        int tps = Integer.getInteger("stockup.feed.tps", 50);
+        int symbols = Integer.getInteger("stockup.feed.symbols", 5);
+        long seed = Long.getLong("stockup.feed.seed", System.nanoTime());
+        return new SyntheticMarketDataFeed(syntheticUniverse(symbols), tps, 0.0, 0.004, seed);
+    }
+}
@@ -0,0 +1,143 @@
+package app.market;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 💹 Symbol-indexed price store.
+// Each symbol is interned to a dense int id once; prices live in primitive arrays indexed by that id,
+// so lookup and update are O(1) array accesses regardless of the size of the universe.
+// Interning is thread-safe. Price updates are expected from a single writer (the market-data thread);
+// readers on other threads see each price atomically via acquire/release array access. Growing the
+// columns copies them under the writer's lock, so a tick is never written to arrays already copied.
+// Feeds presize the store to their universe, so that lock is normally uncontended.
+public class PriceStore {
+
+    private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile Columns cols;
+    private volatile int size;
+
+    public PriceStore() {
+        this(64);
+    }
+
+    public PriceStore(int initialCapacity) {
+        this.cols = new Columns(Math.max(1, initialCapacity));
+    }
+
+    // 🔑 Id for a symbol, assigning the next free one if it is new
+    public int intern(String symbol) {
+        Integer known = ids.get(symbol);
+        if (known != null) return known;
+        synchronized (ids) {
+            Integer id = ids.get(symbol);
+            if (id != null) return id;
+            int next = size;
+            Columns c = cols;
+            if (next == c.symbols.length) {
+                synchronized (writeLock) {
+                    c = c.grow(c.symbols.length * 2);
+                    cols = c;
+                }
+            }
+            c.symbols[next] = symbol;
+            c.open[next] = Double.NaN;
+            c.price[next] = Double.NaN;
+            ids.put(symbol, next);
+            size = next + 1;
+            return next;
+        }
+    }
+
+    // 🔍 -1 when the symbol has never been seen
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String symbolOf(int id) {
+        return cols.symbols[id];
+    }
+
+    // ✏️ Record a new price; the first price seen for a symbol becomes its session open
+    public void update(int id, double price, long timestampNanos) {
+        synchronized (writeLock) {
+            Columns c = cols;
+            if (Double.isNaN((double) DOUBLES.getAcquire(c.open, id))) DOUBLES.setRelease(c.open, id, price);
+            DOUBLES.setRelease(c.price, id, price);
+            LONGS.setRelease(c.updatedAt, id, timestampNanos);
+            LONGS.setRelease(c.version, id, (long) LONGS.getAcquire(c.version, id) + 1);
+        }
+    }
+
+    public void update(String symbol, double price) {
+        update(intern(symbol), price, System.nanoTime());
+    }
+
+    public double price(int id) {
+        return (double) DOUBLES.getAcquire(cols.price, id);
+    }
+
+    // NaN when the symbol is unknown or has not ticked yet
+    public double price(String symbol) {
+        int id = idOf(symbol);
+        return id < 0 ? Double.NaN : price(id);
+    }
+
+    public double open(int id) {
+        return (double) DOUBLES.getAcquire(cols.open, id);
+    }
+
+    public double changePercent(int id) {
+        double o = open(id);
+        return Double.isNaN(o) || o == 0 ? 0 : (price(id) - o) / o * 100.0;
+    }
+
+    public long updatedAt(int id) {
+        return (long) LONGS.getAcquire(cols.updatedAt, id);
+    }
+
+    // 🔢 Bumped on every update; views compare it to skip unchanged rows
+    public long version(int id) {
+        return (long) LONGS.getAcquire(cols.version, id);
+    }
+
+    private static final class Columns {
+        final String[] symbols;
+        final double[] price;
+        final double[] open;
+        final long[] updatedAt;
+        final long[] version;
+
+        Columns(int capacity) {
+            this(new String[capacity], new double[capacity], new double[capacity], new long[capacity], new long[capacity]);
+        }
+
+        Columns(String[] symbols, double[] price, double[] open, long[] updatedAt, long[] version) {
+            this.symbols = symbols;
+            this.price = price;
+            this.open = open;
+            this.updatedAt = updatedAt;
+            this.version = version;
+        }
+
+        Columns grow(int capacity) {
+            return new Columns(
+                    Arrays.copyOf(symbols, capacity),
+                    Arrays.copyOf(price, capacity),
+                    Arrays.copyOf(open, capacity),
+                    Arrays.copyOf(updatedAt, capacity),
+                    Arrays.copyOf(version, capacity));
+        }
+    }
+}
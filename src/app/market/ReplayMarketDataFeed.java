@@ -0,0 +1,151 @@
+package app.market;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+// 📼 Replays recorded ticks from a CSV file: timestamp_millis,symbol,price[,size]
+// A header line and blank/# lines are skipped, as are rows whose timestamp or price doesn't parse (counted
+// and reported after the first pass); an unreadable size is taken as 0. speed = 1 keeps the recorded pacing,
+// 10 plays ten times faster, 0 replays as fast as possible. The file is streamed, never loaded whole.
+public class ReplayMarketDataFeed extends AbstractMarketDataFeed {
+
+    private final Path file;
+    private final double speed;
+    private final boolean loop;
+
+    private boolean firstPassDone;                                 // producer thread only
+    private static final long IDLE_PASS_NANOS = 1_000_000_000L;   // looped file that produced no ticks
+
+    public ReplayMarketDataFeed(Path file, double speed, boolean loop) throws IOException {
+        super("market-feed-replay", scanInstruments(file));
+        this.file = file;
+        this.speed = speed;
+        this.loop = loop;
+    }
+
+    // 🔍 One streaming pass to learn the symbol universe and each symbol's first price
+    private static List<Instrument> scanInstruments(Path file) throws IOException {
+        Map<String, Double> first = new LinkedHashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = split(line);
+                if (f == null || first.containsKey(f[1])) continue;
+                double price = parsePrice(f[2]);
+                if (!Double.isNaN(price)) first.put(f[1], price);        // bad rows are counted by the replay
+            }
+        }
+        List<Instrument> list = new ArrayList<>(first.size());
+        first.forEach((symbol, price) -> list.add(new Instrument(symbol, symbol, price)));
+        return list;
+    }
+
+    // null for header / comment / blank lines, and for rows with an empty timestamp, symbol or price
+    private static String[] split(String line) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) return null;
+        String[] f = line.split(",");
+        if (f.length < 3) return null;
+        for (int i = 0; i < 3; i++) {
+            f[i] = f[i].trim();
+            if (f[i].isEmpty()) return null;
+        }
+        if (!Character.isDigit(f[0].charAt(0))) return null;
+        return f;
+    }
+
+    // NaN for anything that isn't a finite positive price
+    private static double parsePrice(String s) {
+        try {
+            double price = Double.parseDouble(s);
+            return Double.isFinite(price) && price > 0 ? price : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // Lenient: "100", "100.0" and " 100 " are 100; blank, negative or garbage ("12a") is 0 (unknown)
+    private static long parseSize(String s) {
+        s = s.trim();
+        if (s.isEmpty()) return 0;
+        try {
+            return Math.max(0, Long.parseLong(s));
+        } catch (NumberFormatException e) {
+            try {
+                double size = Double.parseDouble(s);
+                return Double.isFinite(size) && size > 0 ? (long) size : 0;
+            } catch (NumberFormatException e2) {
+                return 0;
+            }
+        }
+    }
+
+
+    @Override
+    protected void produce() throws IOException {
+        while (true) {
+            long published = replayOnce();
+            if (!loop || !isRunning()) return;
+            if (published == 0) {
+                // 💤 Nothing playable in the file (yet); don't spin re-reading it
+                LockSupport.parkNanos(IDLE_PASS_NANOS);
+                if (Thread.interrupted()) return;
+            }
+        }
+    }
+
+    // Ticks published this pass
+    private long replayOnce() throws IOException {
+        long published = 0;
+        long skipped = 0;
+        long firstTs = -1;
+        long wallStart = System.nanoTime();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while (isRunning() && (line = in.readLine()) != null) {
+                String[] f = split(line);
+                if (f == null) continue;
+                long ts;
+                double price = parsePrice(f[2]);
+                try {
+                    ts = Long.parseLong(f[0]);
+                } catch (NumberFormatException e) {
+                    ts = -1;
+                }
+                if (ts < 0 || Double.isNaN(price)) {
+                    skipped++;
+                    continue;
+                }
+                if (firstTs < 0) firstTs = ts;
+
+                if (speed > 0) {
+                    long target = wallStart + (long) ((ts - firstTs) * 1_000_000L / speed);
+                    long wait;
+                    while ((wait = target - System.nanoTime()) > 0 && isRunning()) {
+                        LockSupport.parkNanos(wait);
+                        if (Thread.interrupted()) return published;
+                    }
+                }
+
+                int id = prices.idOf(f[1]);
+                if (id < 0) continue;
+                long size = f.length > 3 ? parseSize(f[3]) : 0;
+                publish(id, price, size, System.nanoTime());
+                published++;
+            }
+        }
+        if (!firstPassDone && skipped > 0) {
+            System.err.println("⚠️ Replay skipped " + skipped + " malformed rows in " + file);
+        }
+        firstPassDone = true;
+        return published;
+    }
+}
@@ -0,0 +1,72 @@
+package app.market;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// 🎲 Geometric Brownian motion simulator.
+// Emits ticksPerSecond ticks spread round-robin over the instruments; each symbol moves by
+// exp((μ - σ²/2)·dt + σ·√dt·Z) per tick, where dt = symbols / ticksPerSecond is the nominal time between
+// its ticks (fixed, so a stalled thread never makes a jump). μ and σ are per second, so the visual
+// volatility does not depend on the tick rate.
+public class SyntheticMarketDataFeed extends AbstractMarketDataFeed {
+
+    private final int ticksPerSecond;
+    private final double drift;
+    private final double volatility;
+    private final long seed;
+
+    public SyntheticMarketDataFeed(List<Instrument> instruments, int ticksPerSecond) {
+        this(instruments, ticksPerSecond, 0.0, 0.004, System.nanoTime());
+    }
+
+    public SyntheticMarketDataFeed(List<Instrument> instruments, int ticksPerSecond,
+                                   double drift, double volatility, long seed) {
+        super("market-feed-gbm", instruments);
+        if (instruments.isEmpty()) throw new IllegalArgumentException("No instruments to simulate");
+        if (ticksPerSecond <= 0) throw new IllegalArgumentException("ticksPerSecond must be positive");
+        this.ticksPerSecond = ticksPerSecond;
+        this.drift = drift;
+        this.volatility = volatility;
+        this.seed = seed;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    @Override
+    protected void produce() {
+        int n = instruments().size();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        double dt = (double) n / ticksPerSecond;
+        double driftTerm = (drift - 0.5 * volatility * volatility) * dt;
+        double volTerm = volatility * Math.sqrt(dt);
+
+        double[] last = new double[n];
+        for (int id = 0; id < n; id++) last[id] = prices.price(id);
+
+        long start = System.nanoTime();
+        long emitted = 0;
+        int cursor = 0;
+        while (isRunning()) {
+            long now = System.nanoTime();
+            long due = (long) ((now - start) / 1e9 * ticksPerSecond);
+
+            // ⏭️ If we fell more than a second behind, drop the backlog instead of bursting
+            if (due - emitted > ticksPerSecond) emitted = due - ticksPerSecond;
+
+            while (emitted < due && isRunning()) {
+                int id = cursor;
+                cursor = cursor + 1 == n ? 0 : cursor + 1;
+                double next = last[id] * Math.exp(driftTerm + volTerm * random.nextGaussian());
+                last[id] = next;
+                publish(id, next, 1 + random.nextInt(500), now);
+                emitted++;
+            }
+            LockSupport.parkNanos(1_000_000);
+            if (Thread.interrupted()) return;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package app.market;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+// 🧺 Conflation stage between the feed thread and the UI.
+// Each tick only marks its symbol dirty; a symbol is queued at most once until the UI drains it,
+// so however many ticks arrive between two frames, the UI sees each changed symbol once and reads
+// its latest price from the PriceStore. Lock-free: one producer (the feed thread), one consumer.
+public class TickConflator implements TickListener {
+
+    private final AtomicIntegerArray dirty;
+    private final int[] ring;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();   // next slot to drain (consumer)
+    private final AtomicLong tail = new AtomicLong();   // next slot to fill (producer)
+
+    private volatile long ticksIn;
+    private volatile long drained;
+
+    // capacity = number of symbols that can be dirty at once (the feed's universe size)
+    public TickConflator(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.dirty = new AtomicIntegerArray(size);
+        this.ring = new int[size];
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void onTick(int symbolId, double price, long size, long timestampNanos) {
+        ticksIn++;
+        if (symbolId > mask) return;
+        // getAndSet (not a failed CAS) so the consumer's clear always synchronizes with the latest tick
+        if (dirty.getAndSet(symbolId, 1) == 0) {
+            long t = tail.get();
+            ring[(int) (t & mask)] = symbolId;
+            tail.lazySet(t + 1);
+        }
+    }
+
+    // ✅ Consumer side — call once per frame; returns how many symbols changed
+    public int drain(IntConsumer sink) {
+        long h = head.get();
+        long t = tail.get();
+        int n = 0;
+        while (h < t) {
+            int id = ring[(int) (h & mask)];
+            h++;
+            head.lazySet(h);
+            dirty.getAndSet(id, 0);
+            sink.accept(id);
+            n++;
+        }
+        drained += n;
+        return n;
+    }
+
+    public long getTicksIn() {
+        return ticksIn;
+    }
+
+    public long getDrained() {
+        return drained;
+    }
+}
@@ -0,0 +1,8 @@
+package app.market;
+
+// 📡 Called on the feed thread for every tick — keep it short and never touch JavaFX nodes here.
+// Primitive arguments so the hot path allocates nothing.
+@FunctionalInterface
+public interface TickListener {
+    void onTick(int symbolId, double price, long size, long timestampNanos);
+}
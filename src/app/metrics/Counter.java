@@ -0,0 +1,21 @@
+package app.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// 🔢 Monotonic event counter; the reporter turns deltas into per-second rates
+public class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long n) {
+        value.add(n);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
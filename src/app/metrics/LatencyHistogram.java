@@ -0,0 +1,135 @@
+package app.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// ⏱️ Lock-free latency histogram (HdrHistogram-style log-linear buckets), values in nanoseconds.
+// Below 128ns every value has its own bucket; above that each power of two is split into 64
+// sub-buckets, so any recorded value is reported within ~1.5%. Tracks up to 2^37ns (~137s); larger values
+// land in the top bucket (max is still exact). Recording is a couple of atomic adds — no locks, no allocation.
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;       // 128
+    private static final int HALF_COUNT = SUB_COUNT >> 1;     // 64
+    private static final int MAX_SHIFT = 30;                  // highest bucket covers [2^36, 2^37)
+    static final int BUCKETS = SUB_COUNT + MAX_SHIFT * HALF_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(indexOf(nanos));
+        total.incrementAndGet();
+        sum.addAndGet(nanos);
+        if (nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+    }
+
+    // ✅ try (LatencyHistogram.Timer t = histogram.time()) { ... } records the elapsed time on close
+    public Timer time() {
+        return new Timer(this, System.nanoTime());
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    public double getMeanNanos() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    public long valueAtPercentile(double percentile) {
+        return snapshot().valueAtPercentile(percentile);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        return new Snapshot(copy, n, sum.get(), max.get());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        int sub = (int) (value >>> shift);
+        return SUB_COUNT + (shift - 1) * HALF_COUNT + (sub - HALF_COUNT);
+    }
+
+    // Highest value that maps to the same bucket — percentiles are reported as this upper edge
+    static long highestEquivalent(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index - SUB_COUNT) / HALF_COUNT + 1;
+        long sub = (index - SUB_COUNT) % HALF_COUNT + HALF_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    // 📸 Point-in-time copy; since(previous) gives the interval view the reporter prints
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public long getMaxNanos() { return max; }
+        public double getMeanNanos() { return count == 0 ? 0 : (double) sum / count; }
+
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestEquivalent(i), max);
+            }
+            return max;
+        }
+
+        // Counts recorded after previous was taken; max becomes the top non-empty bucket's edge
+        public Snapshot since(Snapshot previous) {
+            if (previous == null) return this;
+            long[] diff = new long[counts.length];
+            long top = 0;
+            for (int i = 0; i < counts.length; i++) {
+                diff[i] = counts[i] - previous.counts[i];
+                if (diff[i] > 0) top = Math.min(highestEquivalent(i), max);
+            }
+            return new Snapshot(diff, count - previous.count, sum - previous.sum, top);
+        }
+    }
+
+    public static final class Timer implements AutoCloseable {
+        private final LatencyHistogram histogram;
+        private final long start;
+
+        Timer(LatencyHistogram histogram, long start) {
+            this.histogram = histogram;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
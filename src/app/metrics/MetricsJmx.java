@@ -0,0 +1,72 @@
+package app.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+// 🛰️ Publishes the registry as one JMX bean (app:type=Metrics) — every flattened metric is a
+// read-only Double attribute, so JConsole/VisualVM can chart any of them live.
+public class MetricsJmx implements DynamicMBean {
+
+    public static final String OBJECT_NAME = "app:type=Metrics";
+
+    private final MetricsRegistry registry;
+
+    public MetricsJmx(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static void register(MetricsRegistry registry) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(new MetricsJmx(registry), name);
+        } catch (JMException e) {
+            System.err.println("⚠️ Could not register metrics MBean");
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Double value = registry.flatten().get(attribute);
+        if (value == null) throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Double> values = registry.flatten();
+        AttributeList list = new AttributeList();
+        for (String a : attributes) {
+            Double v = values.get(a);
+            if (v != null) list.add(new Attribute(a, v));
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    // Rebuilt on every call so metrics registered after startup show up too
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        MBeanAttributeInfo[] attrs = registry.flatten().keySet().stream()
+                .map(name -> new MBeanAttributeInfo(name, Double.class.getName(), name, true, false, false))
+                .toArray(MBeanAttributeInfo[]::new);
+        return new MBeanInfo(getClass().getName(), "StockUp runtime metrics", attrs, null, null, null);
+    }
+}
@@ -0,0 +1,95 @@
+package app.metrics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+// 📊 Process-wide metrics: latency histograms, monotonic counters and gauges, keyed by dotted name.
+// Components either record straight into a histogram/counter from here, or keep their own
+// counters and register a supplier (no extra work on their hot path).
+//   sql.<call>          DBManager statement latency
+//   db.pool.*           connection acquire latency, reconnects, timeouts, active/idle/waiting
+//   market.ticks        ticks ingested by the feed
+//   fx.frame.*          JavaFX pulse interval, per-frame update work, stalls
+//   trades.*            filled / rejected trades
+public class MetricsRegistry {
+
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> counterFns = new ConcurrentHashMap<>();
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // Expose a histogram owned by a component (replaces any earlier one under the same name)
+    public void register(String name, LatencyHistogram histogram) {
+        histograms.put(name, histogram);
+    }
+
+    // ✅ try (LatencyHistogram.Timer t = metrics.time("sql.login")) { ... }
+    public LatencyHistogram.Timer time(String name) {
+        return histogram(name).time();
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> {
+            Counter c = new Counter();
+            counterFns.put(n, c::get);
+            return c;
+        });
+    }
+
+    // A counter the component already maintains, read on demand
+    public void registerCounter(String name, LongSupplier value) {
+        counters.remove(name);
+        counterFns.put(name, value);
+    }
+
+    public void registerGauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public SortedMap<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    public SortedMap<String, Long> counterValues() {
+        SortedMap<String, Long> out = new TreeMap<>();
+        counterFns.forEach((name, fn) -> out.put(name, fn.getAsLong()));
+        return out;
+    }
+
+    public SortedMap<String, Double> gaugeValues() {
+        SortedMap<String, Double> out = new TreeMap<>();
+        gauges.forEach((name, fn) -> out.put(name, fn.getAsDouble()));
+        return out;
+    }
+
+    // 🗂️ Everything as flat name → number (cumulative), e.g. sql.login.p99_ms — used by JMX
+    public SortedMap<String, Double> flatten() {
+        SortedMap<String, Double> out = new TreeMap<>();
+        histograms.forEach((name, h) -> {
+            LatencyHistogram.Snapshot s = h.snapshot();
+            out.put(name + ".count", (double) s.getCount());
+            out.put(name + ".mean_ms", s.getMeanNanos() / 1e6);
+            out.put(name + ".p50_ms", s.valueAtPercentile(50) / 1e6);
+            out.put(name + ".p99_ms", s.valueAtPercentile(99) / 1e6);
+            out.put(name + ".p999_ms", s.valueAtPercentile(99.9) / 1e6);
+            out.put(name + ".max_ms", s.getMaxNanos() / 1e6);
+        });
+        counterValues().forEach((name, v) -> out.put(name, (double) v));
+        out.putAll(gaugeValues());
+        return out;
+    }
+}
@@ -0,0 +1,123 @@
+package app.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 🧾 Periodic dump of the registry to the log and/or a CSV file. Histograms are reported per
+// interval (only what was recorded since the last dump), counters as total plus rate per second.
+// Configured from system properties:
+//   stockup.metrics.interval  seconds between dumps, 0 disables (default 60)
+//   stockup.metrics.csv       append rows to this file (default: no CSV)
+//   stockup.metrics.log       print a summary to stdout (default true)
+public class MetricsReporter {
+
+    private static final String CSV_HEADER = "timestamp,metric,count,rate_per_s,mean_ms,p50_ms,p90_ms,p99_ms,max_ms,value";
+
+    private final MetricsRegistry registry;
+    private final long intervalMillis;
+    private final Path csv;
+    private final boolean log;
+    private final Map<String, LatencyHistogram.Snapshot> lastSnapshots = new HashMap<>();
+    private final Map<String, Long> lastCounts = new HashMap<>();
+    private long lastReportNanos = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+
+    public MetricsReporter(MetricsRegistry registry, long intervalMillis, Path csv, boolean log) {
+        this.registry = registry;
+        this.intervalMillis = intervalMillis;
+        this.csv = csv;
+        this.log = log;
+    }
+
+    public static MetricsReporter fromSystemProperties(MetricsRegistry registry) {
+        long seconds = Long.getLong("stockup.metrics.interval", 60);
+        String csv = System.getProperty("stockup.metrics.csv");
+        boolean log = Boolean.parseBoolean(System.getProperty("stockup.metrics.log", "true"));
+        return new MetricsReporter(registry, seconds * 1000, csv == null ? null : Path.of(csv), log);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || intervalMillis <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::reportSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // 🔒 Stops the schedule and writes one last interval
+    public synchronized void stop() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+        reportSafely();
+    }
+
+    private void reportSafely() {
+        try {
+            report();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized void report() throws IOException {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastReportNanos) / 1e9);
+        lastReportNanos = now;
+        String ts = Instant.now().toString();
+
+        StringBuilder rows = new StringBuilder();
+        StringBuilder summary = new StringBuilder("📊 Metrics (last ").append(Math.round(seconds)).append("s)");
+
+        for (Map.Entry<String, LatencyHistogram> e : registry.histograms().entrySet()) {
+            LatencyHistogram.Snapshot current = e.getValue().snapshot();
+            LatencyHistogram.Snapshot interval = current.since(lastSnapshots.put(e.getKey(), current));
+            if (interval.getCount() == 0) continue;
+            rows.append(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%n", ts, e.getKey(),
+                    interval.getCount(), interval.getCount() / seconds, interval.getMeanNanos() / 1e6,
+                    interval.valueAtPercentile(50) / 1e6, interval.valueAtPercentile(90) / 1e6,
+                    interval.valueAtPercentile(99) / 1e6, interval.getMaxNanos() / 1e6));
+            summary.append(String.format("%n  %-28s n=%-7d p50=%.2fms p99=%.2fms max=%.2fms", e.getKey(),
+                    interval.getCount(), interval.valueAtPercentile(50) / 1e6,
+                    interval.valueAtPercentile(99) / 1e6, interval.getMaxNanos() / 1e6));
+        }
+
+        for (Map.Entry<String, Long> e : registry.counterValues().entrySet()) {
+            long total = e.getValue();
+            Long previous = lastCounts.put(e.getKey(), total);
+            double rate = (total - (previous == null ? 0 : previous)) / seconds;
+            rows.append(String.format(Locale.ROOT, "%s,%s,%d,%.3f,,,,,,%n", ts, e.getKey(), total, rate));
+            summary.append(String.format("%n  %-28s total=%d rate=%.1f/s", e.getKey(), total, rate));
+        }
+
+        for (Map.Entry<String, Double> e : registry.gaugeValues().entrySet()) {
+            rows.append(String.format(Locale.ROOT, "%s,%s,,,,,,,,%.3f%n", ts, e.getKey(), e.getValue()));
+            summary.append(String.format("%n  %-28s %.3f", e.getKey(), e.getValue()));
+        }
+
+        if (log) System.out.println(summary);
+        if (csv != null) appendCsv(rows);
+    }
+
+    private void appendCsv(CharSequence rows) throws IOException {
+        boolean fresh = !Files.exists(csv) || Files.size(csv) == 0;
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (fresh) out.write(CSV_HEADER + System.lineSeparator());
+            out.append(rows);
+        }
+    }
+}
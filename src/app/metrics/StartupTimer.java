@@ -0,0 +1,76 @@
+package app.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// ⏱️ Startup milestones in milliseconds since the JVM process started:
+//   main       entered Main.main
+//   window     first frame of the login window
+//   db         connection pool ready
+//   dashboard  first frame of the dashboard after login
+// Each milestone is recorded once and exposed as a startup.<name>.ms gauge.
+public final class StartupTimer {
+
+    public static final String MAIN = "main";
+    public static final String WINDOW = "window";
+    public static final String DB = "db";
+    public static final String DASHBOARD = "dashboard";
+
+    private static final String[] COLUMNS = { MAIN, WINDOW, DB, DASHBOARD };
+
+    // ProcessHandle rather than the runtime MXBean: loading java.management would itself cost startup time
+    private static final long JVM_START_MS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+    private static final Map<String, Long> marks = new LinkedHashMap<>();
+
+    private StartupTimer() {}
+
+    public static void mark(String name) {
+        long ms = System.currentTimeMillis() - JVM_START_MS;
+        synchronized (marks) {
+            if (marks.putIfAbsent(name, ms) != null) return;
+        }
+        MetricsRegistry.shared().registerGauge("startup." + name + ".ms", () -> ms);
+    }
+
+    // -1 when not reached (yet)
+    public static long millis(String name) {
+        synchronized (marks) {
+            return marks.getOrDefault(name, -1L);
+        }
+    }
+
+    public static String summary() {
+        StringBuilder sb = new StringBuilder("⏱️ Startup:");
+        synchronized (marks) {
+            marks.forEach((name, ms) -> sb.append(' ').append(name).append(' ').append(ms).append("ms"));
+        }
+        return sb.toString();
+    }
+
+    // 📝 One row per run, header written with the first one, so runs with and without CDS line up
+    public static void appendReport(Path file, String label) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        StringBuilder sb = new StringBuilder();
+        if (!Files.exists(file)) {
+            sb.append(String.format(Locale.ROOT, "%-24s", "run"));
+            for (String c : COLUMNS) sb.append(String.format(Locale.ROOT, "%12s", c + "_ms"));
+            sb.append('\n');
+        }
+        sb.append(String.format(Locale.ROOT, "%-24s", label));
+        for (String c : COLUMNS) {
+            long ms = millis(c);
+            sb.append(String.format(Locale.ROOT, "%12s", ms < 0 ? "n/a" : String.valueOf(ms)));
+        }
+        sb.append('\n');
+        Files.writeString(file, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,75 @@
+package app.models;
+
+import java.util.Locale;
+
+// 🔔 One price alert as stored in the alerts table
+public class AlertRule {
+
+    public enum Kind {
+        PRICE_ABOVE,     // price >= threshold
+        PRICE_BELOW,     // price <= threshold
+        PRICE_CROSS,     // price reaches threshold from whichever side it was on when armed
+        PERCENT_MOVE,    // price moves threshold % (either way) within windowSeconds
+        PNL_BELOW        // unrealized P&L of the position <= threshold
+    }
+
+    private final int id;
+    private final int userId;
+    private final String symbol;
+    private final Kind kind;
+    private final double threshold;
+    private final int windowSeconds;
+
+    public AlertRule(int id, int userId, String symbol, Kind kind, double threshold, int windowSeconds) {
+        this.id = id;
+        this.userId = userId;
+        this.symbol = symbol;
+        this.kind = kind;
+        this.threshold = threshold;
+        this.windowSeconds = windowSeconds;
+    }
+
+    public int getId() { return id; }
+    public int getUserId() { return userId; }
+    public String getSymbol() { return symbol; }
+    public Kind getKind() { return kind; }
+    public double getThreshold() { return threshold; }
+    public int getWindowSeconds() { return windowSeconds; }
+
+    public AlertRule withId(int id) {
+        return new AlertRule(id, userId, symbol, kind, threshold, windowSeconds);
+    }
+
+    // ✏️ Short form typed in the dashboard: "3900" (cross), ">3900", "<3800", "5%/60s", "pnl<-500"
+    public static AlertRule parse(int userId, String symbol, String spec) {
+        String s = spec.trim().toLowerCase(Locale.ROOT).replace(" ", "");
+        if (s.startsWith("pnl<")) return new AlertRule(0, userId, symbol, Kind.PNL_BELOW, Double.parseDouble(s.substring(4)), 0);
+        if (s.startsWith(">")) return new AlertRule(0, userId, symbol, Kind.PRICE_ABOVE, Double.parseDouble(s.substring(1)), 0);
+        if (s.startsWith("<")) return new AlertRule(0, userId, symbol, Kind.PRICE_BELOW, Double.parseDouble(s.substring(1)), 0);
+        int pct = s.indexOf('%');
+        if (pct > 0) {
+            String window = s.substring(pct + 1).replace("/", "");
+            int seconds = window.isEmpty() ? 60 : parseSeconds(window);
+            if (seconds <= 0) throw new IllegalArgumentException("Window must be positive: " + spec);
+            return new AlertRule(0, userId, symbol, Kind.PERCENT_MOVE, Double.parseDouble(s.substring(0, pct)), seconds);
+        }
+        return new AlertRule(0, userId, symbol, Kind.PRICE_CROSS, Double.parseDouble(s), 0);
+    }
+
+    private static int parseSeconds(String w) {
+        if (w.endsWith("s")) return Integer.parseInt(w.substring(0, w.length() - 1));
+        if (w.endsWith("m")) return Integer.parseInt(w.substring(0, w.length() - 1)) * 60;
+        if (w.endsWith("h")) return Integer.parseInt(w.substring(0, w.length() - 1)) * 3600;
+        return Integer.parseInt(w);
+    }
+
+    public String describe() {
+        switch (kind) {
+            case PRICE_ABOVE: return symbol + " above ₹" + String.format("%.2f", threshold);
+            case PRICE_BELOW: return symbol + " below ₹" + String.format("%.2f", threshold);
+            case PRICE_CROSS: return symbol + " crossed ₹" + String.format("%.2f", threshold);
+            case PERCENT_MOVE: return symbol + " moved " + String.format("%.2f", threshold) + "% within " + windowSeconds + "s";
+            default: return symbol + " P&L below ₹" + String.format("%.2f", threshold);
+        }
+    }
+}
@@ -1,23 +1,63 @@
 package app.models;
 
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+
 public class PortfolioItem {
-    private String symbol;
-    private String companyName;
-    private int quantity;
-    private double avgPrice;
-    private double currentValue;
+
+    private final SimpleStringProperty symbol;
+    private final SimpleStringProperty companyName;
+    private final SimpleIntegerProperty quantity;
+    private final SimpleDoubleProperty avgPrice;
+    private final SimpleDoubleProperty currentValue;
+    // 📒 Filled in from the position book for the portfolio table; 0 for rows read straight from MySQL
+    private final SimpleDoubleProperty unrealizedPnl = new SimpleDoubleProperty();
+    private final SimpleDoubleProperty realizedPnl = new SimpleDoubleProperty();
+    private final SimpleDoubleProperty dayChange = new SimpleDoubleProperty();
+    private final SimpleDoubleProperty weight = new SimpleDoubleProperty();        // % of portfolio value
+    private final SimpleDoubleProperty vwap = new SimpleDoubleProperty();          // of the position's buy fills
 
     public PortfolioItem(String symbol, String companyName, int quantity, double avgPrice, double currentValue) {
-        this.symbol = symbol;
-        this.companyName = companyName;
-        this.quantity = quantity;
-        this.avgPrice = avgPrice;
-        this.currentValue = currentValue;
+        this.symbol = new SimpleStringProperty(symbol);
+        this.companyName = new SimpleStringProperty(companyName);
+        this.quantity = new SimpleIntegerProperty(quantity);
+        this.avgPrice = new SimpleDoubleProperty(avgPrice);
+        this.currentValue = new SimpleDoubleProperty(currentValue);
     }
 
-    public String getSymbol() { return symbol; }
-    public String getCompanyName() { return companyName; }
-    public int getQuantity() { return quantity; }
-    public double getAvgPrice() { return avgPrice; }
-    public double getCurrentValue() { return currentValue; }
+    // ✅ Getters for PropertyValueFactory
+    public String getSymbol() { return symbol.get(); }
+    public String getCompanyName() { return companyName.get(); }
+    public int getQuantity() { return quantity.get(); }
+    public double getAvgPrice() { return avgPrice.get(); }
+    public double getCurrentValue() { return currentValue.get(); }
+    public double getUnrealizedPnl() { return unrealizedPnl.get(); }
+    public double getRealizedPnl() { return realizedPnl.get(); }
+    public double getDayChange() { return dayChange.get(); }
+    public double getWeight() { return weight.get(); }
+    public double getVwap() { return vwap.get(); }
+
+    // ✅ Setters — positions are updated in place by symbol
+    public void setCompanyName(String companyName) { this.companyName.set(companyName); }
+    public void setQuantity(int quantity) { this.quantity.set(quantity); }
+    public void setAvgPrice(double avgPrice) { this.avgPrice.set(avgPrice); }
+    public void setCurrentValue(double currentValue) { this.currentValue.set(currentValue); }
+    public void setUnrealizedPnl(double unrealizedPnl) { this.unrealizedPnl.set(unrealizedPnl); }
+    public void setRealizedPnl(double realizedPnl) { this.realizedPnl.set(realizedPnl); }
+    public void setDayChange(double dayChange) { this.dayChange.set(dayChange); }
+    public void setWeight(double weight) { this.weight.set(weight); }
+    public void setVwap(double vwap) { this.vwap.set(vwap); }
+
+    // ✅ Property accessors (used by JavaFX bindings)
+    public SimpleStringProperty symbolProperty() { return symbol; }
+    public SimpleStringProperty companyNameProperty() { return companyName; }
+    public SimpleIntegerProperty quantityProperty() { return quantity; }
+    public SimpleDoubleProperty avgPriceProperty() { return avgPrice; }
+    public SimpleDoubleProperty currentValueProperty() { return currentValue; }
+    public SimpleDoubleProperty unrealizedPnlProperty() { return unrealizedPnl; }
+    public SimpleDoubleProperty realizedPnlProperty() { return realizedPnl; }
+    public SimpleDoubleProperty dayChangeProperty() { return dayChange; }
+    public SimpleDoubleProperty weightProperty() { return weight; }
+    public SimpleDoubleProperty vwapProperty() { return vwap; }
 }
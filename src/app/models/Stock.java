@@ -8,6 +8,8 @@ public class Stock {
     private final SimpleStringProperty symbol;
     private final SimpleStringProperty name;
     private final SimpleDoubleProperty price;
+    private final SimpleDoubleProperty bid = new SimpleDoubleProperty(Double.NaN);   // top of book, NaN without an exchange
+    private final SimpleDoubleProperty ask = new SimpleDoubleProperty(Double.NaN);
 
     public Stock(String symbol, String name, double price) {
         this.symbol = new SimpleStringProperty(symbol);
@@ -28,6 +30,14 @@ public class Stock {
         return price.get();
     }
 
+    public double getBid() {
+        return bid.get();
+    }
+
+    public double getAsk() {
+        return ask.get();
+    }
+
     // ✅ Optional setters (if you want to edit values)
     public void setSymbol(String symbol) {
         this.symbol.set(symbol);
@@ -41,6 +51,14 @@ public class Stock {
         this.price.set(price);
     }
 
+    public void setBid(double bid) {
+        this.bid.set(bid);
+    }
+
+    public void setAsk(double ask) {
+        this.ask.set(ask);
+    }
+
     // ✅ Property accessors (used by JavaFX bindings)
     public SimpleStringProperty symbolProperty() {
         return symbol;
@@ -53,4 +71,12 @@ public class Stock {
     public SimpleDoubleProperty priceProperty() {
         return price;
     }
+
+    public SimpleDoubleProperty bidProperty() {
+        return bid;
+    }
+
+    public SimpleDoubleProperty askProperty() {
+        return ask;
+    }
 }
@@ -0,0 +1,42 @@
+package app.models;
+
+public class TradeResult {
+
+    public enum Status { FILLED, INSUFFICIENT_FUNDS, INSUFFICIENT_SHARES, NO_LIQUIDITY }
+
+    private final Status status;
+    private final String symbol;
+    private final String side;
+    private final int quantity;
+    private final double price;
+    private final int positionQty;
+    private final double positionAvgPrice;
+    private final double balance;
+    private Transaction transaction;
+
+    public TradeResult(Status status, String symbol, String side, int quantity, double price,
+                       int positionQty, double positionAvgPrice, double balance) {
+        this.status = status;
+        this.symbol = symbol;
+        this.side = side;
+        this.quantity = quantity;
+        this.price = price;
+        this.positionQty = positionQty;
+        this.positionAvgPrice = positionAvgPrice;
+        this.balance = balance;
+    }
+
+    public Status getStatus() { return status; }
+    public boolean isFilled() { return status == Status.FILLED; }
+    public String getSymbol() { return symbol; }
+    public String getSide() { return side; }
+    public int getQuantity() { return quantity; }
+    public double getPrice() { return price; }
+    public int getPositionQty() { return positionQty; }
+    public double getPositionAvgPrice() { return positionAvgPrice; }
+    public double getBalance() { return balance; }
+
+    // ✅ The recorded transactions row (filled trades only)
+    public Transaction getTransaction() { return transaction; }
+    public void setTransaction(Transaction transaction) { this.transaction = transaction; }
+}
@@ -1,11 +1,15 @@
 package app.models;
 
+import java.sql.Timestamp;
+
 public class Transaction {
+    private int transactionId;
     private String symbol;
     private String type;
     private int quantity;
     private double price;
     private String date;
+    private Timestamp createdAt;
 
     public Transaction(String symbol, String type, int quantity, double price, String date) {
         this.symbol = symbol;
@@ -15,9 +19,18 @@ public class Transaction {
         this.date = date;
     }
 
+    // ✅ Full row, including the (created_at, transaction_id) keyset cursor
+    public Transaction(int transactionId, String symbol, String type, int quantity, double price, Timestamp createdAt) {
+        this(symbol, type, quantity, price, createdAt == null ? null : createdAt.toString().replaceFirst("\\.0$", ""));
+        this.transactionId = transactionId;
+        this.createdAt = createdAt;
+    }
+
+    public int getTransactionId() { return transactionId; }
     public String getSymbol() { return symbol; }
     public String getType() { return type; }
     public int getQuantity() { return quantity; }
     public double getPrice() { return price; }
     public String getDate() { return date; }
+    public Timestamp getCreatedAt() { return createdAt; }
 }
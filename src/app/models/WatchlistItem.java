@@ -1,19 +1,30 @@
 package app.models;
 
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleStringProperty;
+
 public class WatchlistItem {
-    private String symbol;
-    private String company;
-    private double price;
+
+    private final SimpleStringProperty symbol;
+    private final SimpleStringProperty company;
+    private final SimpleDoubleProperty price;
 
     public WatchlistItem(String symbol, String company, double price) {
-        this.symbol = symbol;
-        this.company = company;
-        this.price = price;
+        this.symbol = new SimpleStringProperty(symbol);
+        this.company = new SimpleStringProperty(company);
+        this.price = new SimpleDoubleProperty(price);
     }
 
-    public String getSymbol() { return symbol; }
-    public String getCompany() { return company; }
-    public double getPrice() { return price; }
+    // ✅ Getters for PropertyValueFactory
+    public String getSymbol() { return symbol.get(); }
+    public String getCompany() { return company.get(); }
+    public double getPrice() { return price.get(); }
+
+    public void setCompany(String company) { this.company.set(company); }
+    public void setPrice(double price) { this.price.set(price); }
 
-    public void setPrice(double price) { this.price = price; }
+    // ✅ Property accessors — cells follow changes without a table refresh()
+    public SimpleStringProperty symbolProperty() { return symbol; }
+    public SimpleStringProperty companyProperty() { return company; }
+    public SimpleDoubleProperty priceProperty() { return price; }
 }
@@ -0,0 +1,36 @@
+package app.portfolio;
+
+// 📌 One holding in the PositionBook; mutated only through the book
+public class Position {
+    private final String symbol;
+    private final String companyName;
+    int quantity;
+    double avgPrice;
+    double markPrice;
+    double dayBasePrice;     // per-share reference for today's change: session open, or fill price if bought today
+    double realizedPnl;      // closed P&L on this holding since the book was loaded
+    double buyNotional;      // buy fills (seeded with the loaded cost); sells leave them alone
+    long buyQuantity;
+
+    Position(String symbol, String companyName, int quantity, double avgPrice, double markPrice) {
+        this.symbol = symbol;
+        this.companyName = companyName;
+        this.quantity = quantity;
+        this.avgPrice = avgPrice;
+        this.markPrice = markPrice;
+        this.dayBasePrice = markPrice;
+    }
+
+    public String getSymbol() { return symbol; }
+    public String getCompanyName() { return companyName; }
+    public int getQuantity() { return quantity; }
+    public double getAvgPrice() { return avgPrice; }
+    public double getMarkPrice() { return markPrice; }
+    public double getMarketValue() { return quantity * markPrice; }
+    public double getCostBasis() { return quantity * avgPrice; }
+    public double getUnrealizedPnl() { return quantity * (markPrice - avgPrice); }
+    public double getUnrealizedPercent() { return avgPrice == 0 ? 0 : (markPrice - avgPrice) / avgPrice * 100.0; }
+    public double getDayChange() { return quantity * (markPrice - dayBasePrice); }
+    public double getRealizedPnl() { return realizedPnl; }
+    public double getVwap() { return buyQuantity == 0 ? avgPrice : buyNotional / buyQuantity; }
+}
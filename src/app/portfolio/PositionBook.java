@@ -0,0 +1,178 @@
+package app.portfolio;
+
+import app.models.PortfolioItem;
+import app.models.TradeResult;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+// 📒 Per-user in-memory positions and P&L.
+// Loaded once from MySQL, then kept current from executed trades and price ticks.
+// Aggregates are maintained incrementally, so every figure is O(1) to update and to read:
+//   a tick moves value, unrealized P&L and day change by qty × Δprice;
+//   a trade swaps the position's old contribution for its new one and books realized P&L on sells.
+// Realized P&L and day change start from zero when the book is loaded (one login session).
+public class PositionBook {
+
+    private final Map<String, Position> positions = new LinkedHashMap<>();
+    private double totalValue;
+    private double totalCost;
+    private double totalDayBase;
+    private double realizedPnl;
+    private double dayRealized;      // sells measured against the day base rather than cost
+    private long version;
+
+    // ✅ Replace the book with a fresh snapshot; unknown prices are marked at avg price
+    public synchronized void load(List<PortfolioItem> items, ToDoubleFunction<String> priceLookup) {
+        load(items, priceLookup, priceLookup);
+    }
+
+    // Day change is measured from openLookup (session open) where it is known
+    public synchronized void load(List<PortfolioItem> items, ToDoubleFunction<String> priceLookup,
+                                  ToDoubleFunction<String> openLookup) {
+        positions.clear();
+        totalValue = 0;
+        totalCost = 0;
+        totalDayBase = 0;
+        realizedPnl = 0;
+        dayRealized = 0;
+        for (PortfolioItem item : items) {
+            double mark = markFor(item.getSymbol(), item.getAvgPrice(), priceLookup);
+            Position p = new Position(item.getSymbol(), item.getCompanyName(), item.getQuantity(), item.getAvgPrice(), mark);
+            p.dayBasePrice = markFor(item.getSymbol(), mark, openLookup);
+            p.buyNotional = item.getQuantity() * item.getAvgPrice();    // earlier fills are only known as their cost
+            p.buyQuantity = item.getQuantity();
+            positions.put(p.getSymbol(), p);
+            add(p);
+        }
+        version++;
+    }
+
+    // 📈 O(1) revaluation on a price tick
+    public synchronized boolean onPrice(String symbol, double price) {
+        Position p = positions.get(symbol);
+        if (p == null) return false;
+        totalValue += p.quantity * (price - p.markPrice);
+        p.markPrice = price;
+        version++;
+        return true;
+    }
+
+    // 💸 Apply a filled trade; quantity and avg price come from the DB result
+    public synchronized Position apply(TradeResult trade, String companyName, double markPrice) {
+        if (!trade.isFilled()) return positions.get(trade.getSymbol());
+        if (Double.isNaN(markPrice)) markPrice = trade.getPrice();
+        Position p = positions.get(trade.getSymbol());
+        version++;
+        if (p != null) {
+            remove(p);
+            if ("SELL".equalsIgnoreCase(trade.getSide())) {
+                double pnl = (trade.getPrice() - p.avgPrice) * trade.getQuantity();
+                p.realizedPnl += pnl;
+                realizedPnl += pnl;
+                dayRealized += (trade.getPrice() - p.dayBasePrice) * trade.getQuantity();
+            }
+        }
+
+        if (trade.getPositionQty() == 0) {
+            positions.remove(trade.getSymbol());
+            return null;
+        }
+        if (p == null) {
+            p = new Position(trade.getSymbol(), companyName, 0, 0, markPrice);
+            p.dayBasePrice = trade.getPrice();
+            positions.put(p.getSymbol(), p);
+        } else if (trade.getPositionQty() > p.quantity) {
+            // Shares bought today count from their fill price
+            p.dayBasePrice = (p.quantity * p.dayBasePrice + (trade.getPositionQty() - p.quantity) * trade.getPrice())
+                    / trade.getPositionQty();
+        }
+        if ("BUY".equalsIgnoreCase(trade.getSide())) {
+            p.buyNotional += trade.getPrice() * trade.getQuantity();
+            p.buyQuantity += trade.getQuantity();
+        }
+        p.quantity = trade.getPositionQty();
+        p.avgPrice = trade.getPositionAvgPrice();
+        p.markPrice = markPrice;
+        add(p);
+        return p;
+    }
+
+    private void add(Position p) {
+        totalValue += p.getMarketValue();
+        totalCost += p.getCostBasis();
+        totalDayBase += p.quantity * p.dayBasePrice;
+    }
+
+    private void remove(Position p) {
+        totalValue -= p.getMarketValue();
+        totalCost -= p.getCostBasis();
+        totalDayBase -= p.quantity * p.dayBasePrice;
+    }
+
+    public synchronized double getTotalValue() {
+        return totalValue;
+    }
+
+    public synchronized double getTotalCost() {
+        return totalCost;
+    }
+
+    public synchronized double getUnrealizedPnl() {
+        return totalValue - totalCost;
+    }
+
+    public synchronized double getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    // 📅 Today's P&L: open positions and this session's sells, both against the day base
+    public synchronized double getDayChange() {
+        return totalValue - totalDayBase + dayRealized;
+    }
+
+    // Unrealized P&L of the holding if marked at price; NaN when not held
+    public synchronized double unrealizedPnlAt(String symbol, double price) {
+        Position p = positions.get(symbol);
+        return p == null ? Double.NaN : p.quantity * (price - p.avgPrice);
+    }
+
+    // ⚖️ Share of portfolio value held in symbol (0 when not held)
+    public synchronized double weightOf(String symbol) {
+        Position p = positions.get(symbol);
+        return p == null || totalValue == 0 ? 0 : p.getMarketValue() / totalValue;
+    }
+
+    // 🔢 Bumped on every change; views compare it to skip redundant redraws
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized Position get(String symbol) {
+        return positions.get(symbol);
+    }
+
+    public synchronized int size() {
+        return positions.size();
+    }
+
+    // 📋 Snapshot as table rows, with the per-position P&L figures
+    public synchronized List<PortfolioItem> toItems() {
+        List<PortfolioItem> list = new ArrayList<>(positions.size());
+        for (Position p : positions.values()) {
+            PortfolioItem item = new PortfolioItem(p.getSymbol(), p.getCompanyName(), p.getQuantity(), p.getAvgPrice(), p.getMarketValue());
+            item.setUnrealizedPnl(p.getUnrealizedPnl());
+            item.setRealizedPnl(p.getRealizedPnl());
+            item.setDayChange(p.getDayChange());
+            item.setWeight(totalValue == 0 ? 0 : p.getMarketValue() / totalValue * 100.0);
+            item.setVwap(p.getVwap());
+            list.add(item);
+        }
+        return list;
+    }
+
+    private static double markFor(String symbol, double fallback, ToDoubleFunction<String> priceLookup) {
+        double price = priceLookup.applyAsDouble(symbol);
+        return Double.isNaN(price) ? fallback : price;
+    }
+}